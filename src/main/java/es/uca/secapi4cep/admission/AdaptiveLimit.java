@@ -0,0 +1,104 @@
+package es.uca.secapi4cep.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to the observed latency. By Little's law the
+ * requests in flight are throughput times latency, so when latency grows past
+ * its long-term average the extra requests are only queueing: the limit is then
+ * scaled down by the ratio of both latencies, and otherwise grows slowly while
+ * the limit is in use.
+ */
+class AdaptiveLimit {
+
+    // Weight of every sample in the short and long-term latency averages
+    private static final double SHORT_WEIGHT = 0.2;
+    private static final double LONG_WEIGHT = 0.01;
+
+    // Latency increase tolerated before the limit is reduced
+    private static final double TOLERANCE = 1.5;
+
+    // Weight of every new limit against the current one
+    private static final double SMOOTHING = 0.2;
+
+    // Time a class stays congested after its last slow sample, so that it recovers once its requests stop
+    private static final long CONGESTION_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    // Deadline in System.nanoTime() until which the class is considered congested
+    private volatile long congestedUntil = System.nanoTime();
+
+    // Latency averages in nanoseconds, guarded by this
+    private double shortRtt;
+    private double longRtt;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = Math.max(minLimit, maxLimit);
+        this.limit = Math.max(minLimit, Math.min(initialLimit, this.maxLimit));
+    }
+
+    /**
+     * Admits a request if the limit allows it.
+     * @return True if the request was admitted and must be released
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and adapts the limit to its latency.
+     * @param rttNanos The time the request took, in nanoseconds
+     */
+    void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(rttNanos, inFlightBefore);
+    }
+
+    /**
+     * Whether the latency was above the tolerated increase over its long-term average in the last second.
+     * @return True if the requests of this class are queueing
+     */
+    boolean isCongested() {
+        return congestedUntil - System.nanoTime() > 0;
+    }
+
+    private synchronized void update(long rtt, int inFlightBefore) {
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt = shortRtt * (1 - SHORT_WEIGHT) + rtt * SHORT_WEIGHT;
+        longRtt = longRtt * (1 - LONG_WEIGHT) + rtt * LONG_WEIGHT;
+        // After a sustained drop in latency the long-term average catches up faster
+        if (longRtt > shortRtt * 2) {
+            longRtt = longRtt * 0.95 + shortRtt * 0.05;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        long now = System.nanoTime();
+        congestedUntil = gradient < 1.0 ? now + CONGESTION_WINDOW_NANOS : now;
+        double current = limit;
+        if (gradient == 1.0 && inFlightBefore < current / 2) {
+            // Nothing shows that a higher limit would be used
+            return;
+        }
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,111 @@
+package es.uca.secapi4cep.admission;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admits every request under the adaptive concurrency limit of its priority
+ * class, answering 503 when the limit is reached. Low priority requests are
+ * also shed while the higher classes are congested, so that bulk reads give
+ * way to the lifecycle operations before their latency degrades.
+ */
+@Component
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    private static final String OVERLOADED_BODY =
+        "{\"message\":\"The server is overloaded, try again later.\",\"status\":\"" + HttpStatus.SERVICE_UNAVAILABLE.value() + "\"}";
+
+    // Shortest time between two reports of the shed requests
+    private static final long SHED_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    // Path of the liveness and readiness probes, which are never shed
+    private static final String HEALTH_PATH = "/health";
+
+    private final boolean enabled;
+    private final Map<Priority, AdaptiveLimit> limits = new EnumMap<>(Priority.class);
+
+    // Requests shed since the last report and when it was made
+    private final Map<Priority, LongAdder> shed = new EnumMap<>(Priority.class);
+    private final AtomicLong lastShedReport = new AtomicLong(System.nanoTime());
+
+    // Constructor to inject the concurrency limits of every priority class
+    public AdmissionFilter(@Value("${cep.admission.enabled:true}") boolean enabled,
+                           @Value("${cep.admission.high.initial-limit:20}") int highInitialLimit,
+                           @Value("${cep.admission.high.max-limit:100}") int highMaxLimit,
+                           @Value("${cep.admission.normal.initial-limit:50}") int normalInitialLimit,
+                           @Value("${cep.admission.normal.max-limit:200}") int normalMaxLimit,
+                           @Value("${cep.admission.low.initial-limit:10}") int lowInitialLimit,
+                           @Value("${cep.admission.low.max-limit:50}") int lowMaxLimit) {
+        this.enabled = enabled;
+        limits.put(Priority.HIGH, new AdaptiveLimit(highInitialLimit, 4, highMaxLimit));
+        limits.put(Priority.NORMAL, new AdaptiveLimit(normalInitialLimit, 4, normalMaxLimit));
+        limits.put(Priority.LOW, new AdaptiveLimit(lowInitialLimit, 1, lowMaxLimit));
+        for (Priority priority : Priority.values()) {
+            shed.put(priority, new LongAdder());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Probes must keep answering precisely when the server is busiest
+        String path = request.getServletPath();
+        return !enabled || path.equals(HEALTH_PATH) || path.startsWith(HEALTH_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Priority priority = Priority.of(request.getMethod(), request.getServletPath());
+        AdaptiveLimit limit = limits.get(priority);
+        boolean yield = priority == Priority.LOW
+            && (limits.get(Priority.HIGH).isCongested() || limits.get(Priority.NORMAL).isCongested());
+        if (yield || !limit.tryAcquire()) {
+            shed.get(priority).increment();
+            reportShed();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(OVERLOADED_BODY);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    // Logs how many requests were shed, at most once per interval however many are rejected
+    private void reportShed() {
+        long last = lastShedReport.get();
+        long now = System.nanoTime();
+        if (now - last < SHED_REPORT_INTERVAL_NANOS || !lastShedReport.compareAndSet(last, now)) {
+            return;
+        }
+        logger.warn("Shed {} high, {} normal and {} low priority requests in the last {} s.",
+            shed.get(Priority.HIGH).sumThenReset(), shed.get(Priority.NORMAL).sumThenReset(),
+            shed.get(Priority.LOW).sumThenReset(), TimeUnit.NANOSECONDS.toSeconds(now - last));
+    }
+}
@@ -0,0 +1,38 @@
+package es.uca.secapi4cep.admission;
+
+/**
+ * Priority classes of the requests, each admitted under its own concurrency limit.
+ */
+public enum Priority {
+    // Lifecycle operations on event types and patterns, needed most during incidents
+    HIGH,
+    // Single reads, authentication and the remaining endpoints
+    NORMAL,
+    // Bulk reads and user administration, shed first under load
+    LOW;
+
+    /**
+     * Returns the priority of a request.
+     * @param method The HTTP method
+     * @param path The path of the request, without the context path
+     * @return The priority class of the request
+     */
+    public static Priority of(String method, String path) {
+        boolean artifact = path.startsWith("/event-type") || path.startsWith("/event-pattern");
+        if ((artifact && !"GET".equals(method)) || path.equals("/deployment/deploy-ready")) {
+            return HIGH;
+        }
+        if (artifact && isBulkRead(path)) {
+            return LOW;
+        }
+        if (path.startsWith("/user/") && !path.equals("/user/authenticate") && !path.equals("/user/create")) {
+            return LOW;
+        }
+        return NORMAL;
+    }
+
+    private static boolean isBulkRead(String path) {
+        return path.equals("/event-type") || path.equals("/event-pattern") || path.endsWith("/summary")
+            || path.endsWith("/name") || path.contains("/duplicates/");
+    }
+}
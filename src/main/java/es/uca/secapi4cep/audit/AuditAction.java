@@ -0,0 +1,16 @@
+package es.uca.secapi4cep.audit;
+
+/**
+ * Actions recorded in the audit trail.
+ */
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    READY,
+    UNREADY,
+    DEPLOY,
+    UNDEPLOY,
+    DELETE,
+    AUTHENTICATE,
+    DEPLOY_READY
+}
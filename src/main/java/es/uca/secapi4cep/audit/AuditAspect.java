@@ -0,0 +1,78 @@
+package es.uca.secapi4cep.audit;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+/**
+ * Records the calls of @Audited methods in the audit trail. Only the event is
+ * built on the request thread; it is written later by the audit log.
+ */
+@Aspect
+@Component
+public class AuditAspect {
+
+    private final AuditLog auditLog;
+
+    // Constructor to inject the audit log
+    public AuditAspect(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @Around("@annotation(audited)")
+    public Object audit(ProceedingJoinPoint joinPoint, Audited audited) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            record(joinPoint, audited, AuditOutcome.ERROR, 0, start);
+            throw e;
+        }
+        int status = result instanceof ResponseEntity<?> response ? response.getStatusCode().value() : 200;
+        record(joinPoint, audited, status < 400 ? AuditOutcome.SUCCESS : AuditOutcome.FAILURE, status, start);
+        return result;
+    }
+
+    private void record(ProceedingJoinPoint joinPoint, Audited audited, AuditOutcome outcome, int status, long start) {
+        long latencyMicros = (System.nanoTime() - start) / 1000;
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object[] args = joinPoint.getArgs();
+        Annotation[][] annotations = method.getParameterAnnotations();
+
+        String actor = null;
+        Long resourceId = null;
+        for (int i = 0; i < args.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (resourceId == null && annotation instanceof PathVariable && args[i] instanceof Long id) {
+                    resourceId = id;
+                } else if (actor == null && annotation instanceof RequestHeader header
+                           && "username".equals(header.value()) && args[i] instanceof String username) {
+                    actor = username;
+                }
+            }
+        }
+        auditLog.record(new AuditEvent(System.currentTimeMillis(), currentUsername(actor), audited.resource(),
+            audited.action(), resourceId, outcome, status, latencyMicros));
+    }
+
+    // The authenticated user, else the username the request claims, else "Anonymous"
+    private static String currentUsername(String claimed) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            return userDetails.getUsername();
+        }
+        return claimed != null ? claimed : "Anonymous";
+    }
+}
@@ -0,0 +1,16 @@
+package es.uca.secapi4cep.audit;
+
+/**
+ * An entry of the audit trail.
+ * @param timestamp Time the action ended, in epoch milliseconds
+ * @param actor The username of the user who performed the action
+ * @param resource The kind of resource acted on
+ * @param action The action
+ * @param resourceId The ID of the resource, null if the request does not name one
+ * @param outcome The outcome of the action
+ * @param status The HTTP status of the response, 0 if it ended with an exception
+ * @param latencyMicros Time the action took, in microseconds
+ */
+public record AuditEvent(long timestamp, String actor, String resource, AuditAction action, Long resourceId,
+                         AuditOutcome outcome, int status, long latencyMicros) {
+}
@@ -0,0 +1,206 @@
+package es.uca.secapi4cep.audit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Audit trail of the actions performed through the API. Events are put in a
+ * ring buffer by the request threads, which never block on it, and written by
+ * a background thread in batches to a rolling file, one JSON object per line.
+ * Events that do not fit in the buffer are dropped and counted.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    // Maximum number of events written per batch
+    private static final int BATCH_SIZE = 1000;
+
+    private final AuditRingBuffer<AuditEvent> buffer;
+
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxFiles;
+
+    // Owned by the writer thread
+    private BufferedWriter writer;
+    private long fileSize;
+
+    // Drops already reported in the log
+    private long reportedDrops;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "audit-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Constructor to inject the size of the buffer and the settings of the audit file
+    public AuditLog(@Value("${cep.audit.buffer-size:8192}") int bufferSize,
+                    @Value("${cep.audit.file:logs/audit.log}") String file,
+                    @Value("${cep.audit.max-file-size:10485760}") long maxFileSize,
+                    @Value("${cep.audit.max-files:5}") int maxFiles,
+                    @Value("${cep.audit.flush-ms:200}") long flushMillis) {
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+        this.file = Path.of(file);
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = Math.max(1, maxFiles);
+        scheduler.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds an event to the audit trail without waiting.
+     * @param event The event
+     */
+    public void record(AuditEvent event) {
+        buffer.offer(event);
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full.
+     * @return The dropped events since startup
+     */
+    public long dropped() {
+        return buffer.dropped();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        closeWriter();
+    }
+
+    // Writes every buffered event, rolling the file when it grows too large
+    private synchronized void flush() {
+        try {
+            while (buffer.drain(this::write, BATCH_SIZE) > 0) {
+                // Keep draining until the buffer is empty
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to write the audit trail to {}.", file, e);
+            closeWriter();
+        }
+        long dropped = buffer.dropped();
+        if (dropped > reportedDrops) {
+            logger.warn("{} audit events were dropped because the buffer was full.", dropped - reportedDrops);
+            reportedDrops = dropped;
+        }
+    }
+
+    private void write(AuditEvent event) {
+        try {
+            if (writer == null) {
+                open();
+            }
+            String line = toJson(event) + "\n";
+            writer.write(line);
+            fileSize += line.length();
+            if (fileSize >= maxFileSize) {
+                closeWriter();
+                roll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void open() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileSize = Files.size(file);
+    }
+
+    // Renames audit.log to audit.log.1, audit.log.1 to audit.log.2, and so on, discarding the oldest
+    private void roll() throws IOException {
+        Files.deleteIfExists(rolled(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            if (Files.exists(rolled(i))) {
+                Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private Path rolled(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close the audit file {}.", file, e);
+        }
+        writer = null;
+    }
+
+    private static String toJson(AuditEvent event) {
+        StringBuilder json = new StringBuilder(192);
+        json.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(event.timestamp())).append('"');
+        json.append(",\"actor\":");
+        appendString(json, event.actor());
+        json.append(",\"resource\":");
+        appendString(json, event.resource());
+        json.append(",\"action\":\"").append(event.action()).append('"');
+        json.append(",\"resourceId\":").append(event.resourceId());
+        json.append(",\"outcome\":\"").append(event.outcome()).append('"');
+        json.append(",\"status\":").append(event.status());
+        json.append(",\"latencyMicros\":").append(event.latencyMicros());
+        return json.append('}').toString();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,13 @@
+package es.uca.secapi4cep.audit;
+
+/**
+ * Outcomes of an audited action.
+ */
+public enum AuditOutcome {
+    // Answered with a 2xx status
+    SUCCESS,
+    // Answered with an error status
+    FAILURE,
+    // Ended with an exception
+    ERROR
+}
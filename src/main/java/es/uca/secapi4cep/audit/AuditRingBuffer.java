@@ -0,0 +1,84 @@
+package es.uca.secapi4cep.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue of many producers and a single consumer. Producers
+ * claim a slot with a compare-and-set on the tail and never wait: when the
+ * buffer is full the element is dropped and counted.
+ * @param <E> The type of element
+ */
+class AuditRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+
+    // Next sequence to claim by a producer
+    private final AtomicLong tail = new AtomicLong();
+
+    // Next sequence to read by the consumer
+    private final AtomicLong head = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    // Capacity rounded up to a power of two
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an element unless the buffer is full.
+     * @param element The element
+     * @return True if the element was added, false if it was dropped
+     */
+    boolean offer(E element) {
+        while (true) {
+            long claimed = tail.get();
+            if (claimed - head.get() >= slots.length()) {
+                dropped.increment();
+                return false;
+            }
+            if (tail.compareAndSet(claimed, claimed + 1)) {
+                slots.set((int) claimed & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the elements available, in order. Only one thread may drain.
+     * @param consumer Receives every element
+     * @param max Maximum number of elements to remove
+     * @return The number of elements removed
+     */
+    int drain(Consumer<E> consumer, int max) {
+        long next = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) next & mask;
+            E element = slots.get(index);
+            if (element == null) {
+                // Empty, or claimed by a producer that has not stored it yet
+                break;
+            }
+            slots.set(index, null);
+            head.lazySet(++next);
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the number of elements dropped because the buffer was full.
+     * @return The dropped elements since creation
+     */
+    long dropped() {
+        return dropped.sum();
+    }
+}
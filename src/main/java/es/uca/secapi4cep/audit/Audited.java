@@ -0,0 +1,29 @@
+package es.uca.secapi4cep.audit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records every call of a controller method in the audit trail. The resource ID
+ * is the first Long path variable of the method, if any.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Audited {
+
+    /**
+     * The kind of resource acted on, as in the paths of the API.
+     * @return The resource
+     */
+    String resource();
+
+    /**
+     * The action performed.
+     * @return The action
+     */
+    AuditAction action();
+}
@@ -0,0 +1,23 @@
+package es.uca.secapi4cep.cache;
+
+import es.uca.secapi4cep.deployment.ArtifactKind;
+
+/**
+ * Groups of cached entries that are invalidated together by key.
+ */
+public enum CacheRegion {
+    USER,
+    EVENT_TYPE,
+    EVENT_PATTERN,
+    // Failed logins, which the other instances record instead of evicting
+    LOGIN_FAILURE;
+
+    /**
+     * Returns the region that caches artifacts of the given kind.
+     * @param kind The kind of artifact
+     * @return The cache region of the artifacts
+     */
+    public static CacheRegion of(ArtifactKind kind) {
+        return kind == ArtifactKind.EVENT_TYPE ? EVENT_TYPE : EVENT_PATTERN;
+    }
+}
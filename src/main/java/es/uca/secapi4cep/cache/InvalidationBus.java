@@ -0,0 +1,170 @@
+package es.uca.secapi4cep.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.Channel;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Evicts cached entries on every instance when an entity changes. Entries are
+ * evicted locally at once; in a cluster the keys are also collected for a short
+ * window and broadcast in a single message on a fanout exchange, so that a
+ * burst of writes costs one message per window instead of one per write.
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    // Fanout exchange every instance binds its own queue to
+    public static final String EXCHANGE = "cep.invalidation";
+
+    private final CachingConnectionFactory connectionFactory;
+
+    // Whether invalidations are broadcast to the other instances
+    private final boolean broadcast;
+
+    // Time invalidations are collected before being broadcast
+    private final long batchMillis;
+
+    // Maximum number of keys per message
+    private final int maxBatch;
+
+    // Identifies the messages sent by this instance, which need no processing on receipt
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // Evictors of every region
+    private final Map<CacheRegion, List<Consumer<String>>> evictors = new ConcurrentHashMap<>();
+
+    // Keys waiting to be broadcast, as region:key, without duplicates
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "invalidation-bus");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Constructor to inject the RabbitMQ connection factory and the batching settings
+    public InvalidationBus(CachingConnectionFactory connectionFactory,
+                           @Value("${cep.cluster.enabled:false}") boolean broadcast,
+                           @Value("${cep.cache.invalidation.batch-ms:50}") long batchMillis,
+                           @Value("${cep.cache.invalidation.max-batch:500}") int maxBatch) {
+        this.connectionFactory = connectionFactory;
+        this.broadcast = broadcast;
+        this.batchMillis = batchMillis;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Registers how to evict the entries of a region.
+     * @param region The cache region
+     * @param evictor Evicts the entry of the key it is given
+     */
+    public void register(CacheRegion region, Consumer<String> evictor) {
+        evictors.computeIfAbsent(region, k -> new CopyOnWriteArrayList<>()).add(evictor);
+    }
+
+    /**
+     * Evicts an entry on this instance and, in a cluster, on every other one.
+     * @param region The cache region
+     * @param key The key of the changed entity
+     */
+    public void invalidate(CacheRegion region, Object key) {
+        String value = String.valueOf(key);
+        evictLocally(region, value);
+        broadcast(region, value);
+    }
+
+    /**
+     * Notifies only the other instances of a key, for changes this instance has already applied.
+     * Repeated keys within a batching window are sent once.
+     * @param region The cache region
+     * @param key The key of the change
+     */
+    public void broadcast(CacheRegion region, Object key) {
+        if (!broadcast) {
+            return;
+        }
+        pending.add(region + ":" + key);
+        if (pending.size() >= maxBatch) {
+            scheduler.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, batchMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Processes an invalidation message received from the fanout exchange.
+     * @param message The message, with the sender on the first line and a region:key per following line
+     */
+    public void receive(Message message) {
+        String[] lines = new String(message.getBody(), StandardCharsets.UTF_8).split("\n");
+        if (lines.length == 0 || instanceId.equals(lines[0])) {
+            return;
+        }
+        for (int i = 1; i < lines.length; i++) {
+            int separator = lines[i].indexOf(':');
+            if (separator <= 0) {
+                continue;
+            }
+            try {
+                evictLocally(CacheRegion.valueOf(lines[i].substring(0, separator)), lines[i].substring(separator + 1));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring invalidation of unknown region: {}", lines[i]);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.execute(this::flush);
+        scheduler.shutdown();
+    }
+
+    private void evictLocally(CacheRegion region, String key) {
+        evictors.getOrDefault(region, List.of()).forEach(evictor -> evictor.accept(key));
+    }
+
+    // Broadcasts the pending keys, in messages of at most maxBatch keys
+    private void flush() {
+        flushScheduled.set(false);
+        while (!pending.isEmpty()) {
+            List<String> batch = new ArrayList<>();
+            Iterator<String> keys = pending.iterator();
+            while (batch.size() < maxBatch && keys.hasNext()) {
+                batch.add(keys.next());
+                keys.remove();
+            }
+            String body = instanceId + "\n" + String.join("\n", batch);
+            try (Channel channel = connectionFactory.createConnection().createChannel(false)) {
+                channel.basicPublish(EXCHANGE, "", null, body.getBytes(StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                // The other instances keep their entries until they expire
+                logger.error("Failed to broadcast {} cache invalidations.", batch.size(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package es.uca.secapi4cep.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache whose entries expire after a fixed time. Loads that
+ * overlap an invalidation are not stored, so an entry evicted because of a write
+ * cannot be brought back with the value read before that write.
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ */
+public class LocalCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    // Time entries stay valid, in milliseconds
+    private final long ttlMillis;
+
+    // Maximum number of entries before old ones are dropped
+    private final int maxSize;
+
+    // Increased on every invalidation, to detect loads that raced with one
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public LocalCache(long ttlMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached value of a key, loading and caching it if missing or expired.
+     * Empty results are not cached.
+     * @param key The key
+     * @param loader Loads the value when it is not cached
+     * @return The value, or empty if the loader found none
+     */
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return Optional.of(entry.value());
+        }
+        long generation = invalidations.get();
+        Optional<V> value = loader.apply(key);
+        if (value.isPresent() && ttlMillis > 0) {
+            if (entries.size() >= maxSize) {
+                prune(now);
+            }
+            entries.put(key, new Entry<>(value.get(), now + ttlMillis));
+            if (invalidations.get() != generation) {
+                // An invalidation happened while loading: the value may predate it
+                entries.remove(key);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Removes the entry of a key.
+     * @param key The key to evict
+     */
+    public void evict(K key) {
+        invalidations.incrementAndGet();
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    // Drops the expired entries and, if still full, about a tenth of the others
+    private void prune(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        int toDrop = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<K> keys = entries.keySet().iterator();
+        while (toDrop-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package es.uca.secapi4cep.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import es.uca.secapi4cep.cache.InvalidationBus;
+import es.uca.secapi4cep.cache.LocalCache;
+import es.uca.secapi4cep.database.migration.LegacyArtifactContentWriter;
+import es.uca.secapi4cep.deployment.ArtifactKind;
+import es.uca.secapi4cep.deployment.ArtifactLocks;
+import es.uca.secapi4cep.deployment.DeploymentCoalescer;
+import es.uca.secapi4cep.deployment.DeploymentSink;
+import es.uca.secapi4cep.entities.EventPattern;
+import es.uca.secapi4cep.entities.EventType;
+import es.uca.secapi4cep.lifecycle.DeploymentDrain;
+import es.uca.secapi4cep.repositories.EventPatternRepository;
+import es.uca.secapi4cep.repositories.EventTypeRepository;
+import es.uca.secapi4cep.services.ArtifactLifecycleEngine;
+import es.uca.secapi4cep.services.EplValidationService;
+
+@Configuration
+public class ArtifactEngineConfig {
+
+    // Time an artifact read by ID stays cached
+    @Value("${cep.cache.artifacts.ttl-ms:30000}")
+    private long cacheTtlMillis;
+
+    // Maximum number of cached artifacts of each kind
+    @Value("${cep.cache.artifacts.max-size:1000}")
+    private int cacheMaxSize;
+
+    /**
+     * Configures the lifecycle engine of event types.
+     * @return An ArtifactLifecycleEngine backed by the event type repository
+     */
+    @Bean
+    public ArtifactLifecycleEngine<EventType> eventTypeEngine(EventTypeRepository eventTypeRepository,
+            DeploymentCoalescer deploymentCoalescer, DeploymentSink deploymentSink,
+            EplValidationService eplValidationService, ArtifactLocks artifactLocks, DeploymentDrain deploymentDrain,
+            InvalidationBus invalidationBus, LegacyArtifactContentWriter legacyContentWriter) {
+        return new ArtifactLifecycleEngine<>(ArtifactKind.EVENT_TYPE, eventTypeRepository, deploymentCoalescer,
+            deploymentSink, eplValidationService, artifactLocks, deploymentDrain, invalidationBus,
+            new LocalCache<>(cacheTtlMillis, cacheMaxSize), legacyContentWriter);
+    }
+
+    /**
+     * Configures the lifecycle engine of event patterns.
+     * @return An ArtifactLifecycleEngine backed by the event pattern repository
+     */
+    @Bean
+    public ArtifactLifecycleEngine<EventPattern> eventPatternEngine(EventPatternRepository eventPatternRepository,
+            DeploymentCoalescer deploymentCoalescer, DeploymentSink deploymentSink,
+            EplValidationService eplValidationService, ArtifactLocks artifactLocks, DeploymentDrain deploymentDrain,
+            InvalidationBus invalidationBus, LegacyArtifactContentWriter legacyContentWriter) {
+        return new ArtifactLifecycleEngine<>(ArtifactKind.EVENT_PATTERN, eventPatternRepository, deploymentCoalescer,
+            deploymentSink, eplValidationService, artifactLocks, deploymentDrain, invalidationBus,
+            new LocalCache<>(cacheTtlMillis, cacheMaxSize), legacyContentWriter);
+    }
+}
@@ -0,0 +1,20 @@
+package es.uca.secapi4cep.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import es.uca.secapi4cep.http.BinaryArtifactMessageConverter;
+
+@Configuration
+public class ContentNegotiationConfig {
+
+    /**
+     * Registers the binary format of the artifact lists next to JSON, so that it is only used when the
+     * client asks for it in the Accept header.
+     * @return The binary converter of artifact lists
+     */
+    @Bean
+    public BinaryArtifactMessageConverter binaryArtifactMessageConverter() {
+        return new BinaryArtifactMessageConverter();
+    }
+}
@@ -0,0 +1,36 @@
+package es.uca.secapi4cep.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import es.uca.secapi4cep.deployment.DeploymentOutbox;
+import es.uca.secapi4cep.deployment.InMemoryDeploymentBroker;
+import es.uca.secapi4cep.deployment.DeploymentPublisher;
+import es.uca.secapi4cep.deployment.DeploymentSink;
+
+@Configuration
+public class DeploymentSinkConfig {
+
+    /**
+     * Configures where deployment operations are sent. A single instance publishes them to RabbitMQ
+     * directly; in a cluster they are stored in the shared outbox, in the transaction of the state change
+     * that produces them, and published by the leader. The
+     * in-memory stand-in of the queues, when enabled for local development, takes precedence over both.
+     * @return The DeploymentSink used by the lifecycle engines
+     */
+    @Bean
+    public DeploymentSink deploymentSink(@Value("${cep.cluster.enabled:false}") boolean clusterEnabled,
+            DeploymentPublisher deploymentPublisher, DeploymentOutbox deploymentOutbox,
+            ObjectProvider<InMemoryDeploymentBroker> inMemoryBroker) {
+        InMemoryDeploymentBroker broker = inMemoryBroker.getIfAvailable();
+        if (broker != null) {
+            return broker;
+        }
+        if (clusterEnabled) {
+            return deploymentOutbox;
+        }
+        return deploymentPublisher::publish;
+    }
+}
@@ -0,0 +1,29 @@
+package es.uca.secapi4cep.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import es.uca.secapi4cep.cache.InvalidationBus;
+import es.uca.secapi4cep.database.MigrationRunner;
+import es.uca.secapi4cep.deployment.DeploymentCoordinator;
+import es.uca.secapi4cep.lifecycle.DeploymentDrain;
+import es.uca.secapi4cep.ratelimit.LoginThrottle;
+
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+    /**
+     * Keeps eager the beans that must work before their first use when the fast-startup profile makes
+     * every other bean lazy: the migrations, the background deployment leader, the drain on shutdown
+     * and the receivers of cluster broadcasts.
+     * @return A filter that excludes these beans from lazy initialization
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(MigrationRunner.class, DeploymentCoordinator.class,
+            DeploymentDrain.class, InvalidationBus.class, LoginThrottle.class);
+    }
+}
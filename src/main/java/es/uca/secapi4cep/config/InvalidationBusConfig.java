@@ -0,0 +1,53 @@
+package es.uca.secapi4cep.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import es.uca.secapi4cep.cache.InvalidationBus;
+
+/**
+ * Binds a queue private to this instance to the cache invalidation exchange.
+ * The exchange, queue and binding are declared when the listener connects, and
+ * declared again after every reconnection.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cep.cluster.enabled", havingValue = "true")
+public class InvalidationBusConfig {
+
+    @Bean
+    public FanoutExchange invalidationExchange() {
+        return new FanoutExchange(InvalidationBus.EXCHANGE, false, false);
+    }
+
+    // Exclusive, auto-deleted queue: invalidations are only useful while this instance is running
+    @Bean
+    public Queue invalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding invalidationBinding(FanoutExchange invalidationExchange, Queue invalidationQueue) {
+        return BindingBuilder.bind(invalidationQueue).to(invalidationExchange);
+    }
+
+    /**
+     * Configures the listener that applies the invalidations broadcast by the other instances.
+     * @return A SimpleMessageListenerContainer consuming the invalidation queue
+     */
+    @Bean
+    public SimpleMessageListenerContainer invalidationListener(CachingConnectionFactory connectionFactory,
+            Queue invalidationQueue, InvalidationBus invalidationBus) {
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueues(invalidationQueue);
+        container.setMessageListener(invalidationBus::receive);
+        return container;
+    }
+}
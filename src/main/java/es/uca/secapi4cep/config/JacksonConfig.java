@@ -0,0 +1,20 @@
+package es.uca.secapi4cep.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Replaces the reflective property access of Jackson with generated lambdas. Spring Boot registers every
+     * Module bean in the application ObjectMapper.
+     * @return The Blackbird module
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
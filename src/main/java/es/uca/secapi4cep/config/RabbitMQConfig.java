@@ -0,0 +1,75 @@
+package es.uca.secapi4cep.config;
+
+import java.nio.file.Path;
+
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.rabbitmq.client.ConnectionFactory;
+
+@Configuration
+@ConditionalOnProperty(name = "rabbitmq.password")
+public class RabbitMQConfig {
+
+    // Property for the RabbitMQ password, injected from configuration
+    @Value("${rabbitmq.password}")
+    private String rabbitMQPassword;
+
+    /**
+     * Configures the SSLContext of the RabbitMQ connections, shared by all of them so that TLS sessions are
+     * resumed on reconnection, and reloaded when the key store or trust store files are rotated.
+     * @param keyStore The client key store
+     * @param trustStore The trust store containing the CA certificates
+     * @param sessionCacheSize Maximum number of TLS sessions cached for resumption
+     * @param sessionTimeoutSeconds Time a cached TLS session can be resumed
+     * @param reloadIntervalMillis Time between checks of the store files
+     * @return The reloadable SSLContext
+     * @throws Exception If the stores cannot be loaded
+     */
+    @Bean(destroyMethod = "close")
+    public ReloadableSslContext rabbitSslContext(@Value("${cep.rabbitmq.ssl.key-store:client.p12}") String keyStore,
+            @Value("${cep.rabbitmq.ssl.trust-store:ca.p12}") String trustStore,
+            @Value("${cep.rabbitmq.ssl.session-cache-size:100}") int sessionCacheSize,
+            @Value("${cep.rabbitmq.ssl.session-timeout-s:86400}") int sessionTimeoutSeconds,
+            @Value("${cep.rabbitmq.ssl.reload-interval-ms:30000}") long reloadIntervalMillis) throws Exception {
+        ReloadableSslContext sslContext = new ReloadableSslContext(Path.of(keyStore), Path.of(trustStore),
+            rabbitMQPassword.toCharArray(), sessionCacheSize, sessionTimeoutSeconds);
+        sslContext.watch(reloadIntervalMillis);
+        return sslContext;
+    }
+
+    /**
+     * Configures the RabbitMQ connection factory with SSL/TLS settings. The connection is cached and
+     * reopened by Spring after a broker failover, resuming the TLS session when possible.
+     * @param sslContext The shared SSLContext
+     * @param host The RabbitMQ host
+     * @param port The RabbitMQ port for SSL/TLS
+     * @param username The RabbitMQ username
+     * @param password The RabbitMQ password
+     * @return A caching connection factory for every publisher and listener
+     */
+    @Bean
+    public CachingConnectionFactory rabbitConnectionFactory(ReloadableSslContext sslContext,
+            @Value("${spring.rabbitmq.host:localhost}") String host,
+            @Value("${spring.rabbitmq.port:5671}") int port,
+            @Value("${spring.rabbitmq.username:guest}") String username,
+            @Value("${spring.rabbitmq.password:guest}") String password) {
+
+        ConnectionFactory factory = new ConnectionFactory();
+        factory.setHost(host);
+        factory.setPort(port);
+        factory.setUsername(username);
+        factory.setPassword(password);
+        // Spring recovers the cached connection itself
+        factory.setAutomaticRecoveryEnabled(false);
+        factory.useSslProtocol(sslContext.get());
+
+        // Connections opened after a rotation use the new certificates
+        sslContext.onReload(factory::useSslProtocol);
+
+        return new CachingConnectionFactory(factory);
+    }
+}
@@ -0,0 +1,149 @@
+package es.uca.secapi4cep.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SSLContext built from a PKCS12 key store and trust store, shared by every
+ * connection so that reconnections resume the cached TLS session instead of
+ * doing a full handshake. The files are checked periodically and, when they
+ * are rotated, a new context is built and handed to the listeners; if the new
+ * files cannot be loaded the current context is kept.
+ */
+public class ReloadableSslContext {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReloadableSslContext.class);
+
+    private final Path keyStore;
+    private final Path trustStore;
+    private final char[] password;
+    private final int sessionCacheSize;
+    private final int sessionTimeoutSeconds;
+
+    private final List<Consumer<SSLContext>> listeners = new CopyOnWriteArrayList<>();
+
+    private final ScheduledExecutorService watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ssl-context-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile SSLContext current;
+
+    // Modification times and sizes of the files the current context was built from
+    private volatile String loadedVersion;
+
+    /**
+     * Builds the context from the given files.
+     * @param keyStore The PKCS12 key store with the client certificate
+     * @param trustStore The PKCS12 trust store with the CA certificates
+     * @param password The password of both stores
+     * @param sessionCacheSize Maximum number of TLS sessions cached for resumption
+     * @param sessionTimeoutSeconds Time a cached TLS session can be resumed
+     * @throws GeneralSecurityException If the stores are invalid
+     * @throws IOException If the stores cannot be read
+     */
+    public ReloadableSslContext(Path keyStore, Path trustStore, char[] password, int sessionCacheSize,
+                                int sessionTimeoutSeconds) throws GeneralSecurityException, IOException {
+        this.keyStore = keyStore;
+        this.trustStore = trustStore;
+        this.password = password;
+        this.sessionCacheSize = sessionCacheSize;
+        this.sessionTimeoutSeconds = sessionTimeoutSeconds;
+        this.loadedVersion = version();
+        this.current = load();
+    }
+
+    /**
+     * Returns the current context.
+     * @return The SSLContext built from the latest valid files
+     */
+    public SSLContext get() {
+        return current;
+    }
+
+    /**
+     * Registers a listener for the contexts built after the files are rotated.
+     * @param listener Receives every new context
+     */
+    public void onReload(Consumer<SSLContext> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts checking the files for changes.
+     * @param intervalMillis Time between checks
+     */
+    public void watch(long intervalMillis) {
+        watcher.scheduleWithFixedDelay(this::reloadIfChanged, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops checking the files.
+     */
+    public void close() {
+        watcher.shutdownNow();
+    }
+
+    private void reloadIfChanged() {
+        try {
+            String version = version();
+            if (version.equals(loadedVersion)) {
+                return;
+            }
+            SSLContext reloaded = load();
+            loadedVersion = version;
+            current = reloaded;
+            listeners.forEach(listener -> listener.accept(reloaded));
+            logger.info("Reloaded the TLS key store {} and trust store {}.", keyStore, trustStore);
+        } catch (IOException | GeneralSecurityException e) {
+            // A rotation may be half written; the next check tries again
+            logger.warn("Failed to reload the TLS stores, keeping the current ones: {}", e.getMessage());
+        }
+    }
+
+    private SSLContext load() throws GeneralSecurityException, IOException {
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(loadStore(keyStore), password);
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(loadStore(trustStore));
+
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(kmf.getKeyManagers(), tmf.getTrustManagers(), null);
+        SSLSessionContext sessions = sslContext.getClientSessionContext();
+        sessions.setSessionCacheSize(sessionCacheSize);
+        sessions.setSessionTimeout(sessionTimeoutSeconds);
+        return sslContext;
+    }
+
+    private KeyStore loadStore(Path path) throws GeneralSecurityException, IOException {
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(path)) {
+            store.load(in, password);
+        }
+        return store;
+    }
+
+    private String version() throws IOException {
+        return Files.getLastModifiedTime(keyStore) + ":" + Files.size(keyStore) + "/"
+            + Files.getLastModifiedTime(trustStore) + ":" + Files.size(trustStore);
+    }
+}
@@ -0,0 +1,72 @@
+package es.uca.secapi4cep.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import es.uca.secapi4cep.datasource.ReplicaRoutingDataSource;
+
+/**
+ * Adds a read replica pool next to the primary one when cep.datasource.replica.url
+ * is set. Without it, the auto-configured primary data source is used alone.
+ * Both pools take the spring.datasource.hikari settings, as the auto-configured
+ * pool would.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cep.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * Configures the pool of the primary, bound to the spring.datasource.hikari properties.
+     * @param properties The spring.datasource properties of the primary
+     * @return The primary pool
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    /**
+     * Configures the data source that routes replica reads to the replica pool and everything else
+     * to the primary pool. Connections are only fetched on the first statement, once the transaction
+     * tells whether it is read-only.
+     * @param primaryDataSource The primary pool
+     * @param properties The spring.datasource properties of the primary
+     * @param replicaUrl The JDBC URL of the replica
+     * @param replicaUsername The user of the replica, the primary's one if empty
+     * @param replicaPassword The password of the replica, the primary's one if empty
+     * @param replicaPoolSize The maximum number of connections to the replica
+     * @return The routing DataSource used by JPA
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, DataSourceProperties properties,
+            @Value("${cep.datasource.replica.url}") String replicaUrl,
+            @Value("${cep.datasource.replica.username:}") String replicaUsername,
+            @Value("${cep.datasource.replica.password:}") String replicaPassword,
+            @Value("${cep.datasource.replica.pool-size:10}") int replicaPoolSize) {
+        // Same timeouts and driver properties as the primary, which is already bound
+        HikariDataSource replica = new HikariDataSource();
+        primaryDataSource.copyStateTo(replica);
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername(replicaUsername.isEmpty() ? properties.determineUsername() : replicaUsername);
+        replica.setPassword(replicaPassword.isEmpty() ? properties.determinePassword() : replicaPassword);
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(replicaPoolSize);
+        replica.setReadOnly(true);
+
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replica));
+    }
+}
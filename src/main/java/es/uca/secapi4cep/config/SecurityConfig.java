@@ -20,6 +20,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.security.web.header.writers.ContentSecurityPolicyHeaderWriter;
 import org.springframework.security.web.header.writers.StaticHeadersWriter;
 
+import es.uca.secapi4cep.admission.AdmissionFilter;
+import es.uca.secapi4cep.ratelimit.RateLimitFilter;
 import es.uca.secapi4cep.services.UserDetailsInfoService;
 
 
@@ -79,11 +81,14 @@ public class SecurityConfig{
      * Configures the security filter chain, including authorization, session management, and security headers.
      * @param http The HTTP security configuration.
      * @param authFilter The custom JWT authentication filter.
+     * @param rateLimitFilter The filter that limits the rate of requests of every client.
+     * @param admissionFilter The filter that sheds requests by priority under load.
      * @return The configured security filter chain.
      * @throws Exception If an error occurs while configuring the security filters.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthFilter authFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthFilter authFilter, RateLimitFilter rateLimitFilter,
+                                                   AdmissionFilter admissionFilter) throws Exception {
 
         http
             // Disables CSRF protection to allow token-based authentication.
@@ -104,7 +109,7 @@ public class SecurityConfig{
         )
              // Configures request authorization, allowing unauthenticated access to certain routes.
             .authorizeHttpRequests(authorizeHttpRequests -> authorizeHttpRequests
-                .requestMatchers("/v3/api-docs/**", "/test", "/", "/webjars/**", "/swagger-resources/**", "/swagger-ui/**", "/swagger-ui.html","/user/create","/user/authenticate").permitAll()
+                .requestMatchers("/v3/api-docs/**", "/test", "/", "/webjars/**", "/swagger-resources/**", "/swagger-ui/**", "/swagger-ui.html","/user/create","/user/authenticate","/health/**").permitAll()
                 .anyRequest().authenticated()
             )
             // Configures exception handling using default settings.
@@ -120,6 +125,10 @@ public class SecurityConfig{
 
          // Adds the custom JWT authentication filter before the default username and password authentication filter.
         http.addFilterBefore(authFilter, UsernamePasswordAuthenticationFilter.class);
+        // Adds the rate limiting filter right after it, so that clients are limited by username once authenticated.
+        http.addFilterAfter(rateLimitFilter, JwtAuthFilter.class);
+        // Adds the admission filter after rate limiting, so that a single client cannot take the concurrency of a class.
+        http.addFilterAfter(admissionFilter, RateLimitFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,72 @@
+package es.uca.secapi4cep.config;
+
+import org.apache.catalina.valves.RemoteIpValve;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.Shutdown;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import es.uca.secapi4cep.http.BinaryArtifactMessageConverter;
+
+@Configuration
+public class WebServerConfig {
+
+    /**
+     * Configures gzip compression of the JSON and binary artifact responses, which mostly carry EPL contents.
+     * @param enabled Whether responses are compressed
+     * @param minResponseSize Responses smaller than this are sent uncompressed
+     * @return A customizer that sets up response compression on the embedded server
+     */
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> compressionCustomizer(
+            @Value("${cep.http.compression.enabled:true}") boolean enabled,
+            @Value("${cep.http.compression.min-response-size:2KB}") DataSize minResponseSize) {
+        return factory -> {
+            Compression compression = new Compression();
+            compression.setEnabled(enabled);
+            compression.setMimeTypes(new String[] { MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE,
+                BinaryArtifactMessageConverter.MEDIA_TYPE_VALUE });
+            compression.setMinResponseSize(minResponseSize);
+            factory.setCompression(compression);
+        };
+    }
+
+    /**
+     * Makes the address of the client behind a reverse proxy the remote address of its requests, which the
+     * rate limits and the login throttle key on. The X-Forwarded-For header is only honoured when the request
+     * comes from a trusted proxy, so that clients cannot choose the address they are limited by.
+     * @param trustedProxies Regular expression matching the addresses of the trusted proxies, by default the
+     *                       private and loopback ranges; empty to ignore forwarded headers
+     * @return A customizer that adds the remote IP valve to the embedded Tomcat
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> remoteIpCustomizer(
+            @Value("${cep.http.trusted-proxies:#{null}}") String trustedProxies) {
+        return factory -> {
+            if (trustedProxies != null && trustedProxies.isBlank()) {
+                return;
+            }
+            RemoteIpValve valve = new RemoteIpValve();
+            if (trustedProxies != null) {
+                valve.setInternalProxies(trustedProxies);
+            }
+            factory.addEngineValves(valve);
+        };
+    }
+
+    /**
+     * Makes the embedded server finish the requests in progress on shutdown instead of dropping them,
+     * once the lifecycle operations have been drained.
+     * @return A customizer that enables graceful shutdown of the embedded server
+     */
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> shutdownCustomizer() {
+        return factory -> factory.setShutdown(Shutdown.GRACEFUL);
+    }
+}
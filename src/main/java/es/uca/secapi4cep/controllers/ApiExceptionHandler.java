@@ -0,0 +1,43 @@
+package es.uca.secapi4cep.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import es.uca.secapi4cep.dtos.MessageResponse;
+import es.uca.secapi4cep.exceptions.ArtifactConflictException;
+import es.uca.secapi4cep.exceptions.ShuttingDownException;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    /**
+     * Answers with 409 Conflict when an artifact was modified by another request between being read and written.
+     * @param e The conflict
+     * @return ResponseEntity with the conflict message
+     */
+    @ExceptionHandler(ArtifactConflictException.class)
+    public ResponseEntity<MessageResponse> handleArtifactConflict(ArtifactConflictException e) {
+        logger.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(MessageResponse.of(e.getMessage(), HttpStatus.CONFLICT));
+    }
+
+    /**
+     * Answers with 503 Service Unavailable when a lifecycle operation arrives while the application is shutting down.
+     * @param e The refusal
+     * @return ResponseEntity with the refusal message
+     */
+    @ExceptionHandler(ShuttingDownException.class)
+    public ResponseEntity<MessageResponse> handleShuttingDown(ShuttingDownException e) {
+        logger.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(MessageResponse.of(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE));
+    }
+}
@@ -0,0 +1,172 @@
+package es.uca.secapi4cep.controllers;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.uca.secapi4cep.audit.AuditAction;
+import es.uca.secapi4cep.audit.Audited;
+import es.uca.secapi4cep.deployment.ArtifactLocks;
+import es.uca.secapi4cep.deployment.DeploymentPlan;
+import es.uca.secapi4cep.deployment.InMemoryDeploymentBroker;
+import es.uca.secapi4cep.deployment.LockWaitStats;
+import es.uca.secapi4cep.deployment.RecordedMessage;
+import es.uca.secapi4cep.dtos.DeploymentPlanResponse;
+import es.uca.secapi4cep.exceptions.DeploymentPlanException;
+import es.uca.secapi4cep.services.DeploymentPlannerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "4. Deployments", description = "Ordered deployment of event types and patterns")
+@RestController
+@RequestMapping("/deployment")
+public class DeploymentController {
+
+    // Logger for recording logs related to deployments
+    private static final Logger logger = LoggerFactory.getLogger(DeploymentController.class);
+
+    // Service for planning and executing ordered deployments
+    private final DeploymentPlannerService deploymentPlannerService;
+
+    // Per-artifact locks, whose wait times are reported
+    private final ArtifactLocks artifactLocks;
+
+    // In-memory stand-in of the CEP engine queues, only present in local development
+    private final ObjectProvider<InMemoryDeploymentBroker> inMemoryBroker;
+
+    // Helper method to get the current username from the security context
+    private String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
+            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            return userDetails.getUsername();
+        }
+        return "Anonymous"; // Default to "Anonymous" if no user is authenticated
+    }
+
+    // Constructor to inject DeploymentPlannerService, ArtifactLocks and the in-memory broker, if any
+    DeploymentController(DeploymentPlannerService deploymentPlannerService, ArtifactLocks artifactLocks,
+                         ObjectProvider<InMemoryDeploymentBroker> inMemoryBroker) {
+        this.deploymentPlannerService = deploymentPlannerService;
+        this.artifactLocks = artifactLocks;
+        this.inMemoryBroker = inMemoryBroker;
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+        summary = "Computes the deployment plan of the artifacts ready to deploy",
+        description = "Orders the event types and patterns ready to deploy in waves, so that every artifact is deployed after the ones it depends on"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Deployment plan successfully computed."),
+        @ApiResponse(responseCode = "400", description = "The artifacts ready to deploy have missing or cyclic dependencies."),
+        @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
+    })
+    @GetMapping(value = "/plan", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DeploymentPlanResponse> getDeploymentPlan() {
+        // Computes the plan without deploying anything
+        try {
+            DeploymentPlan plan = deploymentPlannerService.plan();
+            return ResponseEntity.ok(new DeploymentPlanResponse(null, HttpStatus.OK.value(), plan.waves()));
+        } catch (DeploymentPlanException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new DeploymentPlanResponse(e.getMessage(), HttpStatus.BAD_REQUEST.value(), null));
+        }
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+        summary = "Deploys every artifact ready to deploy in dependency order",
+        description = "Deploys the event types and patterns ready to deploy wave by wave, publishing the independent artifacts of each wave in parallel"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Artifacts successfully deployed."),
+        @ApiResponse(responseCode = "400", description = "The plan could not be computed or executed."),
+        @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated."),
+        @ApiResponse(responseCode = "503", description = "The application is shutting down.")
+    })
+    @Audited(resource = "deployment", action = AuditAction.DEPLOY_READY)
+    @PutMapping(value = "/deploy-ready", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DeploymentPlanResponse> deployReady() {
+        // Executes the plan and returns the waves that were deployed
+        try {
+            DeploymentPlan plan = deploymentPlannerService.execute();
+            logger.info("User {} has deployed {} artifacts in {} waves.", getCurrentUsername(), plan.size(), plan.waves().size());
+            return ResponseEntity.ok(new DeploymentPlanResponse(plan.size() + " artifacts have been deployed",
+                HttpStatus.OK.value(), plan.waves()));
+        } catch (DeploymentPlanException e) {
+            logger.warn("User {} failed to deploy the artifacts ready to deploy: {}", getCurrentUsername(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new DeploymentPlanResponse(e.getMessage(), HttpStatus.BAD_REQUEST.value(), null));
+        }
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+        summary = "Retrieves the lock wait metrics of the artifact operations",
+        description = "Returns how often and for how long operations on an artifact waited for another operation on the same artifact"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lock wait metrics successfully retrieved."),
+        @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
+    })
+    @GetMapping(value = "/locks", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<LockWaitStats> getLockWaitStats() {
+        return ResponseEntity.ok(artifactLocks.stats());
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+        summary = "Retrieves the messages received by the in-memory stand-in of the CEP engine queues",
+        description = "Returns the latest deploy and undeploy messages, in the order the CEP engine would have received them. Only available when the application runs with cep.deploy.sink=memory"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Messages successfully retrieved."),
+        @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated."),
+        @ApiResponse(responseCode = "404", description = "The in-memory stand-in is not enabled.")
+    })
+    @GetMapping(value = "/messages", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<RecordedMessage>> getRecordedMessages() {
+        InMemoryDeploymentBroker broker = inMemoryBroker.getIfAvailable();
+        if (broker == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(broker.messages());
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+        summary = "Discards the messages received by the in-memory stand-in of the CEP engine queues",
+        description = "Discards the messages received so far. Only available when the application runs with cep.deploy.sink=memory"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Messages successfully discarded."),
+        @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated."),
+        @ApiResponse(responseCode = "404", description = "The in-memory stand-in is not enabled.")
+    })
+    @DeleteMapping(value = "/messages")
+    public ResponseEntity<Void> clearRecordedMessages() {
+        InMemoryDeploymentBroker broker = inMemoryBroker.getIfAvailable();
+        if (broker == null) {
+            return ResponseEntity.notFound().build();
+        }
+        broker.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,18 +1,11 @@
 package es.uca.secapi4cep.controllers;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -23,7 +16,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import es.uca.secapi4cep.audit.AuditAction;
+import es.uca.secapi4cep.audit.Audited;
+import es.uca.secapi4cep.dtos.EventPatternListResponse;
+import es.uca.secapi4cep.dtos.EventPatternResponse;
+import es.uca.secapi4cep.dtos.MessageResponse;
+import es.uca.secapi4cep.entities.ArtifactSummary;
 import es.uca.secapi4cep.entities.EventPattern;
+import es.uca.secapi4cep.exceptions.InvalidContentException;
+import es.uca.secapi4cep.http.BinaryArtifactMessageConverter;
 import es.uca.secapi4cep.services.EventPatternService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -36,25 +37,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @RequestMapping("/event-pattern")
 public class EventPatternController {
 
-    // Logger for recording logs related to event patterns
-    private static final Logger logger = LoggerFactory.getLogger(EventPatternController.class);
-
     // Service for handling event pattern operations
     private final EventPatternService eventPatternService;
 
-    // Constant string for logging purposes
+    // Constant string for response messages
     private static final String EVENT_PATTERN_STRING = "Event pattern with id: ";
 
-    // Helper method to get the current username from the security context
-    private String getCurrentUsername() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            return userDetails.getUsername();
-        }
-        return "Anonymous"; // Default to "Anonymous" if no user is authenticated
-    } 
-
     // Constructor to inject EventPatternService
     EventPatternController(EventPatternService eventPatternService) {
         // Fetches and returns all event patterns from the service
@@ -64,18 +52,33 @@ public class EventPatternController {
     @SecurityRequirement(name = "Bearer Authentication")
     @Operation(
         summary = "Retrieves all existing event patterns",
-        description = "Retrieves all existing event patterns"
+        description = "Retrieves all existing event patterns, as JSON or, when requested in the Accept header, in the compact application/x-cep-artifacts binary format"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, BinaryArtifactMessageConverter.MEDIA_TYPE_VALUE })
     public ResponseEntity<List<EventPattern>> getAllEventPatterns() {
         // Fetches and returns all event patterns from the service
         List<EventPattern> eventPatterns = eventPatternService.getAllEventPatterns();
         return ResponseEntity.ok(eventPatterns);
     }
 
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+        summary = "Retrieves a summary of all existing event patterns",
+        description = "Retrieves the ID, name, content hash and status of all existing event patterns, without their contents"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
+    })
+    @GetMapping(value = "/summary", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ArtifactSummary>> getEventPatternSummaries() {
+        // Fetches and returns the summaries from the service
+        List<ArtifactSummary> summaries = eventPatternService.getEventPatternSummaries();
+        return ResponseEntity.ok(summaries);
+    }
+
     @SecurityRequirement(name = "Bearer Authentication")
     @Operation(
         summary = "Registers a new event pattern",
@@ -86,23 +89,18 @@ public class EventPatternController {
         @ApiResponse(responseCode = "400", description = "Invalid input provided"),
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-pattern", action = AuditAction.CREATE)
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String,Object>> createEventPattern(@RequestBody EventPattern eventPattern) {
-        Map<String, Object> responseBody = new HashMap<>();
+    public ResponseEntity<EventPatternResponse> createEventPattern(@RequestBody EventPattern eventPattern) {
         try {
             // Attempt to save the event pattern using the service
             EventPattern createdEventPattern = this.eventPatternService.saveEventPattern(eventPattern);
-            logger.info("User " + getCurrentUsername() + " has successfully created an event pattern with id: {}", createdEventPattern.getId());
-            responseBody.put("message", "Event pattern created successfully.");
-            responseBody.put("eventPattern", createdEventPattern);
             // Return success response with the created event pattern
-            return ResponseEntity.status(HttpStatus.CREATED).body(responseBody);
+            return ResponseEntity.status(HttpStatus.CREATED).body(new EventPatternResponse("Event pattern created successfully.", null, createdEventPattern));
         }
         catch (Exception e) {
-            responseBody.put("message", "Event pattern has not been successfully created.");
-            logger.warn("User " + getCurrentUsername() + " failed to create event pattern.");
             // Return failure response if an exception occurs
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new EventPatternResponse("Event pattern has not been successfully created.", null, null));
         }     
     }
 
@@ -117,18 +115,13 @@ public class EventPatternController {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
     @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, Object>> getEventPatternById(@PathVariable("id") Long id) {
+    public ResponseEntity<EventPatternResponse> getEventPatternById(@PathVariable("id") Long id) {
         // Fetches and returns the event pattern by ID
-        Map<String, Object> responseBody = new HashMap<>();
         Optional<EventPattern> eventPattern = this.eventPatternService.getEventPatternById(id);
         if (eventPattern.isPresent()) {
-            responseBody.put("status", HttpStatus.OK.value());
-            responseBody.put("eventPattern", eventPattern.get());
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(new EventPatternResponse(null, HttpStatus.OK.value(), eventPattern.get()));
         } else {
-            responseBody.put("message", "Event pattern not found.");
-            responseBody.put("status", HttpStatus.NOT_FOUND.value());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(responseBody);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new EventPatternResponse("Event pattern not found.", HttpStatus.NOT_FOUND.value(), null));
         }
     }
 
@@ -140,23 +133,23 @@ public class EventPatternController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated."),
         @ApiResponse(responseCode = "200", description = "Event pattern succesfully updated."),
-        @ApiResponse(responseCode = "400", description = "Event pattern has not been updated.")
+        @ApiResponse(responseCode = "400", description = "Event pattern has not been updated."),
+        @ApiResponse(responseCode = "409", description = "Event pattern was modified concurrently.")
     })
+    @Audited(resource = "event-pattern", action = AuditAction.UPDATE)
     @PutMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> updateEventPattern(@RequestBody EventPattern eventPattern, @PathVariable("id") Long id) {
+    public ResponseEntity<MessageResponse> updateEventPattern(@RequestBody EventPattern eventPattern, @PathVariable("id") Long id) {
         // Attempt to update the event pattern and return appropriate status message
-        Map<String, String> responseBody = new HashMap<>();
-        boolean ok = this.eventPatternService.updateEventPattern(eventPattern, id);
+        boolean ok;
+        try {
+            ok = this.eventPatternService.updateEventPattern(eventPattern, id);
+        } catch (InvalidContentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_PATTERN_STRING + id + " has not been updated. " + e.getMessage(), HttpStatus.BAD_REQUEST));
+        }
         if (ok) {
-            logger.info("User " + getCurrentUsername() + " has successfully updated the event pattern with id: {}", id);
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has been updated");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_PATTERN_STRING + id + " has been updated", HttpStatus.OK));
         } else {
-            logger.warn("User " + getCurrentUsername() + " failed to update event pattern with id: {}", id);
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has not been updated");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_PATTERN_STRING + id + " has not been updated", HttpStatus.BAD_REQUEST));
         } 
     }
 
@@ -168,19 +161,20 @@ public class EventPatternController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-pattern", action = AuditAction.READY)
     @PutMapping(value = "/ready/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> readyToDeploy(@PathVariable Long id) {
+    public ResponseEntity<MessageResponse> readyToDeploy(@PathVariable Long id) {
         // Marks the event pattern as ready to deploy and return status message
-        Map<String, String> responseBody = new HashMap<>();
-        boolean ok = eventPatternService.updateStatus(id, true);
+        boolean ok;
+        try {
+            ok = eventPatternService.updateStatus(id, true);
+        } catch (InvalidContentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_PATTERN_STRING + id + " has not been set as ready to deploy. " + e.getMessage(), HttpStatus.BAD_REQUEST));
+        }
         if (ok) {
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has been set as ready to deploy");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_PATTERN_STRING + id + " has been set as ready to deploy", HttpStatus.OK));
         } else {
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has not been set as ready to deploy");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_PATTERN_STRING + id + " has not been set as ready to deploy", HttpStatus.BAD_REQUEST));
         }
     }
 
@@ -192,19 +186,15 @@ public class EventPatternController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-pattern", action = AuditAction.UNREADY)
     @PutMapping(value = "/unready/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> unReadyToDeploy(@PathVariable Long id) {
+    public ResponseEntity<MessageResponse> unReadyToDeploy(@PathVariable Long id) {
         // Marks the event pattern as not ready to deploy and return status message
-        Map<String, String> responseBody = new HashMap<>();
         boolean ok = eventPatternService.updateStatus(id, false);
         if (ok) {
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has been set as not ready to deploy");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_PATTERN_STRING + id + " has been set as not ready to deploy", HttpStatus.OK));
         } else {
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has not been set as not ready to deploy");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_PATTERN_STRING + id + " has not been set as not ready to deploy", HttpStatus.BAD_REQUEST));
         }
     }
 
@@ -216,21 +206,20 @@ public class EventPatternController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-pattern", action = AuditAction.DEPLOY)
     @PutMapping(value = "/deploy/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> deploy(@PathVariable Long id) {
+    public ResponseEntity<MessageResponse> deploy(@PathVariable Long id) {
         // Deploys the event pattern, marks it as deployed and return status message
-        Map<String, String> responseBody = new HashMap<>();
-        boolean ok = eventPatternService.updateDeployingStatus(id, true);
+        boolean ok;
+        try {
+            ok = eventPatternService.updateDeployingStatus(id, true);
+        } catch (InvalidContentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_PATTERN_STRING + id + " has not been deployed. " + e.getMessage(), HttpStatus.BAD_REQUEST));
+        }
         if (ok) {
-            logger.info(EVENT_PATTERN_STRING + id + " has been deployed by " + getCurrentUsername());
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has been deployed");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_PATTERN_STRING + id + " has been deployed", HttpStatus.OK));
         } else {
-            logger.warn("User " + getCurrentUsername() + " failed to deploy event pattern with id: {}", id);
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has not been deployed");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_PATTERN_STRING + id + " has not been deployed", HttpStatus.BAD_REQUEST));
         }
     }
 
@@ -242,21 +231,15 @@ public class EventPatternController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-pattern", action = AuditAction.UNDEPLOY)
     @PutMapping(value = "/undeploy/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> undeploy(@PathVariable Long id) {
+    public ResponseEntity<MessageResponse> undeploy(@PathVariable Long id) {
         // Undeploys the event pattern, marks it as not deployed and return status message
-        Map<String, String> responseBody = new HashMap<>();
         boolean ok = eventPatternService.updateDeployingStatus(id, false);
         if (ok) {
-            logger.info(EVENT_PATTERN_STRING + id + " has been undeployed by " + getCurrentUsername());
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has been undeployed");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_PATTERN_STRING + id + " has been undeployed", HttpStatus.OK));
         } else {
-            logger.warn("User " + getCurrentUsername() + " failed to undeploy event pattern with id: {}", id);
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has not been undeployed");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_PATTERN_STRING + id + " has not been undeployed", HttpStatus.BAD_REQUEST));
         }
     }
 
@@ -269,13 +252,25 @@ public class EventPatternController {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
     @GetMapping(value = "/name", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, Object>> findByName(@RequestParam String name) {
+    public ResponseEntity<EventPatternListResponse> findByName(@RequestParam String name) {
         // Fetches and returns the event pattern by name
-        Map<String, Object> responseBody = new HashMap<>();
         List<EventPattern> eventPatterns = this.eventPatternService.findByName(name);
-        responseBody.put("status", HttpStatus.OK.value());
-        responseBody.put("eventPatterns", eventPatterns);
-        return ResponseEntity.ok(responseBody);
+        return ResponseEntity.ok(new EventPatternListResponse(HttpStatus.OK.value(), eventPatterns));
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+        summary = "Retrieves the event patterns with the same content as the one with the provided ID",
+        description = "Retrieves the other event patterns whose normalized content is identical to the one of the event pattern with the provided ID"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
+    })
+    @GetMapping(value = "/duplicates/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EventPatternListResponse> findDuplicates(@PathVariable Long id) {
+        // Fetches and returns the event patterns sharing the content hash
+        List<EventPattern> eventPatterns = this.eventPatternService.findDuplicates(id);
+        return ResponseEntity.ok(new EventPatternListResponse(HttpStatus.OK.value(), eventPatterns));
     }
 
     @SecurityRequirement(name = "Bearer Authentication")
@@ -286,21 +281,15 @@ public class EventPatternController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-pattern", action = AuditAction.DELETE)
     @DeleteMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> deleteEventPattern(@PathVariable("id") Long id) {
+    public ResponseEntity<MessageResponse> deleteEventPattern(@PathVariable("id") Long id) {
         // Attempt to delete the event pattern and return appropriate status message
-        Map<String, String> responseBody = new HashMap<>();
         boolean ok = this.eventPatternService.deleteEventPattern(id);
         if (ok) {
-            logger.info(EVENT_PATTERN_STRING + id + " has been deleted by " + getCurrentUsername());
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has been deleted");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_PATTERN_STRING + id + " has been deleted", HttpStatus.OK));
         } else {
-            logger.warn("User " + getCurrentUsername() + " failed to delete event pattern with id: {}", id);
-            responseBody.put("message", EVENT_PATTERN_STRING + id + " has not been deleted");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_PATTERN_STRING + id + " has not been deleted", HttpStatus.BAD_REQUEST));
         }
     }
 }
@@ -1,18 +1,11 @@
 package es.uca.secapi4cep.controllers;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -23,7 +16,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import es.uca.secapi4cep.audit.AuditAction;
+import es.uca.secapi4cep.audit.Audited;
+import es.uca.secapi4cep.dtos.EventTypeListResponse;
+import es.uca.secapi4cep.dtos.EventTypeResponse;
+import es.uca.secapi4cep.dtos.MessageResponse;
+import es.uca.secapi4cep.entities.ArtifactSummary;
 import es.uca.secapi4cep.entities.EventType;
+import es.uca.secapi4cep.exceptions.InvalidContentException;
+import es.uca.secapi4cep.http.BinaryArtifactMessageConverter;
 import es.uca.secapi4cep.services.EventTypeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -36,25 +37,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @RequestMapping("/event-type")
 public class EventTypeController {
 
-    // Logger for recording logs related to event types
-    private static final Logger logger = LoggerFactory.getLogger(EventTypeController.class);
-
     // Service for handling event type operations
     private final EventTypeService eventTypeService;
 
-    // Constant string for logging purposes
+    // Constant string for response messages
     private static final String EVENT_TYPE_STRING = "Event type with id: ";
 
-    // Helper method to get the current username from the security context
-    private String getCurrentUsername() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            return userDetails.getUsername();
-        }
-        return "Anonymous"; // Default to "Anonymous" if no user is authenticated
-    }
-
     // Constructor to inject EventTypeService
     EventTypeController(EventTypeService eventTypeService) {
         this.eventTypeService = eventTypeService;
@@ -63,18 +51,33 @@ public class EventTypeController {
     @SecurityRequirement(name = "Bearer Authentication")
     @Operation(
         summary = "Retrieves all existing event types",
-        description = "Retrieves all existing event types"
+        description = "Retrieves all existing event types, as JSON or, when requested in the Accept header, in the compact application/x-cep-artifacts binary format"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, BinaryArtifactMessageConverter.MEDIA_TYPE_VALUE })
     public ResponseEntity<List<EventType>> getAllEventTypes() {
         // Fetches and returns all event types from the service
         List<EventType> eventTypes = eventTypeService.getAllEventTypes();
         return ResponseEntity.ok(eventTypes);
     }
 
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+        summary = "Retrieves a summary of all existing event types",
+        description = "Retrieves the ID, name, content hash and status of all existing event types, without their contents"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
+    })
+    @GetMapping(value = "/summary", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ArtifactSummary>> getEventTypeSummaries() {
+        // Fetches and returns the summaries from the service
+        List<ArtifactSummary> summaries = eventTypeService.getEventTypeSummaries();
+        return ResponseEntity.ok(summaries);
+    }
+
     @SecurityRequirement(name = "Bearer Authentication")
     @Operation(
         summary = "Registers a new event type",
@@ -85,23 +88,18 @@ public class EventTypeController {
         @ApiResponse(responseCode = "400", description = "Invalid input provided"),
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-type", action = AuditAction.CREATE)
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String,Object>> createEventType(@RequestBody EventType eventType) {
-        Map<String, Object> responseBody = new HashMap<>();
+    public ResponseEntity<EventTypeResponse> createEventType(@RequestBody EventType eventType) {
         try {
             // Attempt to save the event type using the service
             EventType createdEventType = this.eventTypeService.saveEventType(eventType);
-            logger.info("User " + getCurrentUsername() + " has successfully created an event type with id: {}", createdEventType.getId());
-            responseBody.put("message", "Event type created successfully.");
-            responseBody.put("eventType", createdEventType);
             // Return success response with created event type
-            return ResponseEntity.status(HttpStatus.CREATED).body(responseBody);
+            return ResponseEntity.status(HttpStatus.CREATED).body(new EventTypeResponse("Event type created successfully.", null, createdEventType));
         }
         catch (Exception e) {
-            responseBody.put("message", "Event type has not been successfully created.");
-            logger.warn("User " + getCurrentUsername() + " failed to create event type.");
             // Return failure response if an exception occurs
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new EventTypeResponse("Event type has not been successfully created.", null, null));
         } 
     }
 
@@ -116,18 +114,13 @@ public class EventTypeController {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
     @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, Object>> getEventTypeById(@PathVariable("id") Long id) {
+    public ResponseEntity<EventTypeResponse> getEventTypeById(@PathVariable("id") Long id) {
          // Fetches and returns the event type by ID
-         Map<String, Object> responseBody = new HashMap<>();
          Optional<EventType> eventType = this.eventTypeService.getEventTypeById(id);
          if (eventType.isPresent()) {
-             responseBody.put("status", HttpStatus.OK.value());
-             responseBody.put("eventType", eventType.get());
-             return ResponseEntity.ok(responseBody);
+             return ResponseEntity.ok(new EventTypeResponse(null, HttpStatus.OK.value(), eventType.get()));
          } else {
-             responseBody.put("message", "Event type not found.");
-             responseBody.put("status", HttpStatus.NOT_FOUND.value());
-             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(responseBody);
+             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new EventTypeResponse("Event type not found.", HttpStatus.NOT_FOUND.value(), null));
          }
     }
 
@@ -139,23 +132,23 @@ public class EventTypeController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated."),
         @ApiResponse(responseCode = "200", description = "Event type succesfully updated."),
-        @ApiResponse(responseCode = "400", description = "Event type has not been updated.")
+        @ApiResponse(responseCode = "400", description = "Event type has not been updated."),
+        @ApiResponse(responseCode = "409", description = "Event type was modified concurrently.")
     })
+    @Audited(resource = "event-type", action = AuditAction.UPDATE)
     @PutMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> updateEventType(@RequestBody EventType eventType, @PathVariable("id") Long id) {
+    public ResponseEntity<MessageResponse> updateEventType(@RequestBody EventType eventType, @PathVariable("id") Long id) {
         // Attempt to update the event type and return appropriate status message
-        Map<String, String> responseBody = new HashMap<>();
-        boolean ok = this.eventTypeService.updateEventType(eventType, id);
+        boolean ok;
+        try {
+            ok = this.eventTypeService.updateEventType(eventType, id);
+        } catch (InvalidContentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_TYPE_STRING + id + " has not been updated. " + e.getMessage(), HttpStatus.BAD_REQUEST));
+        }
         if (ok) {
-            logger.info("User " + getCurrentUsername() + " has successfully updated the event type with id: {}", id);
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has been updated");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_TYPE_STRING + id + " has been updated", HttpStatus.OK));
         } else {
-            logger.warn("User " + getCurrentUsername() + " failed to update event type with id: {}", id);
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has not been updated");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_TYPE_STRING + id + " has not been updated", HttpStatus.BAD_REQUEST));
         }
     }
 
@@ -167,19 +160,20 @@ public class EventTypeController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-type", action = AuditAction.READY)
     @PutMapping(value = "/ready/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> readyToDeploy(@PathVariable Long id) {
+    public ResponseEntity<MessageResponse> readyToDeploy(@PathVariable Long id) {
         // Marks the event type as ready to deploy and return status message
-        Map<String, String> responseBody = new HashMap<>();
-        boolean ok = eventTypeService.updateStatus(id, true);
+        boolean ok;
+        try {
+            ok = eventTypeService.updateStatus(id, true);
+        } catch (InvalidContentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_TYPE_STRING + id + " has not been set as ready to deploy. " + e.getMessage(), HttpStatus.BAD_REQUEST));
+        }
         if (ok) {
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has been set as ready to deploy");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_TYPE_STRING + id + " has been set as ready to deploy", HttpStatus.OK));
         } else {
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has not been set as ready to deploy");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_TYPE_STRING + id + " has not been set as ready to deploy", HttpStatus.BAD_REQUEST));
         }
     }
 
@@ -191,19 +185,15 @@ public class EventTypeController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-type", action = AuditAction.UNREADY)
     @PutMapping(value = "/unready/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> unReadyToDeploy(@PathVariable Long id) {
+    public ResponseEntity<MessageResponse> unReadyToDeploy(@PathVariable Long id) {
         // Marks the event type as not ready to deploy and return status message
-        Map<String, String> responseBody = new HashMap<>();
         boolean ok = eventTypeService.updateStatus(id, false);
         if (ok) {
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has been set as not ready to deploy");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_TYPE_STRING + id + " has been set as not ready to deploy", HttpStatus.OK));
         } else {
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has not been set as not ready to deploy");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_TYPE_STRING + id + " has not been set as not ready to deploy", HttpStatus.BAD_REQUEST));
         }
     }
 
@@ -215,21 +205,20 @@ public class EventTypeController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-type", action = AuditAction.DEPLOY)
     @PutMapping(value = "/deploy/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> deploy(@PathVariable Long id) {
+    public ResponseEntity<MessageResponse> deploy(@PathVariable Long id) {
         // Deploys the event type, marks it as deployed and return status message
-        Map<String, String> responseBody = new HashMap<>();
-        boolean ok = eventTypeService.updateDeployingStatus(id, true);
+        boolean ok;
+        try {
+            ok = eventTypeService.updateDeployingStatus(id, true);
+        } catch (InvalidContentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_TYPE_STRING + id + " has not been deployed. " + e.getMessage(), HttpStatus.BAD_REQUEST));
+        }
         if (ok) {
-            logger.info(EVENT_TYPE_STRING + id + " has been deployed by " + getCurrentUsername());
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has been deployed");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_TYPE_STRING + id + " has been deployed", HttpStatus.OK));
         } else {
-            logger.warn("User " + getCurrentUsername() + " failed to deploy event type with id: {}", id);
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has not been deployed");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_TYPE_STRING + id + " has not been deployed", HttpStatus.BAD_REQUEST));
         }
     }
 
@@ -241,21 +230,15 @@ public class EventTypeController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-type", action = AuditAction.UNDEPLOY)
     @PutMapping(value = "/undeploy/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> undeploy(@PathVariable Long id) {
+    public ResponseEntity<MessageResponse> undeploy(@PathVariable Long id) {
         // Undeploys the event type, marks it as deployed and return status message
-        Map<String, String> responseBody = new HashMap<>();
         boolean ok = eventTypeService.updateDeployingStatus(id, false);
         if (ok) {
-            logger.info(EVENT_TYPE_STRING + id + " has been undeployed by " + getCurrentUsername());
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has been undeployed");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_TYPE_STRING + id + " has been undeployed", HttpStatus.OK));
         } else {
-            logger.warn("User " + getCurrentUsername() + " failed to undeploy event type with id: {}", id);
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has not been undeployed");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_TYPE_STRING + id + " has not been undeployed", HttpStatus.BAD_REQUEST));
         }
     }
 
@@ -268,13 +251,25 @@ public class EventTypeController {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
     @GetMapping(value = "/name", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, Object>> findByName(@RequestParam String name) {
+    public ResponseEntity<EventTypeListResponse> findByName(@RequestParam String name) {
         // Fetches and returns event type by name
-        Map<String, Object> responseBody = new HashMap<>();
         List<EventType> eventTypes = this.eventTypeService.findByName(name);
-        responseBody.put("status", HttpStatus.OK.value());
-        responseBody.put("eventTypes", eventTypes);
-        return ResponseEntity.ok(responseBody);
+        return ResponseEntity.ok(new EventTypeListResponse(HttpStatus.OK.value(), eventTypes));
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+        summary = "Retrieves the event types with the same content as the one with the provided ID",
+        description = "Retrieves the other event types whose normalized content is identical to the one of the event type with the provided ID"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
+    })
+    @GetMapping(value = "/duplicates/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EventTypeListResponse> findDuplicates(@PathVariable Long id) {
+        // Fetches and returns the event types sharing the content hash
+        List<EventType> eventTypes = this.eventTypeService.findDuplicates(id);
+        return ResponseEntity.ok(new EventTypeListResponse(HttpStatus.OK.value(), eventTypes));
     }
 
     @SecurityRequirement(name = "Bearer Authentication")
@@ -285,21 +280,15 @@ public class EventTypeController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
     })
+    @Audited(resource = "event-type", action = AuditAction.DELETE)
     @DeleteMapping(path = "/{id}",produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, String>> deleteEventType(@PathVariable("id") Long id) {
+    public ResponseEntity<MessageResponse> deleteEventType(@PathVariable("id") Long id) {
         // Attempt to delete the event type and return appropriate status message
-        Map<String, String> responseBody = new HashMap<>();
         boolean ok = this.eventTypeService.deleteEventType(id);
         if (ok) {
-            logger.info(EVENT_TYPE_STRING + id + " has been deleted by " + getCurrentUsername());
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has been deleted");
-            responseBody.put("status", String.valueOf(HttpStatus.OK.value()));
-            return ResponseEntity.ok(responseBody);
+            return ResponseEntity.ok(MessageResponse.of(EVENT_TYPE_STRING + id + " has been deleted", HttpStatus.OK));
         } else {
-            logger.warn("User " + getCurrentUsername() + " failed to delete event type with id: {}", id);
-            responseBody.put("message", EVENT_TYPE_STRING + id + " has not been deleted");
-            responseBody.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageResponse.of(EVENT_TYPE_STRING + id + " has not been deleted", HttpStatus.BAD_REQUEST));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package es.uca.secapi4cep.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.uca.secapi4cep.dtos.MessageResponse;
+import es.uca.secapi4cep.lifecycle.ApplicationPhase;
+import es.uca.secapi4cep.lifecycle.DeploymentDrain;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "5. Health", description = "Health API")
+@RestController
+@RequestMapping("/health")
+public class HealthController {
+
+    // Tracks the phase of the application
+    private final DeploymentDrain deploymentDrain;
+
+    // Constructor to inject DeploymentDrain
+    HealthController(DeploymentDrain deploymentDrain) {
+        this.deploymentDrain = deploymentDrain;
+    }
+
+    @Operation(
+        summary = "Reports whether the application is alive",
+        description = "Reports whether the application is alive. It stays alive while draining, so that it is not restarted before finishing the operations in flight."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "The application is alive.")
+    })
+    @GetMapping(value = "/liveness", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<MessageResponse> liveness() {
+        ApplicationPhase phase = deploymentDrain.getApplicationPhase();
+        return ResponseEntity.ok(MessageResponse.of(phase.name(), HttpStatus.OK));
+    }
+
+    @Operation(
+        summary = "Reports whether the application accepts traffic",
+        description = "Reports whether the application accepts traffic. It is not ready while starting, draining or stopped."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "The application is ready."),
+        @ApiResponse(responseCode = "503", description = "The application is starting or shutting down.")
+    })
+    @GetMapping(value = "/readiness", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<MessageResponse> readiness() {
+        ApplicationPhase phase = deploymentDrain.getApplicationPhase();
+        HttpStatus status = phase.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(MessageResponse.of(phase.name(), status));
+    }
+}
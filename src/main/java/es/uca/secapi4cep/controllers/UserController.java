@@ -1,13 +1,12 @@
 package es.uca.secapi4cep.controllers;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -28,9 +27,15 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import es.uca.secapi4cep.audit.AuditAction;
+import es.uca.secapi4cep.audit.Audited;
 import es.uca.secapi4cep.dtos.CreateUserDTO;
+import es.uca.secapi4cep.dtos.DtoMapper;
+import es.uca.secapi4cep.dtos.MessageResponse;
 import es.uca.secapi4cep.dtos.UserDTO;
+import es.uca.secapi4cep.entities.Role;
 import es.uca.secapi4cep.entities.User;
+import es.uca.secapi4cep.ratelimit.LoginThrottle;
 import es.uca.secapi4cep.services.JwtService;
 import es.uca.secapi4cep.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -40,6 +45,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
@@ -56,6 +62,9 @@ public class UserController {
 	private final JwtService jwtService;
 	private final AuthenticationManager authenticationManager;
 
+	// Refuses login attempts early after repeated failures
+	private final LoginThrottle loginThrottle;
+
 	// Helper method to get the current username from the security context
 	private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -66,11 +75,13 @@ public class UserController {
         return "Anonymous";  // Default to "Anonymous" if no user is authenticated
     } 
 
-	// Constructor to inject UserService, JwtService, and AuthenticationManager
-    public UserController(UserService userService, JwtService jwtService, AuthenticationManager authenticationManager) {
+	// Constructor to inject UserService, JwtService, AuthenticationManager and LoginThrottle
+    public UserController(UserService userService, JwtService jwtService, AuthenticationManager authenticationManager,
+                          LoginThrottle loginThrottle) {
         this.userService = userService;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.loginThrottle = loginThrottle;
     }
 
 	@Operation(
@@ -81,25 +92,22 @@ public class UserController {
         @ApiResponse(responseCode = "201", description = "User successfully created"),
         @ApiResponse(responseCode = "400", description = "Invalid input provided")
     })
+	@Audited(resource = "user", action = AuditAction.CREATE)
 	@PostMapping(value= "/create", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Map<String,String>> createUser(@RequestBody @Valid CreateUserDTO createUserDTO) {
+	public ResponseEntity<MessageResponse> createUser(@RequestBody @Valid CreateUserDTO createUserDTO) {
 		// Creates a new User entity based on the input CreateUserDTO and assigns it the role of USER
 		User user = new User();
 		user.setUsername(createUserDTO.getUsername());
 		user.setEmail(createUserDTO.getEmail());
 		user.setPassword(createUserDTO.getPassword());
-		user.setRoles(Collections.singletonList("USER"));
+		user.setRoles(new HashSet<>(Set.of(Role.USER)));
 		User createUser = userService.createUser(user);
 
-		Map<String, String> response = new HashMap<>();
-
 		if(createUser!=null) {
-			logger.info("User " + createUser.getId() + " created succesfully.");
-			response.put("message", "User created successfully!");
-			return new ResponseEntity<>(response, HttpStatus.CREATED);
+			logger.info("User {} created succesfully.", createUser.getId());
+			return new ResponseEntity<>(MessageResponse.of("User created successfully!"), HttpStatus.CREATED);
 		}else {
 			logger.error("Failed to create user.");
-			response.put("message", "Failed to create user.");
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		}
 	}
@@ -120,21 +128,11 @@ public class UserController {
 		// Retrieve all users from the service and map them to UserDTOs
 		Iterable<User> findAllUser = userService.findAllUser();
 		if(findAllUser!=null) {
-			List<UserDTO> userDTOs = new ArrayList<>();
-        for (User user : findAllUser) {
-            UserDTO userDTO = new UserDTO();
-            userDTO.setId(user.getId());
-            userDTO.setUsername(user.getUsername());
-            userDTO.setEmail(user.getEmail());
-            userDTO.setRoles(user.getRoles());
-            userDTOs.add(userDTO);
-        }
-			logger.info("User " + getCurrentUsername() + " successfully retrieved all users.");
+			List<UserDTO> userDTOs = DtoMapper.toUserDTOs(findAllUser);
+			logger.info("User {} successfully retrieved all users.", getCurrentUsername());
 			return new ResponseEntity<>(userDTOs, HttpStatus.OK);
 		}else {
-			logger.error("User " + getCurrentUsername() + " failed to retrieve all users.");
-			Map<String, String> response = new HashMap<>();
-			response.put("message", "No users found.");
+			logger.error("User {} failed to retrieve all users.", getCurrentUsername());
 			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 		}
 	}
@@ -156,17 +154,11 @@ public class UserController {
 		// Retrieve a specific user by ID and return as DTO
 		User findById = userService.findById(id);
 		if(findById!=null) {
-			UserDTO userDTO = new UserDTO();
-            userDTO.setId(findById.getId());
-            userDTO.setUsername(findById.getUsername());
-            userDTO.setEmail(findById.getEmail());
-            userDTO.setRoles(findById.getRoles());
+			UserDTO userDTO = DtoMapper.toUserDTO(findById);
 			logger.info("User {} retrieved successfully by user: {}", id, getCurrentUsername());
 			return new ResponseEntity<>(userDTO, HttpStatus.OK);
 		}else {
 			logger.warn("User with ID {} not found. Request made by user: {}", id, getCurrentUsername());
-			Map<String, String> response = new HashMap<>();
-            response.put("message", "User not found.");
 			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 		}
 	}
@@ -181,20 +173,16 @@ public class UserController {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated."),
 		@ApiResponse(responseCode = "400", description = "Failed to update the specified user.")
     })
+	@Audited(resource = "user", action = AuditAction.UPDATE)
 	@PutMapping(value = "/update/{id}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
 	@PreAuthorize("hasAuthority('ADMIN')")
-	public ResponseEntity<?> updateUser(@RequestBody User user, @PathVariable Long id){
+	public ResponseEntity<MessageResponse> updateUser(@RequestBody User user, @PathVariable Long id){
 		// Update an existing user based on the input data
 		User updateUser = userService.updateUser(user, id);
-		Map<String, String> response = new HashMap<>();
 		if(updateUser!=null) {
-			logger.info("User with ID {} updated successfully by user: {}", id, getCurrentUsername());
-			response.put("message", "User updated successfully.");
-			return new ResponseEntity<>(response, HttpStatus.OK);
+			return new ResponseEntity<>(MessageResponse.of("User updated successfully."), HttpStatus.OK);
 		}else {
-			logger.error("Failed to update user with ID {}. Request made by user: {}", id, getCurrentUsername());
-			response.put("message", "Failed to update user.");
-			return new ResponseEntity<>(response,HttpStatus.BAD_REQUEST);
+			return new ResponseEntity<>(MessageResponse.of("Failed to update user."), HttpStatus.BAD_REQUEST);
 		}
 	}
 	
@@ -207,15 +195,13 @@ public class UserController {
         @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated."),
 		@ApiResponse(responseCode = "200", description = "User successfully deleted")
     })
+	@Audited(resource = "user", action = AuditAction.DELETE)
 	@DeleteMapping(value = "/delete/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
 	@PreAuthorize("hasAuthority('ADMIN')")
-	public ResponseEntity<Map<String, String>> deleteUser(@PathVariable Long id){
+	public ResponseEntity<MessageResponse> deleteUser(@PathVariable Long id){
 		// Delete a user given its ID
 		userService.deleteUser(id);
-		logger.info("User with ID {} deleted successfully by user: {}", id, getCurrentUsername());
-		Map<String, String> response = new HashMap<>();
-        response.put("message", "User deleted successfully.");
-		return new ResponseEntity<>(response, HttpStatus.OK);
+		return new ResponseEntity<>(MessageResponse.of("User deleted successfully."), HttpStatus.OK);
 	}
 
 	@Operation(
@@ -224,11 +210,22 @@ public class UserController {
 	)
 	@ApiResponses(value = {
 		@ApiResponse(responseCode = "200", description = "User successfully authenticated."),
-        @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated.")
+        @ApiResponse(responseCode = "403", description = "Bad credentials. You must be properly authenticated."),
+		@ApiResponse(responseCode = "429", description = "Too many failed attempts. Retry after the time in the Retry-After header.")
     })
+	@Audited(resource = "user", action = AuditAction.AUTHENTICATE)
 	@PostMapping(value = "/authenticate", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Map<String,String>> authenticateAndGetToken(@RequestHeader("username") String username, @RequestHeader("password") String password, HttpServletResponse response) {
-		Map<String,String> responseBody = new HashMap<>();
+	public ResponseEntity<MessageResponse> authenticateAndGetToken(@RequestHeader("username") String username, @RequestHeader("password") String password, HttpServletRequest request, HttpServletResponse response) {
+		// Refuse the attempt before checking the password if there were too many recent failures. Behind trusted
+		// proxies the remote address is the forwarded one of the client, as for the rate limits (see WebServerConfig)
+		String ip = request.getRemoteAddr();
+		long retryAfterMillis = loginThrottle.retryAfterMillis(username, ip);
+		if (retryAfterMillis > 0) {
+			logger.warn("Login attempt for user {} from {} refused after repeated failures.", username, ip);
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000))
+				.body(MessageResponse.of("Too many failed login attempts. Try again later."));
+		}
 		// Authenticate user and generate JWT token
 		try {
 			Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
@@ -236,19 +233,19 @@ public class UserController {
 			if(authentication.isAuthenticated()) {
 				String token = jwtService.generateToken(username);
 				response.setHeader("Authorization", "Bearer " + token);
-				responseBody.put("message", "Authentication successful");
+				loginThrottle.recordSuccess(username);
 				logger.info("User {} authenticated successfully.", username);
-				return ResponseEntity.ok(responseBody);
+				return ResponseEntity.ok(MessageResponse.of("Authentication successful"));
 			}
 			else {
-				responseBody.put("message", "Invalid credentials");
 				logger.warn("Invalid credentials provided for user: {}", username);
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(responseBody);
+				loginThrottle.recordFailure(username, ip);
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageResponse.of("Invalid credentials"));
 			}
 		} catch (AuthenticationException e) {
-			responseBody.put("message", "Invalid credentials");
 			logger.error("Authentication failed for user: {}.", username);
-			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(responseBody);
+			loginThrottle.recordFailure(username, ip);
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageResponse.of("Invalid credentials"));
 		}
 	}
 }
\ No newline at end of file
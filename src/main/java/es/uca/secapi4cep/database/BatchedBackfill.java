@@ -0,0 +1,90 @@
+package es.uca.secapi4cep.database;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Fills in data over a large table in small chunks. Every chunk is a separate
+ * short statement in autocommit mode, walking the primary key, so row locks
+ * are held for a single chunk and the API keeps writing meanwhile.
+ */
+public class BatchedBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchedBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Rows per chunk
+    private final int batchSize;
+
+    // Pause between chunks, leaving room to the API and to replication
+    private final long pauseMillis;
+
+    public BatchedBackfill(JdbcTemplate jdbcTemplate, int batchSize, long pauseMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * Runs an UPDATE over consecutive ranges of IDs.
+     * @param table The table to update
+     * @param setClause The assignments, without the SET keyword
+     * @param pendingCondition Selects the rows still to update, so that the backfill can be resumed
+     * @return The number of rows updated
+     */
+    public long update(String table, String setClause, String pendingCondition) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        long updated = 0;
+        for (long from = 0; maxId != null && from <= maxId; from += batchSize) {
+            updated += jdbcTemplate.update("update " + table + " set " + setClause
+                + " where id > ? and id <= ? and (" + pendingCondition + ")", from, from + batchSize);
+            pause();
+        }
+        logger.info("Backfilled {} rows of {}.", updated, table);
+        return updated;
+    }
+
+    /**
+     * Reads the pending rows chunk by chunk and writes back values computed by the application.
+     * @param query Selects the pending rows; it must contain "id > ?" and end with "order by id limit ?"
+     * @param rowMapper Maps every row, which must expose its ID through idOf
+     * @param idOf Extracts the ID of a mapped row
+     * @param update The statement applied for every row
+     * @param parameters Computes the parameters of the statement for a row, once per execution
+     * @return The number of rows updated
+     */
+    public <T> long process(String query, RowMapper<T> rowMapper, Function<T, Long> idOf, String update,
+                            Function<T, List<Object[]>> parameters) {
+        long lastId = 0;
+        long updated = 0;
+        while (true) {
+            List<T> rows = jdbcTemplate.query(query, rowMapper, lastId, batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate(update, rows.stream().flatMap(row -> parameters.apply(row).stream()).toList());
+            updated += rows.size();
+            lastId = idOf.apply(rows.get(rows.size() - 1));
+            pause();
+        }
+        logger.info("Backfilled {} rows.", updated);
+        return updated;
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package es.uca.secapi4cep.database;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Migration written in Java, for changes that SQL alone cannot express, such as
+ * backfills computed by the application. Implementations are Spring beans and
+ * run in version order together with the SQL scripts. They must not depend on
+ * JPA, which is only started after the migrations.
+ */
+public interface JavaMigration {
+
+    /**
+     * Returns the version of the migration, ordered like the versions of the SQL scripts.
+     * @return The version, such as "3" or "3.1"
+     */
+    String getVersion();
+
+    /**
+     * Returns a short description of the migration.
+     * @return The description
+     */
+    String getDescription();
+
+    /**
+     * Returns the phase of the migration.
+     * @return The phase, expand by default
+     */
+    default MigrationPhase getPhase() {
+        return MigrationPhase.EXPAND;
+    }
+
+    /**
+     * Applies the migration.
+     * @param jdbcTemplate Template bound to the connection holding the migration lock
+     * @throws Exception If the migration fails
+     */
+    void migrate(JdbcTemplate jdbcTemplate) throws Exception;
+}
@@ -0,0 +1,15 @@
+package es.uca.secapi4cep.database;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes JPA wait for the schema migrations, so that Hibernate always sees the migrated schema.
+ */
+@Component
+public class MigrationEntityManagerFactoryDependsOn extends EntityManagerFactoryDependsOnPostProcessor {
+
+    public MigrationEntityManagerFactoryDependsOn() {
+        super("migrationRunner");
+    }
+}
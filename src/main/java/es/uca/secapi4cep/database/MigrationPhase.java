@@ -0,0 +1,12 @@
+package es.uca.secapi4cep.database;
+
+/**
+ * Phases of a schema change made without downtime. Expand migrations only add
+ * (tables, nullable columns, indexes, backfills) and are safe while the
+ * previous version of the API is still running. Contract migrations remove what
+ * the previous version needed, and only run once every instance is upgraded.
+ */
+public enum MigrationPhase {
+    EXPAND,
+    CONTRACT
+}
@@ -0,0 +1,246 @@
+package es.uca.secapi4cep.database;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the versioned schema migrations before JPA starts. SQL scripts are
+ * read from db/migration/V{version}__{description}.sql and Java migrations are
+ * JavaMigration beans; both run in version order and are recorded in the
+ * schema_migration_history table, whose checksums detect edited scripts.
+ * <p>
+ * Instances starting together serialize on a MySQL named lock. Every DDL runs
+ * with a short lock_wait_timeout and is retried, so a migration waiting for a
+ * metadata lock gives way to the API instead of queueing every query behind it.
+ * Contract migrations only run when explicitly enabled, once no running instance
+ * needs the schema they remove.
+ */
+@Component("migrationRunner")
+public class MigrationRunner implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrationRunner.class);
+
+    static final String HISTORY_TABLE = "schema_migration_history";
+
+    private static final String LOCK_NAME = "secapi4cep_schema_migration";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V([0-9][0-9.]*)__(.+)\\.sql");
+
+    // MySQL error raised when a lock is not obtained within lock_wait_timeout
+    private static final int LOCK_WAIT_TIMEOUT = 1205;
+
+    // A migration, either a SQL script or a Java migration
+    private record Migration(String version, String description, MigrationPhase phase, String type, Integer checksum,
+                             MigrationStep step) {
+    }
+
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(JdbcTemplate jdbcTemplate) throws Exception;
+    }
+
+    private final DataSource dataSource;
+    private final List<JavaMigration> javaMigrations;
+    private final boolean enabled;
+    private final boolean contractEnabled;
+    private final int lockWaitTimeoutSeconds;
+    private final int retries;
+
+    // Constructor to inject the data source, the Java migrations and the migration settings
+    public MigrationRunner(DataSource dataSource, List<JavaMigration> javaMigrations,
+                           @Value("${cep.db.migration.enabled:true}") boolean enabled,
+                           @Value("${cep.db.migration.contract.enabled:false}") boolean contractEnabled,
+                           @Value("${cep.db.migration.lock-wait-timeout-s:5}") int lockWaitTimeoutSeconds,
+                           @Value("${cep.db.migration.retries:10}") int retries) {
+        this.dataSource = dataSource;
+        this.javaMigrations = javaMigrations;
+        this.enabled = enabled;
+        this.contractEnabled = contractEnabled;
+        this.lockWaitTimeoutSeconds = lockWaitTimeoutSeconds;
+        this.retries = retries;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (!enabled) {
+            logger.info("Schema migrations are disabled.");
+            return;
+        }
+        List<Migration> migrations = discover();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            Integer locked = jdbcTemplate.queryForObject("select get_lock(?, 600)", Integer.class, LOCK_NAME);
+            if (locked == null || locked != 1) {
+                throw new IllegalStateException("Could not obtain the schema migration lock.");
+            }
+            try {
+                migrate(jdbcTemplate, migrations);
+            } finally {
+                jdbcTemplate.queryForObject("select release_lock(?)", Integer.class, LOCK_NAME);
+            }
+        }
+    }
+
+    private void migrate(JdbcTemplate jdbcTemplate, List<Migration> migrations) throws Exception {
+        jdbcTemplate.execute("create table if not exists " + HISTORY_TABLE + " ("
+            + "version varchar(50) not null primary key, "
+            + "description varchar(200) not null, "
+            + "type varchar(20) not null, "
+            + "checksum int, "
+            + "installed_on timestamp not null default current_timestamp, "
+            + "execution_ms bigint not null) engine=InnoDB");
+        jdbcTemplate.execute("set session lock_wait_timeout = " + lockWaitTimeoutSeconds);
+
+        Map<String, Integer> applied = jdbcTemplate.query("select version, checksum from " + HISTORY_TABLE,
+            rs -> {
+                Map<String, Integer> versions = new HashMap<>();
+                while (rs.next()) {
+                    versions.put(rs.getString("version"), (Integer) rs.getObject("checksum"));
+                }
+                return versions;
+            });
+
+        if (applied.isEmpty() && !migrations.isEmpty() && schemaExists(jdbcTemplate)) {
+            // Tables created by Hibernate before migrations existed: the baseline describes them already
+            Migration baseline = migrations.get(0);
+            record(jdbcTemplate, baseline.version(), baseline.description(), "BASELINE", baseline.checksum(), 0);
+            applied.put(baseline.version(), baseline.checksum());
+            logger.info("Existing schema baselined at version {}.", baseline.version());
+        }
+
+        for (Migration migration : migrations) {
+            if (applied.containsKey(migration.version())) {
+                Integer checksum = applied.get(migration.version());
+                if (checksum != null && migration.checksum() != null && !checksum.equals(migration.checksum())) {
+                    throw new IllegalStateException("Migration " + migration.version() + " was modified after being applied.");
+                }
+                continue;
+            }
+            if (migration.phase() == MigrationPhase.CONTRACT && !contractEnabled) {
+                logger.warn("Contract migration {} is pending; it and later migrations run once cep.db.migration.contract.enabled is set.",
+                    migration.version());
+                return;
+            }
+            long start = System.currentTimeMillis();
+            logger.info("Applying migration {}: {}", migration.version(), migration.description());
+            migration.step().apply(jdbcTemplate);
+            record(jdbcTemplate, migration.version(), migration.description(), migration.type(), migration.checksum(),
+                System.currentTimeMillis() - start);
+        }
+    }
+
+    // Collects the SQL scripts and Java migrations, sorted by version
+    private List<Migration> discover() throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath*:db/migration/V*__*.sql");
+        for (Resource script : scripts) {
+            Matcher matcher = SCRIPT_NAME.matcher(script.getFilename());
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Invalid migration script name: " + script.getFilename());
+            }
+            String sql = script.getContentAsString(StandardCharsets.UTF_8);
+            MigrationPhase phase = sql.lines().findFirst().map(String::trim).orElse("").equalsIgnoreCase("-- phase: contract")
+                ? MigrationPhase.CONTRACT : MigrationPhase.EXPAND;
+            CRC32 crc = new CRC32();
+            crc.update(sql.getBytes(StandardCharsets.UTF_8));
+            migrations.add(new Migration(matcher.group(1), matcher.group(2).replace('_', ' '), phase, "SQL",
+                (int) crc.getValue(), jdbcTemplate -> statements(sql).forEach(statement -> execute(jdbcTemplate, statement))));
+        }
+        for (JavaMigration javaMigration : javaMigrations) {
+            migrations.add(new Migration(javaMigration.getVersion(), javaMigration.getDescription(), javaMigration.getPhase(),
+                "JAVA", null, javaMigration::migrate));
+        }
+        migrations.sort(Comparator.comparing(Migration::version, MigrationRunner::compareVersions));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (compareVersions(migrations.get(i - 1).version(), migrations.get(i).version()) == 0) {
+                throw new IllegalStateException("Duplicate migration version " + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+
+    // Runs a statement, retrying while it cannot get its locks
+    private void execute(JdbcTemplate jdbcTemplate, String statement) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.execute(statement);
+                return;
+            } catch (DataAccessException e) {
+                if (attempt > retries || !(e.getMostSpecificCause() instanceof SQLException sqlException)
+                        || sqlException.getErrorCode() != LOCK_WAIT_TIMEOUT) {
+                    throw e;
+                }
+                logger.warn("Migration statement waited too long for a lock, retrying ({}/{}).", attempt, retries);
+                try {
+                    Thread.sleep(Math.min(30_000L, 500L << Math.min(attempt, 6)));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean schemaExists(JdbcTemplate jdbcTemplate) {
+        Integer tables = jdbcTemplate.queryForObject("select count(*) from information_schema.tables "
+            + "where table_schema = database() and table_name in ('TABLE_EVENT_TYPE', 'TABLE_EVENT_PATTERN', 'TABLE_USER')",
+            Integer.class);
+        return tables != null && tables > 0;
+    }
+
+    private static void record(JdbcTemplate jdbcTemplate, String version, String description, String type, Integer checksum,
+                               long executionMillis) {
+        jdbcTemplate.update("insert into " + HISTORY_TABLE + " (version, description, type, checksum, execution_ms) values (?, ?, ?, ?, ?)",
+            version, description, type, checksum, executionMillis);
+    }
+
+    // Splits a script on the semicolons that end a line, skipping comment lines
+    static List<String> statements(String sql) {
+        String withoutComments = sql.lines().filter(line -> !line.trim().startsWith("--")).collect(Collectors.joining("\n"));
+        List<String> statements = new ArrayList<>();
+        for (String statement : withoutComments.split(";\\s*(\\n|$)")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+
+    static int compareVersions(String a, String b) {
+        String[] left = a.split("\\.");
+        String[] right = b.split("\\.");
+        for (int i = 0; i < Math.max(left.length, right.length); i++) {
+            long l = i < left.length && !left[i].isEmpty() ? Long.parseLong(left[i]) : 0;
+            long r = i < right.length && !right[i].isEmpty() ? Long.parseLong(right[i]) : 0;
+            if (l != r) {
+                return Long.compare(l, r);
+            }
+        }
+        return 0;
+    }
+}
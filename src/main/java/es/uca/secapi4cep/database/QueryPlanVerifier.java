@@ -0,0 +1,119 @@
+package es.uca.secapi4cep.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks at startup that the lookup queries of the API use their indexes, by
+ * running EXPLAIN on each of them and checking the access type MySQL picks and
+ * the columns its index starts with. Indexes are recognized by their columns,
+ * not their names, since schemas baselined from Hibernate keep its generated
+ * names for the unique keys. The plans are explained with max_seeks_for_key lowered, so that MySQL
+ * prefers an index to a table scan as it does on large tables and the result
+ * does not depend on how many rows there are. Lookups on unique keys are
+ * explained with two values, because for a single missing value MySQL answers
+ * from its const table read without reporting the index.
+ */
+@Component
+@ConditionalOnProperty(name = "cep.db.query-plan-check.enabled", havingValue = "true")
+public class QueryPlanVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    // A lookup query and the columns the index it uses must start with, in any order
+    private record Lookup(String table, String query, Set<String> columns) {
+    }
+
+    // Lookup queries of the API
+    private static final List<Lookup> LOOKUPS = new ArrayList<>();
+
+    static {
+        for (String table : List.of("TABLE_EVENT_TYPE", "TABLE_EVENT_PATTERN")) {
+            LOOKUPS.add(new Lookup(table, "select id from " + table + " where name in ('x', 'y')", Set.of("name")));
+            LOOKUPS.add(new Lookup(table, "select id from " + table + " where is_ready_to_deploy = true and is_deployed = false",
+                Set.of("is_deployed", "is_ready_to_deploy")));
+            LOOKUPS.add(new Lookup(table, "select id from " + table + " where is_deployed = true", Set.of("is_deployed")));
+            LOOKUPS.add(new Lookup(table, "select id from " + table + " where content_hash = 'x'", Set.of("content_hash")));
+        }
+        LOOKUPS.add(new Lookup("TABLE_USER", "select id from TABLE_USER where username in ('x', 'y')", Set.of("username")));
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Constructor to inject the JdbcTemplate
+    public QueryPlanVerifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Explains every lookup query and stops the application if any of them does not use its index.
+     * @throws IllegalStateException If a lookup query would use an index on other columns or scan a whole table or index
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        // The session variable only applies to the connection it is set on
+        List<String> failures = jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set session max_seeks_for_key = 1");
+                try {
+                    return explainLookups(statement);
+                } finally {
+                    statement.execute("set session max_seeks_for_key = default");
+                }
+            }
+        });
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Lookup queries are not index-backed: " + String.join("; ", failures));
+        }
+        logger.info("All {} lookup queries are index-backed.", LOOKUPS.size());
+    }
+
+    // Returns a description of every lookup query whose plan does not go through an index on its columns
+    private static List<String> explainLookups(Statement statement) throws SQLException {
+        Map<String, List<String>> indexColumns = indexColumns(statement);
+        List<String> failures = new ArrayList<>();
+        for (Lookup lookup : LOOKUPS) {
+            try (ResultSet plan = statement.executeQuery("explain " + lookup.query())) {
+                String type = plan.next() ? plan.getString("type") : null;
+                String key = type != null ? plan.getString("key") : null;
+                List<String> columns = key != null ? indexColumns.getOrDefault(lookup.table() + "." + key, List.of()) : List.of();
+                // ALL and index read every row of the table or of the index
+                if (type == null || type.equals("ALL") || type.equals("index") || columns.size() < lookup.columns().size()
+                        || !lookup.columns().equals(Set.copyOf(columns.subList(0, lookup.columns().size())))) {
+                    failures.add("'" + lookup.query() + "' uses " + (key == null ? "no index" : key + " " + columns)
+                        + " (access type " + type + ") instead of an index on " + lookup.columns());
+                }
+            }
+        }
+        return failures;
+    }
+
+    // Columns of every index of the schema, in index order, by table and index name
+    private static Map<String, List<String>> indexColumns(Statement statement) throws SQLException {
+        Map<String, List<String>> indexColumns = new HashMap<>();
+        try (ResultSet rows = statement.executeQuery("select table_name, index_name, column_name from information_schema.statistics "
+                + "where table_schema = database() order by table_name, index_name, seq_in_index")) {
+            while (rows.next()) {
+                indexColumns.computeIfAbsent(rows.getString("table_name") + "." + rows.getString("index_name"),
+                    index -> new ArrayList<>()).add(rows.getString("column_name").toLowerCase(Locale.ROOT));
+            }
+        }
+        return indexColumns;
+    }
+}
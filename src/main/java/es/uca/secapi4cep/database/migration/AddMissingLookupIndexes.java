@@ -0,0 +1,60 @@
+package es.uca.secapi4cep.database.migration;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.database.JavaMigration;
+
+/**
+ * Adds the lookup indexes to schemas baselined from Hibernate, which only have
+ * the auto-named unique indexes. Indexes whose columns are already indexed are
+ * skipped, and the others are built online, without blocking writes.
+ */
+@Component
+public class AddMissingLookupIndexes implements JavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(AddMissingLookupIndexes.class);
+
+    private record LookupIndex(String table, String name, String columns, boolean unique) {
+    }
+
+    private static final List<LookupIndex> INDEXES = List.of(
+        new LookupIndex("TABLE_EVENT_TYPE", "uk_event_type_name", "name", true),
+        new LookupIndex("TABLE_EVENT_TYPE", "idx_event_type_state", "is_deployed,is_ready_to_deploy", false),
+        new LookupIndex("TABLE_EVENT_TYPE", "idx_event_type_content_hash", "content_hash", false),
+        new LookupIndex("TABLE_EVENT_PATTERN", "uk_event_pattern_name", "name", true),
+        new LookupIndex("TABLE_EVENT_PATTERN", "idx_event_pattern_state", "is_deployed,is_ready_to_deploy", false),
+        new LookupIndex("TABLE_EVENT_PATTERN", "idx_event_pattern_content_hash", "content_hash", false),
+        new LookupIndex("TABLE_USER", "uk_user_username", "username", true),
+        new LookupIndex("TABLE_USER", "uk_user_email", "email", true));
+
+    @Override
+    public String getVersion() {
+        return "2";
+    }
+
+    @Override
+    public String getDescription() {
+        return "add missing lookup indexes";
+    }
+
+    @Override
+    public void migrate(JdbcTemplate jdbcTemplate) {
+        for (LookupIndex index : INDEXES) {
+            // Columns of every existing index of the table, in index order
+            List<String> existing = jdbcTemplate.queryForList("select group_concat(column_name order by seq_in_index) "
+                + "from information_schema.statistics where table_schema = database() and table_name = ? "
+                + "group by index_name", String.class, index.table());
+            if (existing.contains(index.columns())) {
+                continue;
+            }
+            logger.info("Adding index {} on {}.", index.name(), index.table());
+            jdbcTemplate.execute("alter table " + index.table() + " add " + (index.unique() ? "unique " : "") + "index "
+                + index.name() + " (" + index.columns() + "), algorithm=inplace, lock=none");
+        }
+    }
+}
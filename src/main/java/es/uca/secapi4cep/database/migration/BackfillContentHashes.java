@@ -0,0 +1,63 @@
+package es.uca.secapi4cep.database.migration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.database.BatchedBackfill;
+import es.uca.secapi4cep.database.JavaMigration;
+import es.uca.secapi4cep.deployment.ContentHash;
+import es.uca.secapi4cep.deployment.GzipCompression;
+
+/**
+ * Computes the content hash of the artifacts stored before it was introduced.
+ * The hash is computed by the application, so the rows are read and written
+ * back in chunks rather than updated by a single statement.
+ */
+@Component
+public class BackfillContentHashes implements JavaMigration {
+
+    private record Row(long id, String content) {
+    }
+
+    private final int batchSize;
+    private final long pauseMillis;
+
+    // Constructor to inject the chunk size and the pause between chunks
+    public BackfillContentHashes(@Value("${cep.db.migration.backfill.batch-size:500}") int batchSize,
+                                 @Value("${cep.db.migration.backfill.pause-ms:50}") long pauseMillis) {
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Override
+    public String getVersion() {
+        return "3";
+    }
+
+    @Override
+    public String getDescription() {
+        return "backfill content hashes";
+    }
+
+    @Override
+    public void migrate(JdbcTemplate jdbcTemplate) {
+        BatchedBackfill backfill = new BatchedBackfill(jdbcTemplate, batchSize, pauseMillis);
+        for (String table : new String[] { "TABLE_EVENT_TYPE", "TABLE_EVENT_PATTERN" }) {
+            backfill.process("select id, content from " + table + " where id > ? and content_hash is null order by id limit ?",
+                (rs, rowNum) -> new Row(rs.getLong("id"), decode(rs.getBytes("content"))),
+                Row::id,
+                "update " + table + " set content_hash = ? where id = ? and content_hash is null",
+                row -> List.<Object[]>of(new Object[] { ContentHash.of(row.content()), row.id() }));
+        }
+    }
+
+    // Contents are stored compressed or as plain UTF-8, see CompressedContentConverter
+    private static String decode(byte[] data) {
+        byte[] raw = GzipCompression.isCompressed(data) ? GzipCompression.decompress(data) : data;
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,56 @@
+package es.uca.secapi4cep.database.migration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.database.BatchedBackfill;
+import es.uca.secapi4cep.database.JavaMigration;
+
+/**
+ * Copies the contents of the artifacts from the legacy content column into
+ * content_data, in chunks. They are copied as plain UTF-8, which
+ * CompressedContentConverter reads as it reads uncompressed contents.
+ */
+@Component
+public class CopyArtifactContents implements JavaMigration {
+
+    static final String[] TABLES = { "TABLE_EVENT_TYPE", "TABLE_EVENT_PATTERN" };
+
+    private final int batchSize;
+    private final long pauseMillis;
+
+    // Constructor to inject the chunk size and the pause between chunks
+    public CopyArtifactContents(@Value("${cep.db.migration.backfill.batch-size:500}") int batchSize,
+                                @Value("${cep.db.migration.backfill.pause-ms:50}") long pauseMillis) {
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Override
+    public String getVersion() {
+        return "5.2";
+    }
+
+    @Override
+    public String getDescription() {
+        return "copy artifact contents";
+    }
+
+    @Override
+    public void migrate(JdbcTemplate jdbcTemplate) {
+        BatchedBackfill backfill = new BatchedBackfill(jdbcTemplate, batchSize, pauseMillis);
+        for (String table : TABLES) {
+            copyLegacyContents(table, backfill);
+        }
+    }
+
+    /**
+     * Copies the legacy content of the rows of a table that have no content_data yet.
+     * @param table The table of a kind of artifact
+     * @param backfill The backfill to run the copy with
+     */
+    static void copyLegacyContents(String table, BatchedBackfill backfill) {
+        backfill.update(table, "content_data = convert(content using utf8mb4)", "content_data is null");
+    }
+}
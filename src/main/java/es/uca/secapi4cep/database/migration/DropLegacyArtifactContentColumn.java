@@ -0,0 +1,57 @@
+package es.uca.secapi4cep.database.migration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.database.BatchedBackfill;
+import es.uca.secapi4cep.database.JavaMigration;
+import es.uca.secapi4cep.database.MigrationPhase;
+
+/**
+ * Contract step of the content_data migration. Copies the contents of
+ * artifacts created by the previous version after the expand step, then drops
+ * the legacy content column of every artifact table online.
+ */
+@Component
+public class DropLegacyArtifactContentColumn implements JavaMigration {
+
+    private final int batchSize;
+    private final long pauseMillis;
+
+    // Constructor to inject the chunk size and the pause between chunks
+    public DropLegacyArtifactContentColumn(@Value("${cep.db.migration.backfill.batch-size:500}") int batchSize,
+                                           @Value("${cep.db.migration.backfill.pause-ms:50}") long pauseMillis) {
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Override
+    public String getVersion() {
+        return "7";
+    }
+
+    @Override
+    public String getDescription() {
+        return "drop legacy artifact content column";
+    }
+
+    @Override
+    public MigrationPhase getPhase() {
+        return MigrationPhase.CONTRACT;
+    }
+
+    @Override
+    public void migrate(JdbcTemplate jdbcTemplate) {
+        BatchedBackfill backfill = new BatchedBackfill(jdbcTemplate, batchSize, pauseMillis);
+        for (String table : CopyArtifactContents.TABLES) {
+            Integer columns = jdbcTemplate.queryForObject("select count(*) from information_schema.columns "
+                + "where table_schema = database() and table_name = ? and column_name = 'content'", Integer.class, table);
+            if (columns == null || columns == 0) {
+                continue;
+            }
+            CopyArtifactContents.copyLegacyContents(table, backfill);
+            jdbcTemplate.execute("alter table " + table + " drop column content, algorithm=inplace, lock=none");
+        }
+    }
+}
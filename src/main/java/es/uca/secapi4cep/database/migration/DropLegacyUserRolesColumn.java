@@ -0,0 +1,54 @@
+package es.uca.secapi4cep.database.migration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.database.BatchedBackfill;
+import es.uca.secapi4cep.database.JavaMigration;
+import es.uca.secapi4cep.database.MigrationPhase;
+
+/**
+ * Contract step of the role table migration. Copies the roles of users
+ * created by the previous version after the expand step, then drops the legacy
+ * TABLE_USER.roles column online.
+ */
+@Component
+public class DropLegacyUserRolesColumn implements JavaMigration {
+
+    private final int batchSize;
+    private final long pauseMillis;
+
+    // Constructor to inject the chunk size and the pause between chunks
+    public DropLegacyUserRolesColumn(@Value("${cep.db.migration.backfill.batch-size:500}") int batchSize,
+                                     @Value("${cep.db.migration.backfill.pause-ms:50}") long pauseMillis) {
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Override
+    public String getVersion() {
+        return "6";
+    }
+
+    @Override
+    public String getDescription() {
+        return "drop legacy user roles column";
+    }
+
+    @Override
+    public MigrationPhase getPhase() {
+        return MigrationPhase.CONTRACT;
+    }
+
+    @Override
+    public void migrate(JdbcTemplate jdbcTemplate) {
+        Integer columns = jdbcTemplate.queryForObject("select count(*) from information_schema.columns "
+            + "where table_schema = database() and table_name = 'TABLE_USER' and column_name = 'roles'", Integer.class);
+        if (columns == null || columns == 0) {
+            return;
+        }
+        MoveUserRolesToTable.copyLegacyRoles(jdbcTemplate, new BatchedBackfill(jdbcTemplate, batchSize, pauseMillis));
+        jdbcTemplate.execute("alter table TABLE_USER drop column roles, algorithm=inplace, lock=none");
+    }
+}
@@ -0,0 +1,68 @@
+package es.uca.secapi4cep.database.migration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.deployment.ArtifactKind;
+
+/**
+ * Dual write of the content_data migration. Until the contract step drops the
+ * legacy content column, every content saved is also written there as plain
+ * text, so that instances of the previous version read the same contents
+ * during a rollout. Contents longer than the legacy column leave it unchanged,
+ * since the previous version cannot store them anyway.
+ */
+@Component
+public class LegacyArtifactContentWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyArtifactContentWriter.class);
+
+    // Length of the legacy varchar column, in characters
+    static final int LEGACY_CONTENT_LENGTH = 2044;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Whether the legacy column still exists in the table of every kind, checked on first use
+    private final Map<ArtifactKind, Boolean> legacyColumns = new ConcurrentHashMap<>();
+
+    // Constructor to inject the JdbcTemplate
+    public LegacyArtifactContentWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes the content of a saved artifact to the legacy column, if it still exists.
+     * @param kind The kind of artifact
+     * @param id The ID of the artifact, already saved
+     * @param content The content saved
+     */
+    public void write(ArtifactKind kind, Long id, String content) {
+        if (content == null || content.codePointCount(0, content.length()) > LEGACY_CONTENT_LENGTH
+                || !legacyColumns.computeIfAbsent(kind, this::hasLegacyColumn)) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("update " + table(kind) + " set content = ? where id = ?", content, id);
+        } catch (BadSqlGrammarException e) {
+            // Another instance ran the contract step since the column was found
+            logger.info("The legacy content column of {} is gone; contents are no longer written to it.", table(kind));
+            legacyColumns.put(kind, false);
+        }
+    }
+
+    private boolean hasLegacyColumn(ArtifactKind kind) {
+        Integer columns = jdbcTemplate.queryForObject("select count(*) from information_schema.columns "
+            + "where table_schema = database() and table_name = ? and column_name = 'content'", Integer.class, table(kind));
+        return columns != null && columns > 0;
+    }
+
+    private static String table(ArtifactKind kind) {
+        return "TABLE_" + kind.name();
+    }
+}
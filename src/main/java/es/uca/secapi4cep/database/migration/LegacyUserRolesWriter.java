@@ -0,0 +1,87 @@
+package es.uca.secapi4cep.database.migration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.entities.Role;
+import es.uca.secapi4cep.entities.User;
+
+/**
+ * Dual write of the role table migration. Until the contract step drops the
+ * legacy TABLE_USER.roles column, every change to the roles of a user is also
+ * written there, as the serialized ArrayList of names the previous version
+ * reads, so that instances of that version see the same roles during a rollout.
+ */
+@Component
+public class LegacyUserRolesWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyUserRolesWriter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Whether the legacy column still exists, checked on first use; null until then
+    private volatile Boolean legacyColumn;
+
+    // Constructor to inject the JdbcTemplate
+    public LegacyUserRolesWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes the roles of a saved user to the legacy column, if it still exists. Must run in the
+     * transaction that saves the user, so that both copies of the roles are committed together.
+     * @param user The user, already saved
+     */
+    public void write(User user) {
+        if (!hasLegacyColumn()) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("update TABLE_USER set roles = ? where id = ?", encode(user.getRoles()), user.getId());
+        } catch (BadSqlGrammarException e) {
+            // Another instance ran the contract step since the column was found
+            logger.info("The legacy roles column is gone; roles are no longer written to it.");
+            legacyColumn = false;
+        }
+    }
+
+    /**
+     * Serializes roles as the previous version stored them.
+     * @param roles The roles, possibly null
+     * @return The serialized ArrayList of role names
+     */
+    static byte[] encode(Collection<Role> roles) {
+        ArrayList<String> names = new ArrayList<>();
+        if (roles != null) {
+            roles.stream().map(Role::name).sorted().forEach(names::add);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(names);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private boolean hasLegacyColumn() {
+        Boolean exists = legacyColumn;
+        if (exists == null) {
+            Integer columns = jdbcTemplate.queryForObject("select count(*) from information_schema.columns "
+                + "where table_schema = database() and table_name = 'TABLE_USER' and column_name = 'roles'", Integer.class);
+            exists = columns != null && columns > 0;
+            legacyColumn = exists;
+        }
+        return exists;
+    }
+}
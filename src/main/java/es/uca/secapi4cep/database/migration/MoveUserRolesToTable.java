@@ -0,0 +1,100 @@
+package es.uca.secapi4cep.database.migration;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.database.BatchedBackfill;
+import es.uca.secapi4cep.database.JavaMigration;
+import es.uca.secapi4cep.entities.Role;
+
+/**
+ * Copies the roles stored in the legacy TABLE_USER.roles column into
+ * TABLE_USER_ROLE. Hibernate stored them as a serialized ArrayList of strings;
+ * only that shape is accepted when reading them back. Users that already have
+ * rows in the role table are skipped, so the copy can be repeated safely.
+ */
+@Component
+public class MoveUserRolesToTable implements JavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoveUserRolesToTable.class);
+
+    // Only an ArrayList of strings may be deserialized
+    private static final ObjectInputFilter ROLES_FILTER = ObjectInputFilter.Config.createFilter(
+        "maxdepth=2;maxarray=64;java.util.ArrayList;java.lang.String;java.lang.Object;!*");
+
+    private record LegacyRoles(long id, byte[] roles) {
+    }
+
+    private final int batchSize;
+    private final long pauseMillis;
+
+    // Constructor to inject the chunk size and the pause between chunks
+    public MoveUserRolesToTable(@Value("${cep.db.migration.backfill.batch-size:500}") int batchSize,
+                                @Value("${cep.db.migration.backfill.pause-ms:50}") long pauseMillis) {
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Override
+    public String getVersion() {
+        return "5";
+    }
+
+    @Override
+    public String getDescription() {
+        return "move user roles to table";
+    }
+
+    @Override
+    public void migrate(JdbcTemplate jdbcTemplate) {
+        copyLegacyRoles(jdbcTemplate, new BatchedBackfill(jdbcTemplate, batchSize, pauseMillis));
+    }
+
+    /**
+     * Copies the legacy roles of the users that have none in the role table yet.
+     * @param jdbcTemplate Template bound to the migration connection
+     * @param backfill The backfill used to walk the users
+     */
+    static void copyLegacyRoles(JdbcTemplate jdbcTemplate, BatchedBackfill backfill) {
+        backfill.process("select id, roles from TABLE_USER u where id > ? and roles is not null "
+                + "and not exists (select 1 from TABLE_USER_ROLE r where r.user_id = u.id) order by id limit ?",
+            (rs, rowNum) -> new LegacyRoles(rs.getLong("id"), rs.getBytes("roles")),
+            LegacyRoles::id,
+            "insert ignore into TABLE_USER_ROLE (user_id, role) values (?, ?)",
+            user -> decode(user.id(), user.roles()).stream().map(role -> new Object[] { user.id(), role.name() }).toList());
+    }
+
+    /**
+     * Reads the roles of a user from the legacy column.
+     * @param userId The ID of the user, for logging
+     * @param legacyRoles The value of the legacy column
+     * @return The known roles, empty if the value cannot be read
+     */
+    static List<Role> decode(long userId, byte[] legacyRoles) {
+        List<Role> roles = new ArrayList<>();
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(legacyRoles))) {
+            input.setObjectInputFilter(ROLES_FILTER);
+            for (Object value : (List<?>) input.readObject()) {
+                try {
+                    roles.add(Role.valueOf(String.valueOf(value).trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Dropping unknown role '{}' of user {}.", value, userId);
+                }
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            logger.warn("Could not read the roles of user {}; they must be granted again.", userId);
+        }
+        return roles;
+    }
+}
@@ -0,0 +1,55 @@
+package es.uca.secapi4cep.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Decides, per thread, whether the current statement may go to the read replica.
+ */
+public final class DataSourceRouting {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    // Set while a method annotated with @ReplicaRead runs
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    // Set while serving a client that wrote recently and must read its own writes
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * Returns where the current statement must go: the replica only inside a read-only
+     * transaction opened by a @ReplicaRead method, for a client that is not pinned to the primary.
+     * @return The route of the current statement
+     */
+    public static Route current() {
+        boolean replica = Boolean.TRUE.equals(REPLICA_READ.get())
+            && !Boolean.TRUE.equals(PINNED_TO_PRIMARY.get())
+            && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return replica ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    static boolean enterReplicaRead() {
+        boolean outer = Boolean.TRUE.equals(REPLICA_READ.get());
+        REPLICA_READ.set(Boolean.TRUE);
+        return outer;
+    }
+
+    static void exitReplicaRead(boolean outer) {
+        if (!outer) {
+            REPLICA_READ.remove();
+        }
+    }
+
+    static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+}
@@ -0,0 +1,80 @@
+package es.uca.secapi4cep.datasource;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps the reads of a client on the primary for a short time after it changed
+ * something, so that it sees its own writes despite the replication lag. Runs
+ * after the security filters, when the client is already authenticated.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    // Time after a write during which the client reads from the primary
+    private final long stickyMillis;
+
+    // Time of the last write of every recent client, by username
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    // Constructor to inject the stickiness window
+    public ReadYourWritesFilter(@Value("${cep.datasource.replica.sticky-ms:5000}") long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String client = currentClient();
+        long now = System.currentTimeMillis();
+        Long lastWrite = client == null ? null : lastWrites.get(client);
+        boolean pinned = lastWrite != null && now - lastWrite < stickyMillis;
+        if (pinned) {
+            DataSourceRouting.pinToPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (pinned) {
+                DataSourceRouting.unpin();
+            }
+            if (client != null && isWrite(request)) {
+                recordWrite(client, System.currentTimeMillis());
+            }
+        }
+    }
+
+    private void recordWrite(String client, long time) {
+        if (lastWrites.size() > 10_000) {
+            lastWrites.values().removeIf(written -> time - written >= stickyMillis);
+        }
+        lastWrites.put(client, time);
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
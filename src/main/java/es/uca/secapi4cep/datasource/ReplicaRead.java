@@ -0,0 +1,21 @@
+package es.uca.secapi4cep.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Marks a service method as a read-only transaction that may be served by the
+ * read replica, when one is configured. Reads done anywhere else, including
+ * the reads of the lifecycle transitions, always go to the primary.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReplicaRead {
+}
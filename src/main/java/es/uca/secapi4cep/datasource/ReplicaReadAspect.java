@@ -0,0 +1,26 @@
+package es.uca.secapi4cep.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flags the thread while a @ReplicaRead method runs. The connection is only
+ * fetched on the first statement, so the flag is in place whichever of this
+ * aspect and the transaction interceptor runs first.
+ */
+@Aspect
+@Component
+public class ReplicaReadAspect {
+
+    @Around("@annotation(es.uca.secapi4cep.datasource.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean outer = DataSourceRouting.enterReplicaRead();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRouting.exitReplicaRead(outer);
+        }
+    }
+}
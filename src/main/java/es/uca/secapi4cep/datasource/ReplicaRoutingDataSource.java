@@ -0,0 +1,25 @@
+package es.uca.secapi4cep.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Sends the connections of replica reads to the replica pool and every other
+ * connection to the primary pool.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(DataSourceRouting.Route.PRIMARY, primary, DataSourceRouting.Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourceRouting.current();
+    }
+}
@@ -0,0 +1,24 @@
+package es.uca.secapi4cep.deployment;
+
+/**
+ * Kinds of artifacts that can be deployed in the CEP engine.
+ */
+public enum ArtifactKind {
+    EVENT_TYPE("Event type"),
+    EVENT_PATTERN("Event pattern");
+
+    // Name of the kind in messages
+    private final String label;
+
+    ArtifactKind(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the name of the kind in messages.
+     * @return The label of the kind
+     */
+    public String getLabel() {
+        return label;
+    }
+}
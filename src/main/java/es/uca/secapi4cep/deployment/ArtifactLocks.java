@@ -0,0 +1,105 @@
+package es.uca.secapi4cep.deployment;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Striped locks that serialize the lifecycle operations on the same artifact.
+ * Every artifact maps to one of a fixed number of fair locks, so operations on
+ * one artifact run in the order they arrived, while operations on different
+ * artifacts only wait for each other when they share a stripe.
+ */
+@Component
+public class ArtifactLocks {
+
+    private final ReentrantLock[] stripes;
+
+    // Lock wait metrics, updated without contention
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    // Constructor to inject the number of stripes, rounded up to a power of two
+    public ArtifactLocks(@Value("${cep.lock.stripes:256}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[Math.max(1, Math.min(size, 1 << 16))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Runs an operation holding the lock of an artifact.
+     * @param kind The kind of artifact
+     * @param id The ID of the artifact
+     * @param operation The operation to run
+     * @return The result of the operation
+     */
+    public <R> R withLock(ArtifactKind kind, Long id, Supplier<R> operation) {
+        ReentrantLock lock = stripeOf(kind, id);
+        acquire(lock);
+        try {
+            return operation.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs an operation holding the lock of an artifact.
+     * @param kind The kind of artifact
+     * @param id The ID of the artifact
+     * @param operation The operation to run
+     */
+    public void withLock(ArtifactKind kind, Long id, Runnable operation) {
+        withLock(kind, id, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returns the lock wait metrics accumulated since startup.
+     * @return The current lock wait statistics
+     */
+    public LockWaitStats stats() {
+        long contendedCount = contended.sum();
+        long waitMicros = TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.sum());
+        return new LockWaitStats(acquisitions.sum(), contendedCount, waitMicros,
+            contendedCount == 0 ? 0 : waitMicros / contendedCount, TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()));
+    }
+
+    private void acquire(ReentrantLock lock) {
+        acquisitions.increment();
+        // A timed tryLock honours fairness, unlike the untimed one, so it cannot overtake queued operations
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (acquired) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - start;
+        contended.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+    }
+
+    private ReentrantLock stripeOf(ArtifactKind kind, Long id) {
+        // Spreads consecutive IDs over the stripes
+        int hash = (Long.hashCode(id) * 31 + kind.ordinal()) * 0x9E3779B9;
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
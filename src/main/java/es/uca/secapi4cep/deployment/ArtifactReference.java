@@ -0,0 +1,22 @@
+package es.uca.secapi4cep.deployment;
+
+import es.uca.secapi4cep.entities.CepArtifact;
+
+/**
+ * Identifies an artifact in a deployment plan.
+ * @param kind The kind of artifact
+ * @param id The ID of the artifact
+ * @param name The name of the artifact
+ */
+public record ArtifactReference(ArtifactKind kind, Long id, String name) {
+
+    /**
+     * Creates a reference to the given artifact.
+     * @param kind The kind of the artifact
+     * @param artifact The artifact
+     * @return The reference
+     */
+    public static ArtifactReference of(ArtifactKind kind, CepArtifact artifact) {
+        return new ArtifactReference(kind, artifact.getId(), artifact.getName());
+    }
+}
@@ -0,0 +1,55 @@
+package es.uca.secapi4cep.deployment;
+
+import es.uca.secapi4cep.entities.CepArtifact;
+
+/**
+ * Lifecycle states of a CEP artifact: draft, ready to deploy and deployed.
+ * Drafts can be set as ready and back, ready artifacts can be deployed and
+ * deployed artifacts can be undeployed, which turns them into drafts again.
+ */
+public enum ArtifactState {
+    DRAFT,
+    READY,
+    DEPLOYED;
+
+    /**
+     * Returns the state of an artifact from its status flags.
+     * @param artifact The artifact
+     * @return The state of the artifact
+     */
+    public static ArtifactState of(CepArtifact artifact) {
+        if (artifact.isDeployed()) {
+            return DEPLOYED;
+        }
+        return artifact.isReadyToDeploy() ? READY : DRAFT;
+    }
+
+    /**
+     * Checks whether the content and name of an artifact in this state can be edited.
+     * @return True for drafts and deployed artifacts, which are redeployed
+     */
+    public boolean isEditable() {
+        return this != READY;
+    }
+
+    /**
+     * Checks whether an artifact in this state can be deleted.
+     * @return True for drafts
+     */
+    public boolean isDeletable() {
+        return this == DRAFT;
+    }
+
+    /**
+     * Checks whether an artifact can move from this state to another one.
+     * @param target The state to move to
+     * @return True if the transition is part of the lifecycle
+     */
+    public boolean canMoveTo(ArtifactState target) {
+        return switch (this) {
+            case DRAFT -> target == READY;
+            case READY -> target == DRAFT || target == DEPLOYED;
+            case DEPLOYED -> target == DRAFT;
+        };
+    }
+}
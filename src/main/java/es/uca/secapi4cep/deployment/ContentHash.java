@@ -0,0 +1,65 @@
+package es.uca.secapi4cep.deployment;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content-addressed identity of EPL bodies. Contents that only differ in
+ * whitespace outside string literals have the same hash.
+ */
+public final class ContentHash {
+
+    private ContentHash() {
+    }
+
+    /**
+     * Computes the SHA-256 hash of the normalized content.
+     * @param content The EPL content
+     * @return The hash as 64 hexadecimal characters, or null if there is no content
+     */
+    public static String of(String content) {
+        if (content == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalize(content).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Trims the content and collapses every run of whitespace outside string literals into a single space.
+     * @param content The EPL content
+     * @return The normalized content
+     */
+    public static String normalize(String content) {
+        StringBuilder normalized = new StringBuilder(content.length());
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (quote == 0 && Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.append(c);
+            if (quote != 0 && c == '\\' && i + 1 < content.length()) {
+                normalized.append(content.charAt(++i));
+            } else if (quote == 0 && (c == '\'' || c == '"')) {
+                quote = c;
+            } else if (c == quote) {
+                quote = 0;
+            }
+        }
+        return normalized.toString();
+    }
+}
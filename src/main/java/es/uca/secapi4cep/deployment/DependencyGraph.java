@@ -0,0 +1,116 @@
+package es.uca.secapi4cep.deployment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import es.uca.secapi4cep.exceptions.DeploymentPlanException;
+
+/**
+ * In-memory graph of the artifacts to deploy, linked by the names they declare and consume.
+ */
+public class DependencyGraph {
+
+    // Event types are deployed before patterns within a wave, then by ID
+    private static final Comparator<ArtifactReference> WAVE_ORDER =
+        Comparator.comparing(ArtifactReference::kind).thenComparing(ArtifactReference::id);
+
+    // Names declared by each artifact
+    private final Map<ArtifactReference, Set<String>> provided = new LinkedHashMap<>();
+
+    // Names consumed by each artifact
+    private final Map<ArtifactReference, Set<String>> required = new LinkedHashMap<>();
+
+    // Names already available in the CEP engine
+    private final Set<String> available = new HashSet<>();
+
+    /**
+     * Adds an artifact to deploy.
+     * @param artifact The artifact
+     * @param provides The names it declares
+     * @param requires The names it consumes
+     */
+    public void addArtifact(ArtifactReference artifact, Set<String> provides, Set<String> requires) {
+        provided.put(artifact, provides);
+        required.put(artifact, requires);
+    }
+
+    /**
+     * Registers names that are already deployed and need no ordering.
+     * @param names The available names
+     */
+    public void addAvailable(Collection<String> names) {
+        available.addAll(names);
+    }
+
+    /**
+     * Sorts the artifacts topologically, grouping in each wave the artifacts whose dependencies are all
+     * satisfied by previous waves.
+     * @return The waves of artifacts, in deployment order
+     * @throws DeploymentPlanException If a dependency is not provided by any artifact or the dependencies form a cycle
+     */
+    public List<List<ArtifactReference>> waves() {
+        Map<String, List<ArtifactReference>> providers = new HashMap<>();
+        provided.forEach((artifact, names) -> names.forEach(name ->
+            providers.computeIfAbsent(name, k -> new ArrayList<>()).add(artifact)));
+
+        // Resolve every consumed name to the artifacts that must be deployed first
+        Map<ArtifactReference, Set<ArtifactReference>> dependencies = new LinkedHashMap<>();
+        Map<ArtifactReference, Set<ArtifactReference>> dependents = new HashMap<>();
+        for (Map.Entry<ArtifactReference, Set<String>> entry : required.entrySet()) {
+            ArtifactReference artifact = entry.getKey();
+            Set<ArtifactReference> before = new LinkedHashSet<>();
+            for (String name : entry.getValue()) {
+                List<ArtifactReference> candidates = providers.getOrDefault(name, List.of());
+                if (candidates.isEmpty() && !available.contains(name)) {
+                    throw new DeploymentPlanException(describe(artifact) + " depends on '" + name
+                        + "', which is neither deployed nor ready to deploy.");
+                }
+                candidates.stream().filter(candidate -> !candidate.equals(artifact)).forEach(before::add);
+            }
+            dependencies.put(artifact, before);
+            before.forEach(dependency -> dependents.computeIfAbsent(dependency, k -> new HashSet<>()).add(artifact));
+        }
+
+        // Kahn's algorithm, one wave at a time
+        Map<ArtifactReference, Integer> pending = new HashMap<>();
+        dependencies.forEach((artifact, before) -> pending.put(artifact, before.size()));
+        List<ArtifactReference> wave = pending.entrySet().stream()
+            .filter(entry -> entry.getValue() == 0).map(Map.Entry::getKey).sorted(WAVE_ORDER).collect(Collectors.toList());
+        List<List<ArtifactReference>> waves = new ArrayList<>();
+        int sorted = 0;
+        while (!wave.isEmpty()) {
+            waves.add(wave);
+            sorted += wave.size();
+            List<ArtifactReference> next = new ArrayList<>();
+            for (ArtifactReference artifact : wave) {
+                for (ArtifactReference dependent : dependents.getOrDefault(artifact, Set.of())) {
+                    if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                        next.add(dependent);
+                    }
+                }
+            }
+            next.sort(WAVE_ORDER);
+            wave = next;
+        }
+
+        if (sorted < dependencies.size()) {
+            String cycle = pending.entrySet().stream().filter(entry -> entry.getValue() > 0)
+                .map(entry -> describe(entry.getKey())).sorted().collect(Collectors.joining(", "));
+            throw new DeploymentPlanException("Cyclic dependencies between " + cycle + ".");
+        }
+        return waves;
+    }
+
+    private static String describe(ArtifactReference artifact) {
+        return artifact.kind().getLabel() + " '" + artifact.name() + "' (id: " + artifact.id() + ")";
+    }
+}
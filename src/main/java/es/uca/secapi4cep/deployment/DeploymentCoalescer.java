@@ -0,0 +1,176 @@
+package es.uca.secapi4cep.deployment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Collapses the deploy and undeploy operations issued for the same artifact
+ * within a short window into their net effect before publishing them.
+ * Windows are flushed by a single thread in the order they were opened, so
+ * operations on different artifacts keep their relative order. Operations that
+ * fail to publish are retried with a growing delay until they succeed, ahead of
+ * the operations submitted later for the same artifact; the ones published
+ * before the failure are not sent again.
+ */
+@Component
+public class DeploymentCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeploymentCoalescer.class);
+
+    // Delay before the first retry of a failed publish, doubled on every further failure
+    private static final long RETRY_BASE_MILLIS = 500;
+
+    // Where the net effect of every window is sent
+    private final DeploymentSink deploymentSink;
+
+    // Time operations on the same artifact are held back; zero or less publishes immediately
+    private final long windowMillis;
+
+    // Longest delay between two attempts to publish the operations of an artifact
+    private final long maxRetryMillis;
+
+    // Consecutive failed attempts to publish the operations of each artifact
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+
+    // Operations waiting to be published, by artifact
+    private final Map<String, List<DeploymentOperation>> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "deployment-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Constructor to inject the deployment sink, the coalescing window and the longest retry delay
+    public DeploymentCoalescer(DeploymentSink deploymentSink,
+                               @Value("${cep.deploy.coalesce-window-ms:250}") long windowMillis,
+                               @Value("${cep.deploy.retry-max-ms:30000}") long maxRetryMillis) {
+        this.deploymentSink = deploymentSink;
+        this.windowMillis = windowMillis;
+        this.maxRetryMillis = maxRetryMillis;
+    }
+
+    /**
+     * Submits operations on a single artifact for publishing, once its window closes. The operations are
+     * never dropped: if publishing them fails, they are retried until it succeeds.
+     * @param operations The operations, in the order they must be applied
+     */
+    public void submit(DeploymentOperation... operations) {
+        for (DeploymentOperation operation : operations) {
+            String key = key(operation);
+            pending.compute(key, (k, queued) -> {
+                if (queued == null) {
+                    queued = new ArrayList<>();
+                    scheduler.schedule(() -> flush(k), Math.max(0, windowMillis), TimeUnit.MILLISECONDS);
+                }
+                queued.add(operation);
+                return queued;
+            });
+        }
+    }
+
+    /**
+     * Publishes every pending operation without waiting for its window to close.
+     */
+    public void flushAll() {
+        try {
+            scheduler.submit(() -> List.copyOf(pending.keySet()).forEach(this::flush)).get();
+        } catch (Exception e) {
+            logger.error("Failed to flush pending deployment operations.", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushAll();
+        if (!pending.isEmpty()) {
+            logger.error("Deployment operations on {} artifacts could not be published before shutdown.", pending.size());
+        }
+        scheduler.shutdown();
+    }
+
+    // Publishes the net effect of the operations queued for an artifact
+    private void flush(String key) {
+        List<DeploymentOperation> queued = pending.remove(key);
+        if (queued == null) {
+            return;
+        }
+        List<DeploymentOperation> netEffect = netEffect(queued);
+        // One operation at a time, so that a failure only retries the operations not yet handed over
+        int published = 0;
+        try {
+            for (DeploymentOperation operation : netEffect) {
+                deploymentSink.publish(List.of(operation));
+                published++;
+            }
+            failures.remove(key);
+            if (queued.size() > netEffect.size()) {
+                logger.debug("Coalesced {} deployment operations on {} into {}.", queued.size(), key, netEffect.size());
+            }
+        } catch (IOException | TimeoutException e) {
+            int attempt = failures.merge(key, 1, Integer::sum);
+            long delay = Math.min(maxRetryMillis, RETRY_BASE_MILLIS << Math.min(attempt - 1, 16));
+            logger.warn("Failed to publish deployment operations on {}, retrying in {} ms.", key, delay, e);
+            retry(key, netEffect.subList(published, netEffect.size()), delay);
+        }
+    }
+
+    // Puts back operations that failed to publish, ahead of the ones submitted since
+    private void retry(String key, List<DeploymentOperation> failed, long delayMillis) {
+        pending.compute(key, (k, queued) -> {
+            List<DeploymentOperation> retried = new ArrayList<>(failed);
+            if (queued == null) {
+                scheduler.schedule(() -> flush(k), delayMillis, TimeUnit.MILLISECONDS);
+            } else {
+                // Their window is already scheduled
+                retried.addAll(queued);
+            }
+            return retried;
+        });
+    }
+
+    /**
+     * Reduces a sequence of operations on one artifact to the minimal sequence with the same result.
+     * Only the first and last operations matter: the first one tells what the CEP engine had before
+     * the sequence and the last one what it must have after it.
+     * @param operations The operations on a single artifact, in order
+     * @return The operations that must actually be published
+     */
+    static List<DeploymentOperation> netEffect(List<DeploymentOperation> operations) {
+        DeploymentOperation first = operations.get(0);
+        DeploymentOperation last = operations.get(operations.size() - 1);
+        boolean wasDeployed = first.action() == DeploymentOperation.Action.UNDEPLOY;
+        boolean endsDeployed = last.action() == DeploymentOperation.Action.DEPLOY;
+
+        if (wasDeployed && endsDeployed) {
+            // Redeploying exactly what was already there is a no-op
+            return first.sameArtifactAs(last) ? List.of() : List.of(first, last);
+        }
+        if (wasDeployed) {
+            return List.of(first);
+        }
+        if (endsDeployed) {
+            return List.of(last);
+        }
+        // Deployed and undeployed within the window: the CEP engine never needs to see it
+        return List.of();
+    }
+
+    private static String key(DeploymentOperation operation) {
+        return operation.kind() + ":" + operation.artifactId();
+    }
+}
@@ -0,0 +1,198 @@
+package es.uca.secapi4cep.deployment;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.entities.DeploymentLease;
+import es.uca.secapi4cep.entities.OutboxOperation;
+import es.uca.secapi4cep.repositories.DeploymentLeaseRepository;
+import es.uca.secapi4cep.repositories.DeploymentOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Elects one instance of the cluster as deployment leader through a lease row
+ * and makes it the only one publishing to RabbitMQ. Every instance appends its
+ * operations to the shared outbox; the leader publishes them in order and
+ * removes them once published. If the leader stops renewing its lease, another
+ * instance takes over when it expires. On failover the last batch may be
+ * published twice, never skipped. The operations of an artifact are published
+ * in the order of their sequence numbers, all in the same batch.
+ */
+@Component
+@ConditionalOnProperty(name = "cep.cluster.enabled", havingValue = "true")
+public class DeploymentCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeploymentCoordinator.class);
+
+    // Name of the lease row shared by every instance
+    static final String LEASE_NAME = "deployment-publisher";
+
+    private final DeploymentLeaseRepository leaseRepository;
+    private final DeploymentOutboxRepository outboxRepository;
+    private final DeploymentPublisher deploymentPublisher;
+
+    // Time a lease stays valid without being renewed
+    private final long leaseMillis;
+
+    // Time between lease renewals and outbox polls
+    private final long tickMillis;
+
+    // Maximum number of operations published per poll
+    private final int batchSize;
+
+    // Identifies this instance as lease owner
+    private final String instanceId;
+
+    // Local time until which this instance may act as leader
+    private volatile long leaderUntil;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "deployment-coordinator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Constructor to inject the repositories, the publisher and the lease settings
+    public DeploymentCoordinator(DeploymentLeaseRepository leaseRepository, DeploymentOutboxRepository outboxRepository,
+                                 DeploymentPublisher deploymentPublisher,
+                                 @Value("${cep.cluster.lease-ms:3000}") long leaseMillis,
+                                 @Value("${cep.cluster.tick-ms:250}") long tickMillis,
+                                 @Value("${cep.cluster.batch-size:100}") int batchSize) {
+        this.leaseRepository = leaseRepository;
+        this.outboxRepository = outboxRepository;
+        this.deploymentPublisher = deploymentPublisher;
+        this.leaseMillis = leaseMillis;
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.instanceId = hostName() + "-" + UUID.randomUUID();
+    }
+
+    @PostConstruct
+    void start() {
+        if (!leaseRepository.existsById(LEASE_NAME)) {
+            try {
+                leaseRepository.save(new DeploymentLease(LEASE_NAME));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created it first
+            }
+        }
+        scheduler.scheduleWithFixedDelay(this::tick, 0, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(leaseMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (isLeader()) {
+            // Lets a follower take over on its next tick instead of waiting for the lease to expire
+            leaseRepository.release(LEASE_NAME, instanceId);
+            leaderUntil = 0;
+        }
+    }
+
+    /**
+     * Checks whether this instance currently holds the deployment lease.
+     * @return True if this instance is the deployment leader
+     */
+    public boolean isLeader() {
+        return System.currentTimeMillis() < leaderUntil;
+    }
+
+    // Renews or takes the lease and, as leader, publishes the pending operations
+    private void tick() {
+        try {
+            boolean wasLeader = isLeader();
+            long now = System.currentTimeMillis();
+            if (leaseRepository.tryAcquire(LEASE_NAME, instanceId, now, now + leaseMillis) == 1) {
+                // Stop acting as leader a tick before the lease can be taken over
+                leaderUntil = now + leaseMillis - tickMillis;
+            } else {
+                leaderUntil = 0;
+            }
+            if (isLeader() != wasLeader) {
+                logger.info("Instance {} is {} the deployment leader.", instanceId, isLeader() ? "now" : "no longer");
+            }
+            while (isLeader() && drainBatch()) {
+                // Keep publishing while full batches are pending
+            }
+        } catch (Exception e) {
+            logger.error("Deployment coordination failed.", e);
+        }
+    }
+
+    // Publishes the oldest pending operations, returning true if there may be more
+    boolean drainBatch() throws Exception {
+        List<OutboxOperation> batch = outboxRepository.findByOrderByIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return false;
+        }
+        List<OutboxOperation> pending = withWholeArtifacts(batch);
+        deploymentPublisher.publish(inArtifactOrder(pending));
+        outboxRepository.deleteAllById(pending.stream().map(OutboxOperation::getId).toList());
+        return batch.size() == batchSize;
+    }
+
+    // Completes a batch with the other pending operations of its artifacts, in the order of their IDs, so that
+    // an artifact never has operations published by one batch and earlier ones left for the next
+    private List<OutboxOperation> withWholeArtifacts(List<OutboxOperation> batch) {
+        Map<ArtifactKind, Set<Long>> artifacts = batch.stream().collect(Collectors.groupingBy(OutboxOperation::getKind,
+            Collectors.mapping(OutboxOperation::getArtifactId, Collectors.toSet())));
+        List<OutboxOperation> pending = new ArrayList<>();
+        artifacts.forEach((kind, artifactIds) -> pending.addAll(outboxRepository.findByKindAndArtifactIdIn(kind, artifactIds)));
+        pending.sort(Comparator.comparingLong(OutboxOperation::getId));
+        return pending;
+    }
+
+    /**
+     * Orders a batch for publishing. Operations keep the positions they have in the order of their IDs,
+     * but the positions held by the operations of each artifact are filled in the order of their sequence
+     * numbers, since IDs assigned by concurrent transactions need not follow the order they commit in.
+     * @param batch The operations, in the order of their IDs
+     * @return The operations to publish, in order
+     */
+    static List<DeploymentOperation> inArtifactOrder(List<OutboxOperation> batch) {
+        Map<String, Deque<OutboxOperation>> byArtifact = new HashMap<>();
+        batch.stream()
+            .sorted(Comparator.comparingLong(OutboxOperation::getArtifactSequence))
+            .forEach(entry -> byArtifact.computeIfAbsent(key(entry), k -> new ArrayDeque<>()).add(entry));
+        return batch.stream().map(entry -> byArtifact.get(key(entry)).poll().toOperation()).toList();
+    }
+
+    private static String key(OutboxOperation entry) {
+        return entry.getKind() + ":" + entry.getArtifactId();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
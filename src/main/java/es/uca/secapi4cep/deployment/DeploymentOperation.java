@@ -0,0 +1,75 @@
+package es.uca.secapi4cep.deployment;
+
+import java.util.Objects;
+
+/**
+ * A single deploy or undeploy message addressed to the CEP engine.
+ * Undeploy operations also carry the content being removed, so that an
+ * undeploy followed by a deploy of the same content can be recognised.
+ * @param kind The kind of artifact affected
+ * @param artifactId The ID of the artifact affected
+ * @param action Whether the artifact is deployed or undeployed
+ * @param name The name of the artifact in the CEP engine
+ * @param content The EPL content of the artifact
+ */
+public record DeploymentOperation(ArtifactKind kind, Long artifactId, Action action, String name, String content) {
+
+    // Queues the CEP engine listens on
+    public static final String DEPLOY_QUEUE = "deploy";
+    public static final String UNDEPLOY_QUEUE = "undeploy";
+
+    public enum Action {
+        DEPLOY,
+        UNDEPLOY
+    }
+
+    /**
+     * Creates a deploy operation.
+     * @param kind The kind of artifact
+     * @param artifactId The ID of the artifact
+     * @param name The name of the artifact
+     * @param content The content to deploy
+     * @return The deploy operation
+     */
+    public static DeploymentOperation deploy(ArtifactKind kind, Long artifactId, String name, String content) {
+        return new DeploymentOperation(kind, artifactId, Action.DEPLOY, name, content);
+    }
+
+    /**
+     * Creates an undeploy operation.
+     * @param kind The kind of artifact
+     * @param artifactId The ID of the artifact
+     * @param name The name of the artifact to undeploy
+     * @param content The content currently deployed under that name
+     * @return The undeploy operation
+     */
+    public static DeploymentOperation undeploy(ArtifactKind kind, Long artifactId, String name, String content) {
+        return new DeploymentOperation(kind, artifactId, Action.UNDEPLOY, name, content);
+    }
+
+    /**
+     * Returns the queue this operation is published to.
+     * @return The name of the queue
+     */
+    public String queue() {
+        return action == Action.DEPLOY ? DEPLOY_QUEUE : UNDEPLOY_QUEUE;
+    }
+
+    /**
+     * Returns the message body expected by the CEP engine: the content for
+     * deployments and the name for undeployments.
+     * @return The message body
+     */
+    public String body() {
+        return action == Action.DEPLOY ? content : name;
+    }
+
+    /**
+     * Checks whether this operation and another one leave the same artifact in the CEP engine.
+     * @param other The operation to compare with
+     * @return True if both have the same name and the same normalized content
+     */
+    public boolean sameArtifactAs(DeploymentOperation other) {
+        return Objects.equals(name, other.name) && Objects.equals(ContentHash.of(content), ContentHash.of(other.content));
+    }
+}
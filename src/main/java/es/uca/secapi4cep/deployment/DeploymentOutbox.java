@@ -0,0 +1,68 @@
+package es.uca.secapi4cep.deployment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.uca.secapi4cep.entities.OutboxOperation;
+import es.uca.secapi4cep.repositories.DeploymentOutboxRepository;
+
+/**
+ * Shared queue of deployment operations, stored in the database so that every
+ * instance can append to it and only the leader publishes from it. Every
+ * operation gets the next sequence number of its artifact, which orders the
+ * pending operations of an artifact whatever the order their IDs were assigned
+ * in. Numbers restart once the leader removes every pending operation of the
+ * artifact; since it always publishes and removes them together, an operation
+ * never has to be ordered against one numbered before the restart.
+ */
+@Component
+public class DeploymentOutbox implements DeploymentSink {
+
+    private final DeploymentOutboxRepository outboxRepository;
+
+    // Constructor to inject the outbox repository
+    public DeploymentOutbox(DeploymentOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    /**
+     * Appends operations to the outbox in a single transaction, keeping their order.
+     * @param operations The operations to append
+     */
+    @Override
+    @Transactional
+    public void publish(List<DeploymentOperation> operations) {
+        append(operations);
+    }
+
+    /**
+     * Applies a state transition and appends the operations it produces in the same transaction, so that
+     * the new state is never committed without them. The transition must update the artifact conditionally
+     * on its version: of two transitions computing the same sequence number, only one commits.
+     * @param transition Changes the artifact in the database
+     * @param operations The operations produced by the transition, in order
+     */
+    @Transactional
+    public void publishWith(Runnable transition, List<DeploymentOperation> operations) {
+        transition.run();
+        append(operations);
+    }
+
+    private void append(List<DeploymentOperation> operations) {
+        Map<String, Long> sequences = new HashMap<>();
+        List<OutboxOperation> entries = new ArrayList<>();
+        for (DeploymentOperation operation : operations) {
+            long sequence = sequences.compute(operation.kind() + ":" + operation.artifactId(), (key, last) ->
+                (last != null ? last : outboxRepository.findLastSequence(operation.kind(), operation.artifactId())) + 1);
+            entries.add(OutboxOperation.of(operation, sequence));
+        }
+        if (!entries.isEmpty()) {
+            outboxRepository.saveAll(entries);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package es.uca.secapi4cep.deployment;
+
+import java.util.List;
+
+/**
+ * Ordered deployment of a set of artifacts. Every artifact in a wave only
+ * depends on artifacts of earlier waves or already deployed ones, so the
+ * artifacts of a wave can be deployed in parallel.
+ * @param waves The waves of artifacts, in deployment order
+ */
+public record DeploymentPlan(List<List<ArtifactReference>> waves) {
+
+    /**
+     * Returns the number of artifacts in the plan.
+     * @return The number of artifacts
+     */
+    public int size() {
+        return waves.stream().mapToInt(List::size).sum();
+    }
+}
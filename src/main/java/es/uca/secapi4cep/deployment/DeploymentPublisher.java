@@ -0,0 +1,70 @@
+package es.uca.secapi4cep.deployment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+
+/**
+ * Publishes deployment operations to the queues consumed by the CEP engine.
+ */
+@Component
+public class DeploymentPublisher {
+
+    // Properties of compressed deploy messages, so that the CEP engine knows to decompress them
+    private static final AMQP.BasicProperties COMPRESSED = new AMQP.BasicProperties.Builder()
+        .contentEncoding(GzipCompression.ENCODING)
+        .build();
+
+    private final CachingConnectionFactory connectionFactory;
+
+    // Whether deploy messages may be gzip-compressed
+    private final boolean compressionEnabled;
+
+    // Deploy messages shorter than this are always sent uncompressed
+    private final int compressionMinSize;
+
+    // Constructor to inject the RabbitMQ connection factory and the compression settings
+    public DeploymentPublisher(CachingConnectionFactory connectionFactory,
+                               @Value("${cep.deploy.compression.enabled:false}") boolean compressionEnabled,
+                               @Value("${cep.deploy.compression.min-size:1024}") int compressionMinSize) {
+        this.connectionFactory = connectionFactory;
+        this.compressionEnabled = compressionEnabled;
+        this.compressionMinSize = compressionMinSize;
+    }
+
+    /**
+     * Publishes the given operations in order over a single channel.
+     * @param operations The operations to publish
+     * @throws IOException If the messages could not be published
+     * @throws TimeoutException If the channel could not be closed in time
+     */
+    public void publish(List<DeploymentOperation> operations) throws IOException, TimeoutException {
+        if (operations.isEmpty()) {
+            return;
+        }
+        // The shared connection is kept open by the caching factory, so only a channel is opened per batch
+        Connection connection = connectionFactory.createConnection();
+        try (Channel outputChannel = connection.createChannel(false)) {
+            outputChannel.queueDeclare(DeploymentOperation.DEPLOY_QUEUE, false, false, false, null);
+            outputChannel.queueDeclare(DeploymentOperation.UNDEPLOY_QUEUE, false, false, false, null);
+
+            for (DeploymentOperation operation : operations) {
+                byte[] body = operation.body().getBytes(StandardCharsets.UTF_8);
+                if (compressionEnabled && operation.action() == DeploymentOperation.Action.DEPLOY && body.length >= compressionMinSize) {
+                    outputChannel.basicPublish("", operation.queue(), COMPRESSED, GzipCompression.compress(body));
+                } else {
+                    outputChannel.basicPublish("", operation.queue(), null, body);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package es.uca.secapi4cep.deployment;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Destination of the deployment operations produced by the lifecycle engines:
+ * RabbitMQ directly on a single instance, the shared outbox in a cluster, or
+ * the in-memory stand-in of the queues in local development.
+ */
+@FunctionalInterface
+public interface DeploymentSink {
+
+    /**
+     * Hands over operations to be published in order.
+     * @param operations The operations to publish
+     * @throws IOException If the operations could not be handed over
+     * @throws TimeoutException If the destination did not answer in time
+     */
+    void publish(List<DeploymentOperation> operations) throws IOException, TimeoutException;
+}
@@ -0,0 +1,249 @@
+package es.uca.secapi4cep.deployment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Extracts, from EPL content, the event type and stream names a statement
+ * declares and the ones it consumes. The extraction is lexical: it only
+ * needs to be good enough to order deployments, not to validate EPL.
+ */
+public final class EplDependencyExtractor {
+
+    // Keywords that end the stream list of a from clause
+    private static final Set<String> CLAUSE_KEYWORDS = Set.of(
+        "where", "group", "having", "order", "output", "limit", "insert", "select", "on", "match_recognize", "for");
+
+    // Keywords that may appear between pattern atoms
+    private static final Set<String> PATTERN_KEYWORDS = Set.of(
+        "every", "and", "or", "not", "where", "until", "within", "while", "every-distinct", "sec", "seconds", "min", "minutes", "msec");
+
+    // Kinds of named objects a create statement can declare
+    private static final Set<String> CREATE_TARGETS = Set.of("schema", "window", "table", "variable");
+
+    private EplDependencyExtractor() {
+    }
+
+    /**
+     * Returns the names declared by the given content, through create or insert into clauses.
+     * @param content The EPL content
+     * @return The declared names, in order of appearance
+     */
+    public static Set<String> provides(String content) {
+        List<String> tokens = tokenize(content);
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = lower(tokens.get(i));
+            if (token.equals("create")) {
+                // create [variant|objectarray|...] schema|window|table|variable [type] name
+                int j = i + 1;
+                while (j < tokens.size() && !CREATE_TARGETS.contains(lower(tokens.get(j))) && isIdentifier(tokens.get(j))) {
+                    j++;
+                }
+                if (j < tokens.size() && CREATE_TARGETS.contains(lower(tokens.get(j)))) {
+                    int nameIndex = lower(tokens.get(j)).equals("variable") ? j + 2 : j + 1;
+                    if (nameIndex < tokens.size() && isIdentifier(tokens.get(nameIndex))) {
+                        names.add(tokens.get(nameIndex));
+                    }
+                }
+            } else if (token.equals("insert") && i + 2 < tokens.size() && lower(tokens.get(i + 1)).equals("into")
+                    && isIdentifier(tokens.get(i + 2))) {
+                names.add(tokens.get(i + 2));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the event type and stream names consumed by the given content, through from clauses,
+     * patterns and on-triggers.
+     * @param content The EPL content
+     * @return The consumed names, in order of appearance
+     */
+    public static Set<String> requires(String content) {
+        List<String> tokens = tokenize(content);
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = lower(tokens.get(i));
+            if (token.equals("from")) {
+                if (i + 1 < tokens.size() && lower(tokens.get(i + 1)).equals("pattern")) {
+                    i = readPattern(tokens, i + 2, names);
+                } else {
+                    i = readStreams(tokens, i + 1, names);
+                }
+            } else if (token.equals("on") && i + 1 < tokens.size() && isStatementStart(tokens, i)
+                    && isIdentifier(tokens.get(i + 1))) {
+                names.add(tokens.get(i + 1));
+            }
+        }
+        return names;
+    }
+
+    // Reads the comma or join separated streams of a from clause and returns the last index consumed
+    private static int readStreams(List<String> tokens, int start, Set<String> names) {
+        int depth = 0;
+        boolean expectStream = true;
+        int i = start;
+        for (; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            String lower = lower(token);
+            if (token.equals("(") || token.equals("[")) {
+                depth++;
+            } else if (token.equals(")") || token.equals("]")) {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+            } else if (depth == 0) {
+                if (token.equals(";")) {
+                    return i;
+                }
+                if (token.equals(",") || lower.equals("join")) {
+                    expectStream = true;
+                } else if (expectStream && lower.equals("pattern")) {
+                    i = readPattern(tokens, i + 1, names);
+                    expectStream = false;
+                } else if (expectStream && isIdentifier(token) && !isJoinModifier(lower)) {
+                    // Skip method and script invocations such as method:Class.lookup(...)
+                    if (!(i + 1 < tokens.size() && tokens.get(i + 1).equals(":"))) {
+                        names.add(token);
+                    }
+                    expectStream = false;
+                } else if (!expectStream && CLAUSE_KEYWORDS.contains(lower) && !lower.equals("on")) {
+                    return i - 1;
+                }
+            }
+        }
+        return i;
+    }
+
+    // Reads a bracketed pattern expression and returns the index of its closing bracket
+    private static int readPattern(List<String> tokens, int start, Set<String> names) {
+        if (start >= tokens.size() || !tokens.get(start).equals("[")) {
+            return start;
+        }
+        // Parentheses right after a name hold a filter or observer parameters and are skipped;
+        // any other parentheses only group pattern expressions
+        Deque<Boolean> parentheses = new ArrayDeque<>();
+        int skipped = 0;
+        for (int i = start + 1; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            String previous = tokens.get(i - 1);
+            if (token.equals("(") || (token.equals("[") && skipped > 0)) {
+                boolean skip = skipped > 0 || (isIdentifier(previous) && !PATTERN_KEYWORDS.contains(lower(previous)));
+                parentheses.push(skip);
+                skipped += skip ? 1 : 0;
+            } else if (token.equals(")") || (token.equals("]") && skipped > 0)) {
+                if (!parentheses.isEmpty() && parentheses.pop()) {
+                    skipped--;
+                }
+            } else if (token.equals("]")) {
+                return i;
+            } else if (skipped == 0 && isIdentifier(token) && !PATTERN_KEYWORDS.contains(lower(token))) {
+                String next = i + 1 < tokens.size() ? tokens.get(i + 1) : "";
+                // Tags (a=Type), observers and guards (timer:interval) and property access are not types
+                if (!next.equals("=") && !next.equals(":") && !next.equals(".") && !previous.equals(":") && !previous.equals(".")) {
+                    names.add(token);
+                }
+            }
+        }
+        return tokens.size();
+    }
+
+    // Whether the token at the given index begins a statement, ignoring annotations
+    private static boolean isStatementStart(List<String> tokens, int index) {
+        int depth = 0;
+        for (int i = index - 1; i >= 0; i--) {
+            String token = tokens.get(i);
+            if (token.equals(")")) {
+                depth++;
+            } else if (token.equals("(")) {
+                depth--;
+            } else if (depth == 0 && !token.startsWith("@")) {
+                return token.equals(";");
+            }
+        }
+        return true;
+    }
+
+    private static boolean isJoinModifier(String token) {
+        return token.equals("inner") || token.equals("left") || token.equals("right") || token.equals("full")
+            || token.equals("outer") || token.equals("unidirectional") || token.equals("retain-union")
+            || token.equals("retain-intersection");
+    }
+
+    private static boolean isIdentifier(String token) {
+        char first = token.charAt(0);
+        return Character.isLetter(first) || first == '_' || first == '$';
+    }
+
+    private static String lower(String token) {
+        return token.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits EPL content into identifiers, numbers, annotations and symbols,
+     * dropping comments and string literals.
+     * @param content The EPL content
+     * @return The tokens of the content
+     */
+    public static List<String> tokenize(String content) {
+        List<String> tokens = new ArrayList<>();
+        if (content == null) {
+            return tokens;
+        }
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            char c = content.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '/' && i + 1 < length && content.charAt(i + 1) == '/') {
+                while (i < length && content.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < length && content.charAt(i + 1) == '*') {
+                int end = content.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '\'' || c == '"') {
+                i++;
+                while (i < length && content.charAt(i) != c) {
+                    i += content.charAt(i) == '\\' ? 2 : 1;
+                }
+                i++;
+            } else if (c == '`') {
+                int end = content.indexOf('`', i + 1);
+                end = end < 0 ? length : end;
+                if (end > i + 1) {
+                    tokens.add(content.substring(i + 1, end));
+                }
+                i = end + 1;
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '@') {
+                int start = i++;
+                while (i < length && (Character.isLetterOrDigit(content.charAt(i)) || content.charAt(i) == '_'
+                        || content.charAt(i) == '$' || (content.charAt(i) == '-' && isHyphenatedKeyword(content, start, i)))) {
+                    i++;
+                }
+                tokens.add(content.substring(start, i));
+            } else if (c == '-' && i + 1 < length && content.charAt(i + 1) == '>') {
+                tokens.add("->");
+                i += 2;
+            } else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    // Keeps keywords such as every-distinct or retain-union in a single token
+    private static boolean isHyphenatedKeyword(String content, int start, int hyphen) {
+        String word = content.substring(start, hyphen).toLowerCase(Locale.ROOT);
+        return word.equals("every") || word.equals("retain");
+    }
+}
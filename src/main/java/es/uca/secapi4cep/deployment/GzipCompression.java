@@ -0,0 +1,57 @@
+package es.uca.secapi4cep.deployment;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip helpers shared by the storage and the wire format of EPL contents.
+ */
+public final class GzipCompression {
+
+    // Content encoding advertised for compressed messages
+    public static final String ENCODING = "gzip";
+
+    private GzipCompression() {
+    }
+
+    /**
+     * Compresses the given bytes.
+     * @param data The bytes to compress
+     * @return The gzip-compressed bytes
+     */
+    public static byte[] compress(byte[] data) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(32, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Decompresses the given gzip-compressed bytes.
+     * @param data The compressed bytes
+     * @return The original bytes
+     */
+    public static byte[] decompress(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks whether the given bytes start with the gzip magic number. UTF-8 text never does.
+     * @param data The bytes to check
+     * @return True if the bytes are gzip-compressed
+     */
+    public static boolean isCompressed(byte[] data) {
+        return data.length >= 2 && (data[0] & 0xff) == 0x1f && (data[1] & 0xff) == 0x8b;
+    }
+}
@@ -0,0 +1,66 @@
+package es.uca.secapi4cep.deployment;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process stand-in of the deploy and undeploy queues, for running the
+ * application without RabbitMQ. Enabled with cep.deploy.sink=memory, it
+ * receives the operations instead of the broker and keeps the latest messages,
+ * in the order the CEP engine would have received them, so that the lifecycle
+ * transitions and the publishing path can be exercised on a developer machine.
+ */
+@Component
+@ConditionalOnProperty(name = "cep.deploy.sink", havingValue = "memory")
+public class InMemoryDeploymentBroker implements DeploymentSink {
+
+    // Maximum number of messages kept, the oldest are discarded first
+    private final int capacity;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Latest messages, oldest first, guarded by this
+    private final Deque<RecordedMessage> messages = new ArrayDeque<>();
+
+    // Constructor to inject the number of messages kept
+    public InMemoryDeploymentBroker(@Value("${cep.deploy.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Receives the given operations in order, as a single channel of the broker would.
+     * @param operations The operations to publish
+     */
+    @Override
+    public synchronized void publish(List<DeploymentOperation> operations) {
+        long now = System.currentTimeMillis();
+        for (DeploymentOperation operation : operations) {
+            messages.addLast(new RecordedMessage(sequence.incrementAndGet(), operation.queue(), operation.kind(),
+                operation.artifactId(), operation.body(), now));
+            if (messages.size() > capacity) {
+                messages.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * Returns the latest messages received.
+     * @return The messages, oldest first
+     */
+    public synchronized List<RecordedMessage> messages() {
+        return List.copyOf(messages);
+    }
+
+    /**
+     * Discards every message received so far.
+     */
+    public synchronized void clear() {
+        messages.clear();
+    }
+}
@@ -0,0 +1,13 @@
+package es.uca.secapi4cep.deployment;
+
+/**
+ * Snapshot of the time spent waiting for artifact locks since startup.
+ * @param acquisitions Number of times a lock was acquired
+ * @param contended Number of acquisitions that had to wait for another operation
+ * @param totalWaitMicros Total time spent waiting, in microseconds
+ * @param averageWaitMicros Average wait of the contended acquisitions, in microseconds
+ * @param maxWaitMicros Longest single wait, in microseconds
+ */
+public record LockWaitStats(long acquisitions, long contended, long totalWaitMicros, long averageWaitMicros,
+                            long maxWaitMicros) {
+}
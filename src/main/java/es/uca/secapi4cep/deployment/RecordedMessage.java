@@ -0,0 +1,13 @@
+package es.uca.secapi4cep.deployment;
+
+/**
+ * A message received by the in-memory stand-in of the CEP engine queues.
+ * @param sequence Position of the message among every message received, from 1
+ * @param queue The queue the message was published to
+ * @param kind The kind of artifact affected
+ * @param artifactId The ID of the artifact affected
+ * @param body The message body, as the CEP engine would receive it
+ * @param publishedAt Time the message was received, in epoch milliseconds
+ */
+public record RecordedMessage(long sequence, String queue, ArtifactKind kind, Long artifactId, String body, long publishedAt) {
+}
@@ -0,0 +1,17 @@
+package es.uca.secapi4cep.dtos;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import es.uca.secapi4cep.deployment.ArtifactReference;
+
+/**
+ * Response with a deployment plan, or with the reason it could not be computed or executed.
+ * @param message The message, omitted when null
+ * @param status The HTTP status code
+ * @param waves The waves of the plan, omitted when null
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DeploymentPlanResponse(String message, int status, List<List<ArtifactReference>> waves) {
+}
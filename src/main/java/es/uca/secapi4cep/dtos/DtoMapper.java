@@ -0,0 +1,39 @@
+package es.uca.secapi4cep.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import es.uca.secapi4cep.entities.Role;
+import es.uca.secapi4cep.entities.User;
+
+/**
+ * Maps entities to the DTOs returned by the API.
+ */
+public final class DtoMapper {
+
+    private DtoMapper() {
+    }
+
+    /**
+     * Maps a user to its DTO.
+     * @param user The user
+     * @return The DTO of the user
+     */
+    public static UserDTO toUserDTO(User user) {
+        return new UserDTO(user.getId(), user.getUsername(), user.getEmail(),
+            user.getRoles().stream().map(Role::name).toList());
+    }
+
+    /**
+     * Maps every user to its DTO, preserving their order.
+     * @param users The users
+     * @return The DTOs of the users
+     */
+    public static List<UserDTO> toUserDTOs(Iterable<User> users) {
+        List<UserDTO> userDTOs = new ArrayList<>();
+        for (User user : users) {
+            userDTOs.add(toUserDTO(user));
+        }
+        return userDTOs;
+    }
+}
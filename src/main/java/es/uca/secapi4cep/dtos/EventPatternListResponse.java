@@ -0,0 +1,13 @@
+package es.uca.secapi4cep.dtos;
+
+import java.util.List;
+
+import es.uca.secapi4cep.entities.EventPattern;
+
+/**
+ * Response with a list of event patterns.
+ * @param status The HTTP status code
+ * @param eventPatterns The event patterns
+ */
+public record EventPatternListResponse(int status, List<EventPattern> eventPatterns) {
+}
@@ -0,0 +1,15 @@
+package es.uca.secapi4cep.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import es.uca.secapi4cep.entities.EventPattern;
+
+/**
+ * Response with a single event pattern, or the reason why there is none.
+ * @param message The message, omitted when null
+ * @param status The HTTP status code, omitted when null
+ * @param eventPattern The event pattern, omitted when null
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EventPatternResponse(String message, Integer status, EventPattern eventPattern) {
+}
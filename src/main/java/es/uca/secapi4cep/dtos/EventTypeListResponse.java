@@ -0,0 +1,13 @@
+package es.uca.secapi4cep.dtos;
+
+import java.util.List;
+
+import es.uca.secapi4cep.entities.EventType;
+
+/**
+ * Response with a list of event types.
+ * @param status The HTTP status code
+ * @param eventTypes The event types
+ */
+public record EventTypeListResponse(int status, List<EventType> eventTypes) {
+}
@@ -0,0 +1,33 @@
+package es.uca.secapi4cep.dtos;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response with a message and, optionally, the HTTP status as a string.
+ * @param message The message
+ * @param status The HTTP status code, omitted when null
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MessageResponse(String message, String status) {
+
+    /**
+     * Creates a response with only a message.
+     * @param message The message
+     * @return The response
+     */
+    public static MessageResponse of(String message) {
+        return new MessageResponse(message, null);
+    }
+
+    /**
+     * Creates a response with a message and the code of the given status.
+     * @param message The message
+     * @param status The HTTP status
+     * @return The response
+     */
+    public static MessageResponse of(String message, HttpStatus status) {
+        return new MessageResponse(message, String.valueOf(status.value()));
+    }
+}
@@ -5,45 +5,14 @@ import java.util.List;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.media.Schema;
 
-
+/**
+ * User as returned by the API, without its password.
+ * @param id The ID of the user
+ * @param username The username
+ * @param email The email
+ * @param roles The names of the roles of the user
+ */
 @Schema(hidden = true)
 @Hidden
-public class UserDTO {
-    private Long id;
-    private String username;
-    private String email;
-    private List<String> roles; 
-
-    public Long getId() {
-        return id;
-    }
-
-    public void setId(Long id) {
-        this.id = id;
-    }
-
-    public String getUsername() {
-        return username;
-    }
-
-    public void setUsername(String username) {
-        this.username = username;
-    }
-
-    public String getEmail() {
-        return email;
-    }
-
-    public void setEmail(String email) {
-        this.email = email;
-    }
-
-    public List<String> getRoles() {
-        return roles;
-    }
-
-    public void setRoles(List<String> roles) {
-        this.roles = roles;
-    }
+public record UserDTO(Long id, String username, String email, List<String> roles) {
 }
-
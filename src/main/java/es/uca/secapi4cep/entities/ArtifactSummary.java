@@ -0,0 +1,18 @@
+package es.uca.secapi4cep.entities;
+
+/**
+ * Projection of an event type or pattern without its content, for listings
+ * that do not need to load the content column.
+ */
+public interface ArtifactSummary {
+
+    Long getId();
+
+    String getName();
+
+    String getContentHash();
+
+    boolean isReadyToDeploy();
+
+    boolean isDeployed();
+}
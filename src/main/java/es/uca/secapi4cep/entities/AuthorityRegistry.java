@@ -0,0 +1,51 @@
+package es.uca.secapi4cep.entities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Canonical authority lists for every combination of roles. The lists are
+ * immutable and built once, so authenticating a user allocates no authorities.
+ */
+public final class AuthorityRegistry {
+
+    private static final Role[] ROLES = Role.values();
+
+    // Authorities of every set of roles, indexed by the bit mask of their ordinals
+    private static final List<List<GrantedAuthority>> AUTHORITIES;
+
+    static {
+        List<List<GrantedAuthority>> authorities = new ArrayList<>(1 << ROLES.length);
+        for (int mask = 0; mask < 1 << ROLES.length; mask++) {
+            List<GrantedAuthority> granted = new ArrayList<>();
+            for (Role role : ROLES) {
+                if ((mask & (1 << role.ordinal())) != 0) {
+                    granted.add(role.getAuthority());
+                }
+            }
+            authorities.add(List.copyOf(granted));
+        }
+        AUTHORITIES = List.copyOf(authorities);
+    }
+
+    private AuthorityRegistry() {
+    }
+
+    /**
+     * Returns the shared, immutable list of authorities granted by a set of roles, in role order.
+     * @param roles The roles, possibly null or with duplicates
+     * @return The authorities of the roles
+     */
+    public static List<GrantedAuthority> authoritiesOf(Collection<Role> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (Role role : roles) {
+                mask |= 1 << role.ordinal();
+            }
+        }
+        return AUTHORITIES.get(mask);
+    }
+}
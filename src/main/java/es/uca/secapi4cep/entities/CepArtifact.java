@@ -0,0 +1,29 @@
+package es.uca.secapi4cep.entities;
+
+/**
+ * Common view of the artifacts that can be deployed in the CEP engine.
+ */
+public interface CepArtifact {
+
+    Long getId();
+
+    String getName();
+
+    void setName(String name);
+
+    String getContent();
+
+    void setContent(String content);
+
+    String getContentHash();
+
+    boolean isReadyToDeploy();
+
+    void setReadyToDeploy(boolean readyToDeploy);
+
+    boolean isDeployed();
+
+    void setDeployed(boolean deployed);
+
+    long getVersion();
+}
@@ -0,0 +1,36 @@
+package es.uca.secapi4cep.entities;
+
+import java.nio.charset.StandardCharsets;
+
+import es.uca.secapi4cep.deployment.GzipCompression;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores EPL contents as gzip-compressed bytes. Short contents, which would
+ * not get any smaller, and rows written before compression was introduced
+ * are kept as plain UTF-8 and recognised by the missing gzip header.
+ */
+@Converter
+public class CompressedContentConverter implements AttributeConverter<String, byte[]> {
+
+    // Contents shorter than this are stored uncompressed
+    private static final int MIN_COMPRESSED_LENGTH = 512;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String content) {
+        if (content == null) {
+            return null;
+        }
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        return data.length < MIN_COMPRESSED_LENGTH ? data : GzipCompression.compress(data);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return new String(GzipCompression.isCompressed(data) ? GzipCompression.decompress(data) : data, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,37 @@
+package es.uca.secapi4cep.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Lease that designates the instance allowed to publish deployment messages.
+ * The owner renews it periodically; once it expires any instance may take it.
+ */
+@Entity
+@Table(name = "TABLE_DEPLOYMENT_LEASE")
+@Getter @Setter
+@NoArgsConstructor
+public class DeploymentLease {
+
+    @Id
+    @Column(name = "name", nullable = false, length = 64)
+    private String name;
+
+    @Column(name = "owner", nullable = false, length = 128)
+    private String owner;
+
+    // Epoch milliseconds after which the lease can be taken over
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    public DeploymentLease(String name) {
+        this.name = name;
+        this.owner = "";
+        this.expiresAt = 0;
+    }
+}
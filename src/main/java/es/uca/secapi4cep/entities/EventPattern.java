@@ -1,5 +1,6 @@
 package es.uca.secapi4cep.entities;
 
+import es.uca.secapi4cep.deployment.ContentHash;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.Schema.AccessMode;
 import jakarta.persistence.*;
@@ -7,9 +8,15 @@ import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "TABLE_EVENT_PATTERN")
+@Table(name = "TABLE_EVENT_PATTERN",
+    uniqueConstraints = @UniqueConstraint(name = "uk_event_pattern_name", columnNames = "name"),
+    indexes = {
+        // Lookups of ready and deployed artifacts filter on both flags, or on is_deployed alone
+        @Index(name = "idx_event_pattern_state", columnList = "is_deployed, is_ready_to_deploy"),
+        @Index(name = "idx_event_pattern_content_hash", columnList = "content_hash")
+    })
 @Getter @Setter
-public class EventPattern {
+public class EventPattern implements CepArtifact {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,12 +24,19 @@ public class EventPattern {
     @Schema(accessMode = AccessMode.READ_ONLY)
     private Long id;
 
-    @Column(name = "name", nullable = false, unique = true)
+    @Column(name = "name", nullable = false)
     private String name;
     
-    @Column(name = "content", nullable = false, length = 2044)
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = CompressedContentConverter.class)
+    @Column(name = "content_data", nullable = false, columnDefinition = "LONGBLOB")
     private String content;
 
+    @Column(name = "content_hash", length = 64)
+    @Schema(accessMode = AccessMode.READ_ONLY)
+    private String contentHash;
+
     @Column(name = "is_ready_to_deploy", nullable = false)
     @Schema(defaultValue = "false")
     private boolean readyToDeploy;
@@ -30,4 +44,16 @@ public class EventPattern {
     @Column(name = "is_deployed", nullable = false)
     @Schema(defaultValue = "false")
     private boolean deployed;
+
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    @Schema(accessMode = AccessMode.READ_ONLY)
+    private long version;
+
+    // Keeps the hash in line with the content on every insert and update
+    @PrePersist
+    @PreUpdate
+    void updateContentHash() {
+        contentHash = ContentHash.of(content);
+    }
 }
@@ -0,0 +1,77 @@
+package es.uca.secapi4cep.entities;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import es.uca.secapi4cep.deployment.ArtifactKind;
+import es.uca.secapi4cep.deployment.DeploymentOperation;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Deployment operation waiting in the shared outbox to be published by the
+ * leader instance. Operations are published in the order of their IDs, except
+ * that the operations of each artifact follow their sequence numbers.
+ */
+@Entity
+@Table(name = "TABLE_DEPLOYMENT_OUTBOX")
+@Getter @Setter
+@NoArgsConstructor
+public class OutboxOperation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, unique = true)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "kind", nullable = false, length = 16)
+    private ArtifactKind kind;
+
+    @Column(name = "artifact_id", nullable = false)
+    private Long artifactId;
+
+    @Column(name = "artifact_sequence", nullable = false)
+    private long artifactSequence;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "action", nullable = false, length = 16)
+    private DeploymentOperation.Action action;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Lob
+    @Convert(converter = CompressedContentConverter.class)
+    @Column(name = "content", nullable = false, columnDefinition = "LONGBLOB")
+    private String content;
+
+    /**
+     * Creates the outbox entry of an operation.
+     * @param operation The operation to publish
+     * @param artifactSequence The position of the operation among those of its artifact
+     * @return The outbox entry, not saved yet
+     */
+    public static OutboxOperation of(DeploymentOperation operation, long artifactSequence) {
+        OutboxOperation entry = new OutboxOperation();
+        entry.setKind(operation.kind());
+        entry.setArtifactId(operation.artifactId());
+        entry.setArtifactSequence(artifactSequence);
+        entry.setAction(operation.action());
+        entry.setName(operation.name());
+        entry.setContent(operation.content());
+        return entry;
+    }
+
+    /**
+     * Returns the operation stored in this entry.
+     * @return The deployment operation
+     */
+    public DeploymentOperation toOperation() {
+        return new DeploymentOperation(kind, artifactId, action, name, content);
+    }
+}
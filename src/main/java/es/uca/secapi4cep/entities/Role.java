@@ -0,0 +1,27 @@
+package es.uca.secapi4cep.entities;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Roles a user can be granted. Every role carries a single authority
+ * instance, shared by all the users that have it.
+ */
+public enum Role {
+    USER,
+    ADMIN;
+
+    private final GrantedAuthority authority;
+
+    Role() {
+        this.authority = new SimpleGrantedAuthority(name());
+    }
+
+    /**
+     * Returns the authority granted by this role.
+     * @return The shared GrantedAuthority of the role
+     */
+    public GrantedAuthority getAuthority() {
+        return authority;
+    }
+}
@@ -1,42 +1,70 @@
 package es.uca.secapi4cep.entities;
 
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.Schema.AccessMode;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
 
-@Table(name= "TABLE_USER")
+@Table(name= "TABLE_USER", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_user_username", columnNames = "username"),
+    @UniqueConstraint(name = "uk_user_email", columnNames = "email")
+})
 @Entity
+// Loads a user together with their roles in a single query
+@NamedEntityGraph(name = User.WITH_ROLES, attributeNodes = @NamedAttributeNode("roles"))
 @Getter
 @Setter
 public class User {
+
+    public static final String WITH_ROLES = "User.roles";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false, unique = true)
     @Schema(accessMode = AccessMode.READ_ONLY)
     private Long id;
 
     @NotBlank(message = "Username is required")
-    @Column(nullable = false, length = 50, unique = true)
+    @Column(nullable = false, length = 50)
     private String username;
     
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
-    @Column(nullable = false, length = 50, unique = true)
+    @Column(nullable = false, length = 50)
     private String email;
     
     @NotBlank(message = "Password is required")
     @Column(nullable = false, length = 64)
     private String password;
 	
-	private List<String> roles;
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "TABLE_USER_ROLE", joinColumns = @JoinColumn(name = "user_id"),
+        foreignKey = @ForeignKey(name = "fk_user_role_user"))
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "role", nullable = false, length = 32)
+    private Set<Role> roles = new HashSet<>();
 }
@@ -2,24 +2,24 @@ package es.uca.secapi4cep.entities;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-public class UserInfo implements UserDetails {
+/**
+ * Immutable authentication view of a user. Its authority list is shared with
+ * every other user having the same roles, so it is cheap to build and safe to cache.
+ */
+public final class UserInfo implements UserDetails {
 
-	private String name;
-	private String password;
-	private List<GrantedAuthority> authorities;
+	private final String name;
+	private final String password;
+	private final List<GrantedAuthority> authorities;
 
 	public UserInfo(User user) {
 		name = user.getUsername();
 		password = user.getPassword();
-		authorities = user.getRoles()
-				.stream().map(SimpleGrantedAuthority::new)
-				.collect(Collectors.toList());
+		authorities = AuthorityRegistry.authoritiesOf(user.getRoles());
 	}
 
 	@Override
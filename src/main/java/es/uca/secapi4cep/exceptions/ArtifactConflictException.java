@@ -0,0 +1,13 @@
+package es.uca.secapi4cep.exceptions;
+
+public class ArtifactConflictException extends RuntimeException {
+
+	final String resourceName;
+	final long id;
+
+	public ArtifactConflictException(String resourceName, long id) {
+		super(String.format("%s with id %s was modified concurrently. Retrieve it and try again.", resourceName, id));
+		this.resourceName = resourceName;
+		this.id = id;
+	}
+}
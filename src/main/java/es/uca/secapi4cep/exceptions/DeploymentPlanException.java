@@ -0,0 +1,8 @@
+package es.uca.secapi4cep.exceptions;
+
+public class DeploymentPlanException extends RuntimeException {
+
+	public DeploymentPlanException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,17 @@
+package es.uca.secapi4cep.exceptions;
+
+import java.util.List;
+
+public class InvalidContentException extends RuntimeException {
+
+	final List<String> errors;
+
+	public InvalidContentException(List<String> errors) {
+		super("Invalid content: " + String.join(" ", errors));
+		this.errors = errors;
+	}
+
+	public List<String> getErrors() {
+		return errors;
+	}
+}
@@ -0,0 +1,8 @@
+package es.uca.secapi4cep.exceptions;
+
+public class ShuttingDownException extends RuntimeException {
+
+	public ShuttingDownException() {
+		super("The server is shutting down and accepts no new lifecycle operations. Try again on another instance.");
+	}
+}
@@ -0,0 +1,104 @@
+package es.uca.secapi4cep.http;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import es.uca.secapi4cep.entities.CepArtifact;
+
+/**
+ * Writes lists of event types or patterns in a compact binary format, for clients that pull the
+ * whole catalogue and ask for it with the Accept header. JSON stays the default.
+ *
+ * The body is the magic bytes "CEPA", a format version byte and the number of artifacts, followed
+ * by each artifact: its ID, its version, a byte with the 'ready to deploy' (1) and 'deployed' (2)
+ * flags, and its name, content hash and content. Numbers are big-endian; strings are an int length
+ * in bytes, -1 for null, followed by their UTF-8 bytes.
+ */
+public class BinaryArtifactMessageConverter extends AbstractGenericHttpMessageConverter<List<? extends CepArtifact>> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-cep-artifacts";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final byte[] MAGIC = { 'C', 'E', 'P', 'A' };
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int READY_TO_DEPLOY = 1;
+    private static final int DEPLOYED = 2;
+
+    public BinaryArtifactMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    // Only lists declared with an artifact element type are written, so other lists still negotiate JSON
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!(type instanceof ParameterizedType parameterized) || parameterized.getRawType() != List.class) {
+            return false;
+        }
+        Type element = parameterized.getActualTypeArguments()[0];
+        return element instanceof Class<?> elementClass && CepArtifact.class.isAssignableFrom(elementClass)
+            && canWrite(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(List<? extends CepArtifact> artifacts, Type type, HttpOutputMessage outputMessage) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputMessage.getBody());
+        out.write(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeInt(artifacts.size());
+        for (CepArtifact artifact : artifacts) {
+            out.writeLong(artifact.getId());
+            out.writeLong(artifact.getVersion());
+            out.writeByte((artifact.isReadyToDeploy() ? READY_TO_DEPLOY : 0) | (artifact.isDeployed() ? DEPLOYED : 0));
+            writeString(out, artifact.getName());
+            writeString(out, artifact.getContentHash());
+            writeString(out, artifact.getContent());
+        }
+        out.flush();
+    }
+
+    @Override
+    protected List<? extends CepArtifact> readInternal(Class<? extends List<? extends CepArtifact>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Artifacts cannot be read in " + MEDIA_TYPE_VALUE + ".", inputMessage);
+    }
+
+    @Override
+    public List<? extends CepArtifact> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Artifacts cannot be read in " + MEDIA_TYPE_VALUE + ".", inputMessage);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
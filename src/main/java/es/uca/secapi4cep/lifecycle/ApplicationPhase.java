@@ -0,0 +1,23 @@
+package es.uca.secapi4cep.lifecycle;
+
+/**
+ * Phases of the lifecycle of the application, as reported by the health endpoints.
+ */
+public enum ApplicationPhase {
+    // The context is starting, no traffic should be routed yet
+    STARTING,
+    // Serving every request
+    RUNNING,
+    // Refusing new lifecycle operations while the ones in flight finish
+    DRAINING,
+    // Drained, waiting for the remaining requests and the context to close
+    STOPPED;
+
+    /**
+     * Whether the application should receive traffic in this phase.
+     * @return True if the application is ready
+     */
+    public boolean isReady() {
+        return this == RUNNING;
+    }
+}
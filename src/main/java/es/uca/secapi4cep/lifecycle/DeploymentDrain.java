@@ -0,0 +1,119 @@
+package es.uca.secapi4cep.lifecycle;
+
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.deployment.DeploymentCoalescer;
+import es.uca.secapi4cep.exceptions.ShuttingDownException;
+
+/**
+ * Drains the lifecycle operations on shutdown, so that no artifact is left
+ * changed in the database without its message reaching the CEP engine. It
+ * stops before the web server: new lifecycle operations are refused, the ones
+ * in flight get until the deadline to finish, and the deploy and undeploy
+ * messages still held by the coalescer are published. Only then does the web
+ * server finish the remaining requests and the RabbitMQ connections close with
+ * the context.
+ */
+@Component
+public class DeploymentDrain implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeploymentDrain.class);
+
+    private final DeploymentCoalescer deploymentCoalescer;
+
+    // Time the operations in flight are given to finish
+    private final long drainTimeoutMillis;
+
+    private volatile ApplicationPhase phase = ApplicationPhase.STARTING;
+
+    // Lifecycle operations in flight, guarded by this
+    private int inFlight;
+
+    // Constructor to inject the coalescer and the drain deadline
+    public DeploymentDrain(DeploymentCoalescer deploymentCoalescer,
+                           @Value("${cep.shutdown.drain-timeout-ms:20000}") long drainTimeoutMillis) {
+        this.deploymentCoalescer = deploymentCoalescer;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+    }
+
+    /**
+     * Runs a lifecycle operation, unless the application is draining.
+     * @param <R> The type of the result
+     * @param operation The operation
+     * @return The result of the operation
+     * @throws ShuttingDownException If the application no longer accepts lifecycle operations
+     */
+    public <R> R run(Supplier<R> operation) {
+        synchronized (this) {
+            if (phase == ApplicationPhase.DRAINING || phase == ApplicationPhase.STOPPED) {
+                throw new ShuttingDownException();
+            }
+            inFlight++;
+        }
+        try {
+            return operation.get();
+        } finally {
+            synchronized (this) {
+                if (--inFlight == 0) {
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the current phase of the application.
+     * @return The phase
+     */
+    public ApplicationPhase getApplicationPhase() {
+        return phase;
+    }
+
+    @Override
+    public void start() {
+        phase = ApplicationPhase.RUNNING;
+    }
+
+    @Override
+    public void stop() {
+        long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+        int remaining;
+        synchronized (this) {
+            phase = ApplicationPhase.DRAINING;
+            logger.info("Draining {} lifecycle operations in flight.", inFlight);
+            long wait;
+            while (inFlight > 0 && (wait = deadline - System.currentTimeMillis()) > 0) {
+                try {
+                    wait(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            remaining = inFlight;
+        }
+        if (remaining > 0) {
+            logger.warn("{} lifecycle operations were still in flight when the drain deadline passed.", remaining);
+        }
+        deploymentCoalescer.flushAll();
+        phase = ApplicationPhase.STOPPED;
+        logger.info("Lifecycle operations drained.");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return phase == ApplicationPhase.RUNNING;
+    }
+
+    // Stops before the graceful shutdown of the web server, which uses lower phases
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE;
+    }
+}
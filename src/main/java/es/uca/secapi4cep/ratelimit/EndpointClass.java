@@ -0,0 +1,37 @@
+package es.uca.secapi4cep.ratelimit;
+
+import java.util.List;
+
+/**
+ * Classes of endpoints that are rate limited separately, by how expensive they are for the server.
+ */
+public enum EndpointClass {
+    // Password checks with BCrypt, and user creation
+    AUTHENTICATION,
+    // Messages sent to the CEP engine
+    DEPLOYMENT,
+    // Everything else
+    DEFAULT;
+
+    private static final List<String> AUTHENTICATION_PATHS = List.of("/user/authenticate", "/user/create");
+
+    private static final List<String> DEPLOYMENT_PREFIXES = List.of("/event-type/deploy/", "/event-type/undeploy/",
+        "/event-pattern/deploy/", "/event-pattern/undeploy/", "/deployment/deploy-ready");
+
+    /**
+     * Returns the class of the endpoint at the given path.
+     * @param path The path of the request, without the context path
+     * @return The class of the endpoint
+     */
+    public static EndpointClass of(String path) {
+        if (AUTHENTICATION_PATHS.contains(path)) {
+            return AUTHENTICATION;
+        }
+        for (String prefix : DEPLOYMENT_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return DEPLOYMENT;
+            }
+        }
+        return DEFAULT;
+    }
+}
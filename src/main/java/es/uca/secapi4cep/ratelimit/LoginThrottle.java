@@ -0,0 +1,138 @@
+package es.uca.secapi4cep.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.cache.CacheRegion;
+import es.uca.secapi4cep.cache.InvalidationBus;
+
+/**
+ * Tracks failed logins by username and by IP address, and refuses further
+ * attempts with an exponential backoff before their passwords are checked, so
+ * that guessing passwords does not cost BCrypt cycles. Failures decay over time,
+ * halving every decay period without new ones. In a cluster every failure is
+ * broadcast on the invalidation bus and recorded by the other instances too.
+ * The IP address must be the client's, not the one of a proxy in front of the
+ * API, or a single attacker would lock out everyone behind the same proxy.
+ */
+@Component
+public class LoginThrottle {
+
+    // Idle entries are swept at most this often once the limit is reached
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    // Failures of a username or IP address and the time of the last one
+    private record Failures(int count, long lastFailure) {
+    }
+
+    private final int freeAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final long decayMillis;
+    private final int maxEntries;
+
+    private final InvalidationBus invalidationBus;
+
+    private final Map<String, Failures> failures = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong();
+
+    // Constructor to inject the invalidation bus and the backoff settings
+    public LoginThrottle(InvalidationBus invalidationBus,
+                         @Value("${cep.login.free-attempts:3}") int freeAttempts,
+                         @Value("${cep.login.backoff-base-ms:1000}") long backoffBaseMillis,
+                         @Value("${cep.login.backoff-max-ms:900000}") long backoffMaxMillis,
+                         @Value("${cep.login.decay-ms:900000}") long decayMillis,
+                         @Value("${cep.login.max-entries:10000}") int maxEntries) {
+        this.invalidationBus = invalidationBus;
+        this.freeAttempts = freeAttempts;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.decayMillis = decayMillis;
+        this.maxEntries = maxEntries;
+        invalidationBus.register(CacheRegion.LOGIN_FAILURE, key -> record(key, System.currentTimeMillis()));
+    }
+
+    /**
+     * Returns how long a login attempt must wait before its password is checked.
+     * @param username The username of the attempt
+     * @param ip The IP address of the client
+     * @return The time to wait in milliseconds, 0 if the attempt may proceed
+     */
+    public long retryAfterMillis(String username, String ip) {
+        long now = System.currentTimeMillis();
+        return Math.max(retryAfterMillis(userKey(username), now), retryAfterMillis(ipKey(ip), now));
+    }
+
+    /**
+     * Records a failed login on this instance and on the other ones.
+     * @param username The username of the attempt
+     * @param ip The IP address of the client
+     */
+    public void recordFailure(String username, String ip) {
+        long now = System.currentTimeMillis();
+        for (String key : new String[] { userKey(username), ipKey(ip) }) {
+            record(key, now);
+            invalidationBus.broadcast(CacheRegion.LOGIN_FAILURE, key);
+        }
+    }
+
+    /**
+     * Forgets the failures of a username after a successful login. The failures of the IP address are kept.
+     * @param username The username that logged in
+     */
+    public void recordSuccess(String username) {
+        failures.remove(userKey(username));
+    }
+
+    private long retryAfterMillis(String key, long now) {
+        Failures entry = failures.get(key);
+        if (entry == null) {
+            return 0;
+        }
+        int count = decayed(entry, now);
+        if (count < freeAttempts) {
+            return 0;
+        }
+        int exponent = Math.min(count - freeAttempts, 30);
+        long backoff = Math.min(backoffBaseMillis << exponent, backoffMaxMillis);
+        return Math.max(0, entry.lastFailure() + backoff - now);
+    }
+
+    private void record(String key, long now) {
+        if (!failures.containsKey(key) && failures.size() >= maxEntries) {
+            sweep(now);
+            if (failures.size() >= maxEntries) {
+                // Untracked usernames are still throttled through the IP address, and the other way round
+                return;
+            }
+        }
+        failures.compute(key, (k, entry) ->
+            new Failures(entry == null ? 1 : decayed(entry, now) + 1, now));
+    }
+
+    // Halves the failures for every decay period since the last one
+    private int decayed(Failures entry, long now) {
+        long periods = (now - entry.lastFailure()) / decayMillis;
+        return periods >= Integer.SIZE ? 0 : entry.count() >> periods;
+    }
+
+    // Only one thread sweeps at a time, and not more than once per interval
+    private void sweep(long now) {
+        long scheduled = nextSweep.get();
+        if (now >= scheduled && nextSweep.compareAndSet(scheduled, now + SWEEP_INTERVAL_MILLIS)) {
+            failures.values().removeIf(entry -> decayed(entry, now) == 0);
+        }
+    }
+
+    private static String userKey(String username) {
+        return "user:" + username;
+    }
+
+    private static String ipKey(String ip) {
+        return "ip:" + ip;
+    }
+}
@@ -0,0 +1,12 @@
+package es.uca.secapi4cep.ratelimit;
+
+/**
+ * Outcome of a request against the rate limit of a client.
+ * @param allowed Whether the request may proceed
+ * @param limit Number of requests the client may burst
+ * @param remaining Number of requests the client may still make right away
+ * @param resetSeconds Seconds until the client may burst again
+ * @param retryAfterSeconds Seconds until a rejected request may be retried, 0 if allowed
+ */
+public record RateLimitDecision(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+}
@@ -0,0 +1,122 @@
+package es.uca.secapi4cep.ratelimit;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limits the rate of requests of every client, by authenticated username or
+ * else by IP address, with separate limits for authentication, deployment and
+ * the remaining endpoints. Runs right after the JWT filter, so that the client
+ * is already authenticated, and answers 429 with a Retry-After header when a
+ * client exceeds its limit. Behind a reverse proxy, the IP address is the one
+ * the trusted proxies forward, as set up in WebServerConfig.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String TOO_MANY_REQUESTS_BODY =
+        "{\"message\":\"Too many requests.\",\"status\":\"" + HttpStatus.TOO_MANY_REQUESTS.value() + "\"}";
+
+    // Shortest time between two reports of the rejected requests
+    private static final long REJECTION_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    // Path of the liveness and readiness probes, which are never limited
+    private static final String HEALTH_PATH = "/health";
+
+    private final boolean enabled;
+    private final Map<EndpointClass, RateLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    // Requests rejected since the last report and when it was made
+    private final Map<EndpointClass, LongAdder> rejected = new EnumMap<>(EndpointClass.class);
+    private final AtomicLong lastRejectionReport = new AtomicLong(System.nanoTime());
+
+    // Constructor to inject the limits of every class of endpoints
+    public RateLimitFilter(@Value("${cep.ratelimit.enabled:true}") boolean enabled,
+                           @Value("${cep.ratelimit.max-clients:10000}") int maxClients,
+                           @Value("${cep.ratelimit.authentication.rate:1}") double authenticationRate,
+                           @Value("${cep.ratelimit.authentication.burst:5}") int authenticationBurst,
+                           @Value("${cep.ratelimit.deployment.rate:2}") double deploymentRate,
+                           @Value("${cep.ratelimit.deployment.burst:10}") int deploymentBurst,
+                           @Value("${cep.ratelimit.default.rate:50}") double defaultRate,
+                           @Value("${cep.ratelimit.default.burst:100}") int defaultBurst) {
+        this.enabled = enabled;
+        limiters.put(EndpointClass.AUTHENTICATION, new RateLimiter(authenticationRate, authenticationBurst, maxClients));
+        limiters.put(EndpointClass.DEPLOYMENT, new RateLimiter(deploymentRate, deploymentBurst, maxClients));
+        limiters.put(EndpointClass.DEFAULT, new RateLimiter(defaultRate, defaultBurst, maxClients));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            rejected.put(endpointClass, new LongAdder());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !enabled || path.equals(HEALTH_PATH) || path.startsWith(HEALTH_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String client = currentClient(request);
+        EndpointClass endpointClass = EndpointClass.of(request.getServletPath());
+        RateLimitDecision decision = limiters.get(endpointClass).tryAcquire(client);
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+        if (!decision.allowed()) {
+            logger.debug("Client {} exceeded the rate limit of {}", client, request.getServletPath());
+            rejected.get(endpointClass).increment();
+            reportRejections();
+            response.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(TOO_MANY_REQUESTS_BODY);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // Logs how many requests were rejected, at most once per interval however many clients exceed their limits
+    private void reportRejections() {
+        long last = lastRejectionReport.get();
+        long now = System.nanoTime();
+        if (now - last < REJECTION_REPORT_INTERVAL_NANOS || !lastRejectionReport.compareAndSet(last, now)) {
+            return;
+        }
+        logger.warn("Rejected {} authentication, {} deployment and {} other requests over their rate limits in the last {} s.",
+            rejected.get(EndpointClass.AUTHENTICATION).sumThenReset(), rejected.get(EndpointClass.DEPLOYMENT).sumThenReset(),
+            rejected.get(EndpointClass.DEFAULT).sumThenReset(), TimeUnit.NANOSECONDS.toSeconds(now - last));
+    }
+
+    private static String currentClient(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return "ip:" + request.getRemoteAddr();
+        }
+        return "user:" + authentication.getName();
+    }
+}
@@ -0,0 +1,74 @@
+package es.uca.secapi4cep.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limit of one class of endpoints, with a token bucket per client. The number of buckets is
+ * bounded: full buckets are forgotten when the limit is reached, and clients that still do not
+ * fit share a single bucket until some of them go idle.
+ */
+public class RateLimiter {
+
+    // Idle buckets are swept at most this often once the limit is reached
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final long emissionInterval;
+    private final int burst;
+    private final int maxClients;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    // Shared by the clients that arrive while every bucket is in use
+    private final TokenBucket overflow;
+
+    private final AtomicLong nextSweep;
+
+    /**
+     * Creates a rate limiter.
+     * @param ratePerSecond Sustained number of requests per second of every client
+     * @param burst Number of requests a client may make at once
+     * @param maxClients Maximum number of clients tracked separately
+     */
+    public RateLimiter(double ratePerSecond, int burst, int maxClients) {
+        this.emissionInterval = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.burst = Math.max(1, burst);
+        this.maxClients = maxClients;
+        long now = System.nanoTime();
+        this.overflow = new TokenBucket(now);
+        this.nextSweep = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token from the bucket of the given client.
+     * @param client The key of the client
+     * @return The decision
+     */
+    public RateLimitDecision tryAcquire(String client) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = bucketOf(client, now);
+        }
+        return bucket.tryAcquire(now, emissionInterval, burst);
+    }
+
+    private TokenBucket bucketOf(String client, long now) {
+        if (buckets.size() >= maxClients) {
+            sweep(now);
+            if (buckets.size() >= maxClients) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(client, k -> new TokenBucket(now));
+    }
+
+    // Only one thread sweeps at a time, and not more than once per interval
+    private void sweep(long now) {
+        long scheduled = nextSweep.get();
+        if (now - scheduled >= 0 && nextSweep.compareAndSet(scheduled, now + SWEEP_INTERVAL_NANOS)) {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+}
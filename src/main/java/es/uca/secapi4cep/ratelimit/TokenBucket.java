@@ -0,0 +1,54 @@
+package es.uca.secapi4cep.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of one client, kept as a single timestamp with the generic cell rate algorithm: the
+ * theoretical arrival time of the next request, which moves one emission interval forward per
+ * request. The bucket is full when that time is in the past, and a request is refused when it is
+ * further ahead than the burst allows. Updates are a compare-and-set, so callers never block.
+ */
+class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token if there is one.
+     * @param now The current time, in nanoseconds
+     * @param emissionInterval Time in which one token is refilled, in nanoseconds
+     * @param burst Capacity of the bucket
+     * @return The decision
+     */
+    RateLimitDecision tryAcquire(long now, long emissionInterval, int burst) {
+        long capacity = emissionInterval * burst;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionInterval;
+            long ahead = next - now;
+            if (ahead > capacity) {
+                long retryAfter = ahead - capacity;
+                return new RateLimitDecision(false, burst, 0, toSeconds(current - now), toSeconds(retryAfter));
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return new RateLimitDecision(true, burst, (capacity - ahead) / emissionInterval, toSeconds(ahead), 0);
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has refilled completely, so that forgetting it changes nothing.
+     * @param now The current time, in nanoseconds
+     * @return True if the bucket is full
+     */
+    boolean isFull(long now) {
+        return theoreticalArrival.get() - now <= 0;
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(0, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
@@ -0,0 +1,83 @@
+package es.uca.secapi4cep.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.uca.secapi4cep.entities.ArtifactSummary;
+import es.uca.secapi4cep.entities.CepArtifact;
+
+/**
+ * Queries shared by the repositories of every kind of CEP artifact.
+ * @param <T> The type of artifact
+ */
+@NoRepositoryBean
+public interface CepArtifactRepository<T extends CepArtifact> extends CrudRepository<T, Long> {
+
+    /**
+     * Finds artifacts by their name.
+     * @param name The name of the artifact
+     * @return A list of artifacts with the given name
+     */
+    public abstract List<T> findByName(String name);
+
+    /**
+     * Finds the artifacts that are ready to deploy and not deployed yet.
+     * @return A list of artifacts waiting to be deployed
+     */
+    public abstract List<T> findByReadyToDeployTrueAndDeployedFalse();
+
+    /**
+     * Finds the artifacts currently deployed in the CEP engine.
+     * @return A list of deployed artifacts
+     */
+    public abstract List<T> findByDeployedTrue();
+
+    /**
+     * Finds artifacts by the hash of their normalized content.
+     * @param contentHash The content hash
+     * @return A list of artifacts with the given content hash
+     */
+    public abstract List<T> findByContentHash(String contentHash);
+
+    /**
+     * Lists all artifacts without loading their content.
+     * @return A list of summaries of every artifact
+     */
+    public abstract List<ArtifactSummary> findAllProjectedBy();
+
+    /**
+     * Changes the status flags of an artifact in a single statement, only if it still has the
+     * expected version and flags.
+     * @param id The ID of the artifact
+     * @param version The version the artifact was read with
+     * @param expectedReady The 'ready to deploy' flag the artifact was read with
+     * @param expectedDeployed The 'deployed' flag the artifact was read with
+     * @param ready The new 'ready to deploy' flag
+     * @param deployed The new 'deployed' flag
+     * @return 1 if the artifact was updated, 0 if it was changed or deleted concurrently
+     */
+    @Transactional
+    @Modifying
+    @Query("update #{#entityName} a set a.readyToDeploy = :ready, a.deployed = :deployed, a.version = a.version + 1 "
+        + "where a.id = :id and a.version = :version and a.readyToDeploy = :expectedReady and a.deployed = :expectedDeployed")
+    public abstract int updateStatus(@Param("id") Long id, @Param("version") long version,
+                                     @Param("expectedReady") boolean expectedReady, @Param("expectedDeployed") boolean expectedDeployed,
+                                     @Param("ready") boolean ready, @Param("deployed") boolean deployed);
+
+    /**
+     * Deletes a draft artifact in a single statement, only if it still has the expected version.
+     * @param id The ID of the artifact
+     * @param version The version the artifact was read with
+     * @return 1 if the artifact was deleted, 0 if it was changed or deleted concurrently
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from #{#entityName} a where a.id = :id and a.version = :version and a.readyToDeploy = false and a.deployed = false")
+    public abstract int deleteDraft(@Param("id") Long id, @Param("version") long version);
+}
\ No newline at end of file
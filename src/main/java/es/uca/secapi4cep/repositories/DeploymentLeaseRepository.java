@@ -0,0 +1,44 @@
+package es.uca.secapi4cep.repositories;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.uca.secapi4cep.entities.DeploymentLease;
+
+/**
+ * Repository interface for the leases used to elect the deployment leader.
+ */
+@Repository
+public interface DeploymentLeaseRepository extends CrudRepository<DeploymentLease, String> {
+
+    /**
+     * Takes or renews a lease in a single statement. It succeeds if the instance already owns the
+     * lease or the lease has expired.
+     * @param name The name of the lease
+     * @param owner The instance requesting the lease
+     * @param now The current time, in epoch milliseconds
+     * @param expiresAt The new expiration time, in epoch milliseconds
+     * @return 1 if the instance holds the lease, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("update DeploymentLease l set l.owner = :owner, l.expiresAt = :expiresAt "
+        + "where l.name = :name and (l.owner = :owner or l.expiresAt < :now)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner, @Param("now") long now,
+                   @Param("expiresAt") long expiresAt);
+
+    /**
+     * Gives up a lease, so that another instance can take it without waiting for it to expire.
+     * @param name The name of the lease
+     * @param owner The instance holding the lease
+     * @return 1 if the lease was released, 0 if the instance did not hold it
+     */
+    @Transactional
+    @Modifying
+    @Query("update DeploymentLease l set l.expiresAt = 0 where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
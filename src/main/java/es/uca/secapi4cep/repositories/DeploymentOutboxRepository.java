@@ -0,0 +1,44 @@
+package es.uca.secapi4cep.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import es.uca.secapi4cep.deployment.ArtifactKind;
+import es.uca.secapi4cep.entities.OutboxOperation;
+
+/**
+ * Repository interface for the deployment operations waiting to be published.
+ */
+@Repository
+public interface DeploymentOutboxRepository extends CrudRepository<OutboxOperation, Long> {
+
+    /**
+     * Finds the oldest operations waiting to be published.
+     * @param limit The maximum number of operations
+     * @return The operations, in the order they must be published
+     */
+    List<OutboxOperation> findByOrderByIdAsc(Limit limit);
+
+    /**
+     * Finds every pending operation of some artifacts of a kind.
+     * @param kind The kind of artifact
+     * @param artifactIds The IDs of the artifacts
+     * @return The operations, in no particular order
+     */
+    List<OutboxOperation> findByKindAndArtifactIdIn(ArtifactKind kind, Collection<Long> artifactIds);
+
+    /**
+     * Finds the highest sequence number among the pending operations of an artifact.
+     * @param kind The kind of artifact
+     * @param artifactId The ID of the artifact
+     * @return The last sequence number, 0 if the artifact has no pending operation
+     */
+    @Query("select coalesce(max(o.artifactSequence), 0) from OutboxOperation o where o.kind = :kind and o.artifactId = :artifactId")
+    long findLastSequence(@Param("kind") ArtifactKind kind, @Param("artifactId") Long artifactId);
+}
@@ -4,20 +4,9 @@ import org.springframework.stereotype.Repository;
 
 import es.uca.secapi4cep.entities.EventPattern;
 
-import java.util.List;
-
-import org.springframework.data.repository.CrudRepository;
-
 /**
  * Repository interface for accessing EventPattern entities.
  */
 @Repository
-public interface EventPatternRepository extends CrudRepository<EventPattern, Long>{
-
-    /**
-     * Finds EventPatterns by their name.
-     * @param name The name of the EventPattern
-     * @return A list of EventPatterns with the given name
-     */
-    public abstract List<EventPattern> findByName(String name);
-}
\ No newline at end of file
+public interface EventPatternRepository extends CepArtifactRepository<EventPattern>{
+}
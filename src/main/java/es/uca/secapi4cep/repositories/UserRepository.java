@@ -2,6 +2,7 @@ package es.uca.secapi4cep.repositories;
 
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,9 +15,27 @@ import es.uca.secapi4cep.entities.User;
 public interface UserRepository extends CrudRepository<User, Long>{
 
 	/**
-     * Finds a User by their username.
+     * Finds a User by their username, together with their roles.
      * @param username The username of the User
      * @return An Optional containing the User with the given username, or empty if not found
      */
+	@EntityGraph(User.WITH_ROLES)
 	Optional<User> findByUsername(String username);
+
+	/**
+     * Finds a User by their ID, together with their roles.
+     * @param id The ID of the User
+     * @return An Optional containing the User with the given ID, or empty if not found
+     */
+	@Override
+	@EntityGraph(User.WITH_ROLES)
+	Optional<User> findById(Long id);
+
+	/**
+     * Finds every User, together with their roles.
+     * @return All the users
+     */
+	@Override
+	@EntityGraph(User.WITH_ROLES)
+	Iterable<User> findAll();
 }
@@ -0,0 +1,383 @@
+package es.uca.secapi4cep.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import es.uca.secapi4cep.cache.CacheRegion;
+import es.uca.secapi4cep.cache.InvalidationBus;
+import es.uca.secapi4cep.cache.LocalCache;
+import es.uca.secapi4cep.database.migration.LegacyArtifactContentWriter;
+import es.uca.secapi4cep.deployment.ArtifactKind;
+import es.uca.secapi4cep.deployment.ArtifactLocks;
+import es.uca.secapi4cep.deployment.ArtifactState;
+import es.uca.secapi4cep.deployment.ContentHash;
+import es.uca.secapi4cep.deployment.DeploymentCoalescer;
+import es.uca.secapi4cep.deployment.DeploymentOperation;
+import es.uca.secapi4cep.deployment.DeploymentOutbox;
+import es.uca.secapi4cep.deployment.DeploymentSink;
+import es.uca.secapi4cep.entities.ArtifactSummary;
+import es.uca.secapi4cep.entities.CepArtifact;
+import es.uca.secapi4cep.exceptions.ArtifactConflictException;
+import es.uca.secapi4cep.exceptions.InvalidContentException;
+import es.uca.secapi4cep.exceptions.ShuttingDownException;
+import es.uca.secapi4cep.lifecycle.DeploymentDrain;
+import es.uca.secapi4cep.repositories.CepArtifactRepository;
+
+/**
+ * Lifecycle of one kind of CEP artifact: persistence, the draft, ready and
+ * deployed state machine, validation and the messages sent to the CEP
+ * engine. Every kind of artifact gets its own instance, configured in
+ * ArtifactEngineConfig, and its service delegates to it. Operations that
+ * change an artifact hold its lock, so they apply in the order they arrived.
+ * @param <T> The type of artifact
+ */
+public class ArtifactLifecycleEngine<T extends CepArtifact> {
+
+    private final ArtifactKind kind;
+    private final CepArtifactRepository<T> repository;
+
+    // Collapses and publishes the deploy and undeploy messages sent to the CEP engine
+    private final DeploymentCoalescer deploymentCoalescer;
+
+    // Hands over deploy messages immediately, for ordered deployments
+    private final DeploymentSink deploymentSink;
+
+    // In a cluster, stores the messages in the transaction of the state change that produces them
+    private final DeploymentOutbox deploymentOutbox;
+
+    // Refuses invalid contents before they reach the CEP engine
+    private final EplValidationService eplValidationService;
+
+    // Serializes the operations that change the same artifact
+    private final ArtifactLocks artifactLocks;
+
+    // Refuses new operations and waits for the ones in flight on shutdown
+    private final DeploymentDrain deploymentDrain;
+
+    // Artifacts by ID, evicted on every instance when they change
+    private final LocalCache<Long, T> cache;
+    private final InvalidationBus invalidationBus;
+
+    // Keeps the legacy content column in line until the contract migration drops it
+    private final LegacyArtifactContentWriter legacyContentWriter;
+
+    // Constructor to inject the kind of artifact, its repository and the deployment components
+    public ArtifactLifecycleEngine(ArtifactKind kind, CepArtifactRepository<T> repository, DeploymentCoalescer deploymentCoalescer,
+                                   DeploymentSink deploymentSink, EplValidationService eplValidationService,
+                                   ArtifactLocks artifactLocks, DeploymentDrain deploymentDrain,
+                                   InvalidationBus invalidationBus, LocalCache<Long, T> cache,
+                                   LegacyArtifactContentWriter legacyContentWriter) {
+        this.kind = kind;
+        this.repository = repository;
+        this.deploymentCoalescer = deploymentCoalescer;
+        this.deploymentSink = deploymentSink;
+        this.deploymentOutbox = deploymentSink instanceof DeploymentOutbox outbox ? outbox : null;
+        this.eplValidationService = eplValidationService;
+        this.artifactLocks = artifactLocks;
+        this.deploymentDrain = deploymentDrain;
+        this.invalidationBus = invalidationBus;
+        this.cache = cache;
+        this.legacyContentWriter = legacyContentWriter;
+        invalidationBus.register(CacheRegion.of(kind), id -> cache.evict(Long.valueOf(id)));
+    }
+
+    /**
+     * Returns the kind of artifact managed by this engine.
+     * @return The kind of artifact
+     */
+    public ArtifactKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Retrieves all artifacts.
+     * @return List of all artifacts
+     */
+    public List<T> findAll() {
+        return (List<T>) repository.findAll();
+    }
+
+    /**
+     * Retrieves a summary of every artifact, without loading their contents.
+     * @return List of summaries of all artifacts
+     */
+    public List<ArtifactSummary> findSummaries() {
+        return repository.findAllProjectedBy();
+    }
+
+    /**
+     * Retrieves an artifact by its ID.
+     * @param id The ID of the artifact
+     * @return Optional containing the artifact if found, otherwise empty
+     */
+    public Optional<T> findById(Long id) {
+        return cache.get(id, repository::findById);
+    }
+
+    /**
+     * Finds artifacts by name.
+     * @param name The name to search for
+     * @return List of artifacts with the given name
+     */
+    public List<T> findByName(String name) {
+        return repository.findByName(name);
+    }
+
+    /**
+     * Finds the other artifacts whose normalized content is identical to the given one.
+     * @param id The ID of the artifact
+     * @return List of the other artifacts with the same content, empty if the artifact does not exist
+     */
+    public List<T> findDuplicates(Long id) {
+        return repository.findById(id)
+            .map(artifact -> repository.findByContentHash(ContentHash.of(artifact.getContent())).stream()
+                .filter(duplicate -> !duplicate.getId().equals(id))
+                .toList())
+            .orElse(List.of());
+    }
+
+    /**
+     * Retrieves the artifacts that are ready to deploy and not deployed yet.
+     * @return List of artifacts waiting to be deployed
+     */
+    public List<T> findReady() {
+        return repository.findByReadyToDeployTrueAndDeployedFalse();
+    }
+
+    /**
+     * Retrieves the artifacts currently deployed in the CEP engine.
+     * @return List of deployed artifacts
+     */
+    public List<T> findDeployed() {
+        return repository.findByDeployedTrue();
+    }
+
+    /**
+     * Saves a new artifact.
+     * @param artifact The artifact to save
+     * @return The saved artifact
+     */
+    public T save(T artifact) {
+        T saved = repository.save(artifact);
+        legacyContentWriter.write(kind, saved.getId(), saved.getContent());
+        return saved;
+    }
+
+    /**
+     * Updates the name and content of an artifact, redeploying it if it is deployed and its name or content changed.
+     * Artifacts ready to deploy cannot be updated.
+     * @param newArtifact The new artifact data
+     * @param id The ID of the artifact to update
+     * @return True if update was successful, false otherwise
+     * @throws InvalidContentException If the artifact is deployed and the new content is invalid
+     * @throws ArtifactConflictException If the artifact was modified concurrently
+     * @throws ShuttingDownException If the application is shutting down
+     */
+    public boolean update(T newArtifact, Long id) {
+        return withLock(id, () -> {
+            Optional<T> artifactOptional = repository.findById(id);
+            if (artifactOptional.isEmpty()) {
+                return false;
+            }
+            T artifact = artifactOptional.get();
+            ArtifactState state = ArtifactState.of(artifact);
+            if (!state.isEditable()) {
+                return false;
+            }
+            String previousName = artifact.getName();
+            String previousContent = artifact.getContent();
+
+            // Resubmissions of the content already deployed need no redeploy. Renames do: the CEP engine
+            // registers artifacts by name, so the old name must be undeployed
+            boolean contentChanged = !Objects.equals(ContentHash.of(previousContent), ContentHash.of(newArtifact.getContent()));
+            boolean renamed = !Objects.equals(previousName, newArtifact.getName());
+            boolean redeploy = state == ArtifactState.DEPLOYED && (contentChanged || renamed);
+            if (redeploy) {
+                eplValidationService.requireValid(kind, newArtifact.getContent());
+            }
+
+            artifact.setName(newArtifact.getName());
+            artifact.setContent(newArtifact.getContent());
+            try {
+                if (redeploy) {
+                    // Send undeploy and deploy messages
+                    transition(() -> repository.save(artifact),
+                        DeploymentOperation.undeploy(kind, id, previousName, previousContent),
+                        DeploymentOperation.deploy(kind, id, newArtifact.getName(), newArtifact.getContent()));
+                } else {
+                    repository.save(artifact);
+                }
+            } catch (OptimisticLockingFailureException e) {
+                throw new ArtifactConflictException(kind.getLabel(), id);
+            }
+            legacyContentWriter.write(kind, id, artifact.getContent());
+            invalidationBus.invalidate(CacheRegion.of(kind), id);
+            return true;
+        });
+    }
+
+    /**
+     * Sets an artifact as ready to deploy, or back as a draft.
+     * @param id The ID of the artifact
+     * @param status The new 'ready to deploy' status
+     * @return True if the update was successful, false if the artifact does not exist or cannot make the transition
+     * @throws InvalidContentException If the artifact is set as ready to deploy and its content is invalid
+     * @throws ArtifactConflictException If the artifact was modified concurrently
+     * @throws ShuttingDownException If the application is shutting down
+     */
+    public boolean updateStatus(Long id, boolean status) {
+        return withLock(id, () -> {
+            Optional<T> artifactOptional = repository.findById(id);
+            if (artifactOptional.isEmpty()) {
+                return false;
+            }
+            T artifact = artifactOptional.get();
+            ArtifactState target = status ? ArtifactState.READY : ArtifactState.DRAFT;
+            if (!ArtifactState.of(artifact).canMoveTo(target)) {
+                return false;
+            }
+            if (status) {
+                eplValidationService.requireValid(kind, artifact.getContent());
+            }
+            moveTo(artifact, target);
+            invalidationBus.invalidate(CacheRegion.of(kind), id);
+            return true;
+        });
+    }
+
+    /**
+     * Deploys an artifact ready to deploy, or undeploys a deployed one, and sends the appropriate message.
+     * @param id The ID of the artifact
+     * @param status The new deploying status
+     * @return True if the update was successful, false if the artifact does not exist or cannot make the transition
+     * @throws InvalidContentException If the artifact is deployed and its content is invalid
+     * @throws ArtifactConflictException If the artifact was modified concurrently
+     * @throws ShuttingDownException If the application is shutting down
+     */
+    public boolean updateDeployingStatus(Long id, boolean status) {
+        return withLock(id, () -> {
+            Optional<T> artifactOptional = repository.findById(id);
+            if (artifactOptional.isEmpty()) {
+                return false;
+            }
+            T artifact = artifactOptional.get();
+            ArtifactState current = ArtifactState.of(artifact);
+            ArtifactState target = status ? ArtifactState.DEPLOYED : ArtifactState.DRAFT;
+            if (!current.canMoveTo(target)) {
+                return false;
+            }
+            if (status) {
+                eplValidationService.requireValid(kind, artifact.getContent());
+            }
+            if (current != ArtifactState.DEPLOYED && !status) {
+                // The engine never received the artifact, so there is nothing to undeploy
+                moveTo(artifact, target);
+                invalidationBus.invalidate(CacheRegion.of(kind), id);
+                return true;
+            }
+            // Only the call that wins the transition sends a message
+            DeploymentOperation operation = status
+                ? DeploymentOperation.deploy(kind, id, artifact.getName(), artifact.getContent())
+                : DeploymentOperation.undeploy(kind, id, artifact.getName(), artifact.getContent());
+            transition(() -> moveTo(artifact, target), operation);
+            invalidationBus.invalidate(CacheRegion.of(kind), id);
+            return true;
+        });
+    }
+
+    /**
+     * Deploys an artifact of a deployment plan, handing over its deploy message before returning. In a cluster
+     * the message is stored in the shared outbox together with the new state, and the leader publishes it.
+     * The artifact must have been validated when the plan was computed.
+     * @param artifact The artifact, ready to deploy
+     * @throws ArtifactConflictException If the artifact was modified since the plan was computed
+     * @throws ShuttingDownException If the application is shutting down
+     * @throws UncheckedIOException If the deploy message could not be published
+     */
+    public void deployNow(T artifact) {
+        withLock(artifact.getId(), () -> {
+            List<DeploymentOperation> deploy = List.of(DeploymentOperation.deploy(kind, artifact.getId(), artifact.getName(),
+                artifact.getContent()));
+            if (deploymentOutbox != null) {
+                deploymentOutbox.publishWith(() -> moveTo(artifact, ArtifactState.DEPLOYED), deploy);
+                invalidationBus.invalidate(CacheRegion.of(kind), artifact.getId());
+                return null;
+            }
+            moveTo(artifact, ArtifactState.DEPLOYED);
+            invalidationBus.invalidate(CacheRegion.of(kind), artifact.getId());
+            try {
+                deploymentSink.publish(deploy);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (TimeoutException e) {
+                throw new UncheckedIOException(new IOException(e));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Deletes an artifact. Only drafts can be deleted.
+     * @param id The ID of the artifact to delete
+     * @return True if the deletion was successful, false otherwise
+     * @throws ArtifactConflictException If the artifact was modified concurrently
+     * @throws ShuttingDownException If the application is shutting down
+     */
+    public boolean delete(Long id) {
+        return withLock(id, () -> {
+            Optional<T> artifactOptional = repository.findById(id);
+            if (artifactOptional.isEmpty() || !ArtifactState.of(artifactOptional.get()).isDeletable()) {
+                return false;
+            }
+            if (repository.deleteDraft(id, artifactOptional.get().getVersion()) == 0) {
+                throw new ArtifactConflictException(kind.getLabel(), id);
+            }
+            invalidationBus.invalidate(CacheRegion.of(kind), id);
+            return true;
+        });
+    }
+
+    // Applies a state change and hands over the messages it produces. In a cluster both are committed in a
+    // single transaction; otherwise the messages go through the coalescer once the change is committed,
+    // which retries them until they are published.
+    private void transition(Runnable change, DeploymentOperation... operations) {
+        if (deploymentOutbox != null) {
+            deploymentOutbox.publishWith(change, List.of(operations));
+            return;
+        }
+        change.run();
+        deploymentCoalescer.submit(operations);
+    }
+
+    // Runs an operation that changes an artifact holding its lock, unless the application is shutting down
+    private <R> R withLock(Long id, Supplier<R> operation) {
+        return deploymentDrain.run(() -> artifactLocks.withLock(kind, id, operation));
+    }
+
+    /**
+     * Moves an artifact to another state with a conditional update, which fails if the artifact
+     * changed since it was read. The artifact is updated to reflect its new state. The caller evicts it
+     * from the caches once the change is committed, which in a cluster is after the outbox transaction.
+     * @param artifact The artifact, as read from the repository
+     * @param target The state to move to
+     * @throws ArtifactConflictException If the artifact was modified concurrently
+     */
+    private void moveTo(T artifact, ArtifactState target) {
+        boolean ready = target == ArtifactState.READY;
+        boolean deployed = target == ArtifactState.DEPLOYED;
+        int updated = repository.updateStatus(artifact.getId(), artifact.getVersion(), artifact.isReadyToDeploy(),
+            artifact.isDeployed(), ready, deployed);
+        if (updated == 0) {
+            throw new ArtifactConflictException(kind.getLabel(), artifact.getId());
+        }
+        artifact.setReadyToDeploy(ready);
+        artifact.setDeployed(deployed);
+    }
+}
@@ -0,0 +1,139 @@
+package es.uca.secapi4cep.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import es.uca.secapi4cep.deployment.ArtifactKind;
+import es.uca.secapi4cep.deployment.ArtifactReference;
+import es.uca.secapi4cep.deployment.DependencyGraph;
+import es.uca.secapi4cep.deployment.DeploymentCoalescer;
+import es.uca.secapi4cep.deployment.DeploymentPlan;
+import es.uca.secapi4cep.deployment.EplDependencyExtractor;
+import es.uca.secapi4cep.entities.CepArtifact;
+import es.uca.secapi4cep.entities.EventPattern;
+import es.uca.secapi4cep.entities.EventType;
+import es.uca.secapi4cep.exceptions.DeploymentPlanException;
+import es.uca.secapi4cep.exceptions.ShuttingDownException;
+import es.uca.secapi4cep.validation.ValidationResult;
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class DeploymentPlannerService {
+
+    // Lifecycle engines, in the order their artifacts are listed in a wave
+    private final List<ArtifactLifecycleEngine<? extends CepArtifact>> engines;
+
+    private final DeploymentCoalescer deploymentCoalescer;
+    private final EplValidationService eplValidationService;
+
+    // Publishes the independent artifacts of a wave in parallel
+    private final ExecutorService executor;
+
+    // Constructor to inject the lifecycle engines, the coalescer, the validation service and the wave parallelism
+    public DeploymentPlannerService(ArtifactLifecycleEngine<EventType> eventTypeEngine,
+                                    ArtifactLifecycleEngine<EventPattern> eventPatternEngine,
+                                    DeploymentCoalescer deploymentCoalescer, EplValidationService eplValidationService,
+                                    @Value("${cep.deploy.plan-parallelism:4}") int parallelism) {
+        this.engines = List.of(eventTypeEngine, eventPatternEngine);
+        this.deploymentCoalescer = deploymentCoalescer;
+        this.eplValidationService = eplValidationService;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+    }
+
+    /**
+     * Computes the order in which the event types and patterns ready to deploy must be deployed.
+     * @return The deployment plan
+     * @throws DeploymentPlanException If a content is invalid, a dependency is missing or the dependencies are cyclic
+     */
+    public DeploymentPlan plan() {
+        return plan(new HashMap<>());
+    }
+
+    /**
+     * Deploys every event type and pattern ready to deploy, wave by wave, following the deployment plan.
+     * @return The executed deployment plan
+     * @throws DeploymentPlanException If the plan cannot be computed or a wave fails to be published
+     * @throws ShuttingDownException If the application started shutting down while executing the plan
+     */
+    public DeploymentPlan execute() {
+        Map<ArtifactReference, Runnable> deployments = new HashMap<>();
+        DeploymentPlan plan = plan(deployments);
+
+        // Operations still held by the coalescer must reach the CEP engine before the plan
+        deploymentCoalescer.flushAll();
+
+        int waveNumber = 1;
+        for (List<ArtifactReference> wave : plan.waves()) {
+            List<CompletableFuture<Void>> running = new ArrayList<>();
+            for (ArtifactReference reference : wave) {
+                running.add(CompletableFuture.runAsync(deployments.get(reference), executor));
+            }
+            try {
+                CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                // Not a fault of the plan: the client may retry it on another instance
+                if (e.getCause() instanceof ShuttingDownException shuttingDown) {
+                    throw shuttingDown;
+                }
+                throw new DeploymentPlanException("Wave " + waveNumber + " of the deployment plan failed: "
+                    + e.getCause().getMessage());
+            }
+            waveNumber++;
+        }
+        return plan;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // Builds the plan and collects how to deploy each artifact it refers to
+    private DeploymentPlan plan(Map<ArtifactReference, Runnable> deployments) {
+        DependencyGraph graph = new DependencyGraph();
+        for (ArtifactLifecycleEngine<? extends CepArtifact> engine : engines) {
+            for (CepArtifact artifact : engine.findDeployed()) {
+                graph.addAvailable(provides(engine.getKind(), artifact));
+            }
+        }
+        for (ArtifactLifecycleEngine<? extends CepArtifact> engine : engines) {
+            addReadyArtifacts(graph, deployments, engine);
+        }
+        return new DeploymentPlan(graph.waves());
+    }
+
+    private <T extends CepArtifact> void addReadyArtifacts(DependencyGraph graph, Map<ArtifactReference, Runnable> deployments,
+                                                           ArtifactLifecycleEngine<T> engine) {
+        ArtifactKind kind = engine.getKind();
+        for (T artifact : engine.findReady()) {
+            ValidationResult validation = eplValidationService.validate(kind, artifact.getContent());
+            if (!validation.isValid()) {
+                throw new DeploymentPlanException("The content of '" + artifact.getName() + "' (id: " + artifact.getId()
+                    + ") is invalid: " + String.join(" ", validation.errors()));
+            }
+            ArtifactReference reference = ArtifactReference.of(kind, artifact);
+            deployments.put(reference, () -> engine.deployNow(artifact));
+            graph.addArtifact(reference, provides(kind, artifact), EplDependencyExtractor.requires(artifact.getContent()));
+        }
+    }
+
+    // Event types are also known to the CEP engine by their own name
+    private static Set<String> provides(ArtifactKind kind, CepArtifact artifact) {
+        Set<String> names = new LinkedHashSet<>(EplDependencyExtractor.provides(artifact.getContent()));
+        if (kind == ArtifactKind.EVENT_TYPE) {
+            names.add(artifact.getName());
+        }
+        return names;
+    }
+}
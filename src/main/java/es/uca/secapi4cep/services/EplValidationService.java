@@ -0,0 +1,69 @@
+package es.uca.secapi4cep.services;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import es.uca.secapi4cep.deployment.ArtifactKind;
+import es.uca.secapi4cep.deployment.ContentHash;
+import es.uca.secapi4cep.exceptions.InvalidContentException;
+import es.uca.secapi4cep.validation.EplValidator;
+import es.uca.secapi4cep.validation.ValidationResult;
+
+@Service
+public class EplValidationService {
+
+    // Validators of the pipeline, in order
+    private final List<EplValidator> validators;
+
+    // Results of previous validations, by artifact kind and content hash, least recently used first
+    private final Map<String, ValidationResult> results;
+
+    // Constructor to inject the validators and the size of the result cache
+    public EplValidationService(List<EplValidator> validators, @Value("${cep.validation.cache-size:1024}") int cacheSize) {
+        this.validators = validators;
+        this.results = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ValidationResult> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Runs the validation pipeline on a content. Contents already validated are answered from the cache.
+     * @param kind The kind of artifact the content belongs to
+     * @param content The EPL content
+     * @return The validation result
+     */
+    public ValidationResult validate(ArtifactKind kind, String content) {
+        String key = kind + ":" + ContentHash.of(content);
+        ValidationResult cached = results.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        ValidationResult result = ValidationResult.valid();
+        for (EplValidator validator : validators) {
+            result = result.and(validator.validate(kind, content));
+        }
+        results.put(key, result);
+        return result;
+    }
+
+    /**
+     * Runs the validation pipeline on a content and refuses it if it is invalid.
+     * @param kind The kind of artifact the content belongs to
+     * @param content The EPL content
+     * @throws InvalidContentException If the content is invalid
+     */
+    public void requireValid(ArtifactKind kind, String content) {
+        ValidationResult result = validate(kind, content);
+        if (!result.isValid()) {
+            throw new InvalidContentException(result.errors());
+        }
+    }
+}
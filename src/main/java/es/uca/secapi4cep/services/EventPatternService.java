@@ -1,38 +1,42 @@
 package es.uca.secapi4cep.services;
 
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeoutException;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import es.uca.secapi4cep.repositories.EventPatternRepository;
-import com.rabbitmq.client.Channel;
+
+import es.uca.secapi4cep.datasource.ReplicaRead;
+import es.uca.secapi4cep.entities.ArtifactSummary;
 import es.uca.secapi4cep.entities.EventPattern;
-import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import es.uca.secapi4cep.exceptions.InvalidContentException;
 
 @Service
 public class EventPatternService {
 
-    // Injects the RabbitMQ ConnectionFactory defined in RabbitMQConfig
-    @Autowired
-    private CachingConnectionFactory connectionFactory;
-
-    private final EventPatternRepository eventPatternRepository;
+    // Lifecycle engine shared with the other kinds of artifacts
+    private final ArtifactLifecycleEngine<EventPattern> engine;
 
-    // Constructor to inject EventPatternRepository
-    public EventPatternService(EventPatternRepository eventPatternRepository) {
-        this.eventPatternRepository = eventPatternRepository;
+    // Constructor to inject the event pattern lifecycle engine
+    public EventPatternService(ArtifactLifecycleEngine<EventPattern> eventPatternEngine) {
+        this.engine = eventPatternEngine;
     }
 
     /**
      * Retrieves all event patterns from the repository.
      * @return List of all EventPattern entities
      */
+    @ReplicaRead
     public List<EventPattern> getAllEventPatterns() {
-        return (ArrayList<EventPattern>) eventPatternRepository.findAll();
+        return engine.findAll();
+    }
+
+    /**
+     * Retrieves a summary of every event pattern, without loading their contents.
+     * @return List of summaries of all EventPattern entities
+     */
+    @ReplicaRead
+    public List<ArtifactSummary> getEventPatternSummaries() {
+        return engine.findSummaries();
     }
 
     /**
@@ -41,7 +45,7 @@ public class EventPatternService {
      * @return Optional containing the EventPattern if found, otherwise empty
      */
     public Optional<EventPattern> getEventPatternById(Long id) {
-        return eventPatternRepository.findById(id);
+        return engine.findById(id);
     }
 
     /**
@@ -50,7 +54,7 @@ public class EventPatternService {
      * @return The saved EventPattern entity
      */
     public EventPattern saveEventPattern(EventPattern eventPattern) {
-        return eventPatternRepository.save(eventPattern);
+        return engine.save(eventPattern);
     }
 
     /**
@@ -58,51 +62,10 @@ public class EventPatternService {
      * @param newEventPattern The new event pattern data
      * @param id The ID of the event pattern to update
      * @return True if update was successful, false otherwise
+     * @throws InvalidContentException If the event pattern is deployed and the new content is invalid
      */
-    public boolean updateEventPattern(EventPattern newEventPattern, Long id) {   
-        try (com.rabbitmq.client.Connection outputConnectionUCA = connectionFactory.getRabbitConnectionFactory().newConnection();
-            Channel outputChannel = outputConnectionUCA.createChannel();){         
-
-            String deployQueue = "deploy";
-            String undeployQueue = "undeploy";
-            
-            outputChannel.queueDeclare(deployQueue, false, false, false, null);
-            outputChannel.queueDeclare(undeployQueue, false, false, false, null);
-
-            Optional<EventPattern> eventPatternOptional = eventPatternRepository.findById(id);
-            if (!eventPatternOptional.isEmpty()){
-                EventPattern retrievedEventPattern = eventPatternOptional.get();
-                String retrievedEventPatternName = retrievedEventPattern.getName();
-                if(!retrievedEventPattern.isReadyToDeploy()) {
-                    retrievedEventPattern.setName(newEventPattern.getName());
-                    retrievedEventPattern.setContent(newEventPattern.getContent());
-
-                    eventPatternRepository.save(retrievedEventPattern);
-                    if (retrievedEventPattern.isDeployed()) {
-                        String message;
-
-                        // Send undeploy message
-                        message = retrievedEventPatternName;
-                        outputChannel.basicPublish("",undeployQueue, null, message.getBytes());
-
-                        // Send deploy message
-                        message = newEventPattern.getContent();
-                        outputChannel.basicPublish("",deployQueue, null, message.getBytes());
-                    }
-                    
-                    return true;
-                }
-                else {
-                  return false;
-                }    
-            }
-            else {
-              return false;
-            }
-        } catch (IOException | TimeoutException e) {
-            e.printStackTrace();
-            return false;
-        }
+    public boolean updateEventPattern(EventPattern newEventPattern, Long id) {
+        return engine.update(newEventPattern, id);
     }
 
     /**
@@ -110,18 +73,10 @@ public class EventPatternService {
      * @param id The ID of the event pattern
      * @param status The new 'ready to deploy' status
      * @return True if the update was successful, false otherwise
+     * @throws InvalidContentException If the event pattern is set as ready to deploy and its content is invalid
      */
     public boolean updateStatus(Long id, boolean status) {
-        Optional<EventPattern> eventPatternOptional = eventPatternRepository.findById(id);
-        if (!eventPatternOptional.isEmpty()){
-            EventPattern retrievedEventPattern = eventPatternOptional.get();
-            retrievedEventPattern.setReadyToDeploy(status);
-            eventPatternRepository.save(retrievedEventPattern);
-            return true;
-        }
-        else {
-          return false;
-        }
+        return engine.updateStatus(id, status);
     }
 
     /**
@@ -129,46 +84,20 @@ public class EventPatternService {
      * @param id The ID of the event pattern
      * @param status The new deploying status
      * @return True if the update was successful, false otherwise
+     * @throws InvalidContentException If the event pattern is deployed and its content is invalid
      */
     public boolean updateDeployingStatus(Long id, boolean status) {
+        return engine.updateDeployingStatus(id, status);
+    }
 
-        try (com.rabbitmq.client.Connection outputConnectionUCA = connectionFactory.getRabbitConnectionFactory().newConnection();
-            Channel outputChannel = outputConnectionUCA.createChannel();) {
-
-            String deployQueue = "deploy";
-            String undeployQueue = "undeploy";
-            
-            outputChannel.queueDeclare(deployQueue, false, false, false, null);
-            outputChannel.queueDeclare(undeployQueue, false, false, false, null);
-
-            Optional<EventPattern> eventPatternOptional = eventPatternRepository.findById(id);
-            if (!eventPatternOptional.isEmpty()){
-                EventPattern retrievedEventPattern = eventPatternOptional.get();
-                retrievedEventPattern.setDeployed(status);
-                retrievedEventPattern.setReadyToDeploy(false);
-                eventPatternRepository.save(retrievedEventPattern);
-
-                String message;
-
-                if(status) {
-                    // Send deploy message
-                    message = retrievedEventPattern.getContent();
-                    outputChannel.basicPublish("",deployQueue, null, message.getBytes());
-                }
-                else {
-                    // Send undeploy message
-                    message = retrievedEventPattern.getName();
-                    outputChannel.basicPublish("",undeployQueue, null, message.getBytes());
-                }
-                
-                return true;
-            }
-            else {
-              return false;
-            }
-        } catch (IOException | TimeoutException e) {
-            return false;
-        }
+    /**
+     * Finds the other event patterns whose normalized content is identical to the given one.
+     * @param id The ID of the event pattern
+     * @return List of the other EventPattern entities with the same content, empty if the event pattern does not exist
+     */
+    @ReplicaRead
+    public List<EventPattern> findDuplicates(Long id) {
+        return engine.findDuplicates(id);
     }
 
     /**
@@ -176,8 +105,9 @@ public class EventPatternService {
      * @param name The name to search for
      * @return List of EventPattern entities with the given name
      */
+    @ReplicaRead
     public List<EventPattern> findByName(String name) {
-        return eventPatternRepository.findByName(name);
+        return engine.findByName(name);
     }
 
     /**
@@ -186,26 +116,6 @@ public class EventPatternService {
      * @return True if the deletion was successful, false otherwise
      */
     public boolean deleteEventPattern(Long id) {
-        try {
-            Optional<EventPattern> eventPatternOptional = eventPatternRepository.findById(id);
-            if (!eventPatternOptional.isEmpty()){
-                EventPattern retrievedEventPattern = eventPatternOptional.get();
-                if (retrievedEventPattern.isDeployed()) {
-                    return false;
-                }
-                else if (retrievedEventPattern.isReadyToDeploy()) {
-                    return false;
-                }
-                else {
-                    eventPatternRepository.deleteById(id);
-                    return true;
-                }
-            }
-            else {
-                return false;
-            }      
-        } catch (Exception e) {
-            return false;
-        }
-    }    
+        return engine.delete(id);
+    }
 }
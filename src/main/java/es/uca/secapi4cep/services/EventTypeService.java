@@ -1,38 +1,42 @@
 package es.uca.secapi4cep.services;
 
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeoutException;
 
-import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import es.uca.secapi4cep.repositories.EventTypeRepository;
-import com.rabbitmq.client.Channel;
+
+import es.uca.secapi4cep.datasource.ReplicaRead;
+import es.uca.secapi4cep.entities.ArtifactSummary;
 import es.uca.secapi4cep.entities.EventType;
+import es.uca.secapi4cep.exceptions.InvalidContentException;
 
 @Service
 public class EventTypeService {
 
-    // Injects the RabbitMQ ConnectionFactory defined in RabbitMQConfig
-    @Autowired
-    private CachingConnectionFactory connectionFactory;
-    
-    private final EventTypeRepository eventTypeRepository;
+    // Lifecycle engine shared with the other kinds of artifacts
+    private final ArtifactLifecycleEngine<EventType> engine;
 
-    // Constructor to inject EventTypeRepository
-    EventTypeService(EventTypeRepository eventTypeRepository) {
-        this.eventTypeRepository = eventTypeRepository;
+    // Constructor to inject the event type lifecycle engine
+    EventTypeService(ArtifactLifecycleEngine<EventType> eventTypeEngine) {
+        this.engine = eventTypeEngine;
     }
 
     /**
      * Retrieves all event types from the repository.
      * @return List of all EventType entities
      */
+    @ReplicaRead
     public List<EventType> getAllEventTypes() {
-        return (ArrayList<EventType>) eventTypeRepository.findAll();
+        return engine.findAll();
+    }
+
+    /**
+     * Retrieves a summary of every event type, without loading their contents.
+     * @return List of summaries of all EventType entities
+     */
+    @ReplicaRead
+    public List<ArtifactSummary> getEventTypeSummaries() {
+        return engine.findSummaries();
     }
 
     /**
@@ -41,7 +45,7 @@ public class EventTypeService {
      * @return Optional containing the EventType if found, otherwise empty
      */
     public Optional<EventType> getEventTypeById(Long id) {
-        return eventTypeRepository.findById(id);
+        return engine.findById(id);
     }
 
     /**
@@ -50,59 +54,18 @@ public class EventTypeService {
      * @return The saved EventType entity
      */
     public EventType saveEventType(EventType eventType) {
-        return eventTypeRepository.save(eventType);
+        return engine.save(eventType);
     }
 
     /**
-     * Updates an existing event type and handles deployment and deployment logic.
+     * Updates an existing event type and handles deployment and undeployment logic.
      * @param newEventType The new event type data
      * @param id The ID of the event type to update
      * @return True if update was successful, false otherwise
+     * @throws InvalidContentException If the event type is deployed and the new content is invalid
      */
     public boolean updateEventType(EventType newEventType, Long id) {
-        
-        try (com.rabbitmq.client.Connection outputConnectionUCA = connectionFactory.getRabbitConnectionFactory().newConnection();
-            Channel outputChannel = outputConnectionUCA.createChannel();){
-
-            String deployQueue = "deploy";
-            String undeployQueue = "undeploy";
-            
-            outputChannel.queueDeclare(deployQueue, false, false, false, null);
-            outputChannel.queueDeclare(undeployQueue, false, false, false, null);
-
-            Optional<EventType> eventTypeOptional = eventTypeRepository.findById(id);
-            if (!eventTypeOptional.isEmpty()){
-                EventType retrievedEventType = eventTypeOptional.get();
-                String retrievedEventTypeName = retrievedEventType.getName();
-                if(!retrievedEventType.isReadyToDeploy()) {
-                    retrievedEventType.setName(newEventType.getName());
-                    retrievedEventType.setContent(newEventType.getContent());
-
-                    eventTypeRepository.save(retrievedEventType);
-                    if (retrievedEventType.isDeployed()) {
-                        String message;
-                        
-                        // Send undeploy message
-                        message = retrievedEventTypeName;
-                        outputChannel.basicPublish("",undeployQueue, null, message.getBytes());
-
-                        // Send deploy message
-                        message = newEventType.getContent();
-                        outputChannel.basicPublish("",deployQueue, null, message.getBytes());
-                    }
-                    
-                    return true;
-                }
-                else {
-                  return false;
-                }    
-            }
-            else {
-              return false;
-            }
-        } catch (IOException | TimeoutException e) {
-            return false;
-        }
+        return engine.update(newEventType, id);
     }
 
     /**
@@ -110,18 +73,10 @@ public class EventTypeService {
      * @param id The ID of the event type
      * @param status The new 'ready to deploy' status
      * @return True if the update was successful, false otherwise
+     * @throws InvalidContentException If the event type is set as ready to deploy and its content is invalid
      */
     public boolean updateStatus(Long id, boolean status) {
-        Optional<EventType> eventTypeOptional = eventTypeRepository.findById(id);
-        if (!eventTypeOptional.isEmpty()){
-            EventType retrievedEventType = eventTypeOptional.get();
-            retrievedEventType.setReadyToDeploy(status);
-            eventTypeRepository.save(retrievedEventType);
-            return true;
-        }
-        else {
-          return false;
-        }
+        return engine.updateStatus(id, status);
     }
 
     /**
@@ -129,46 +84,20 @@ public class EventTypeService {
      * @param id The ID of the event type
      * @param status The new deploying status
      * @return True if the update was successful, false otherwise
+     * @throws InvalidContentException If the event type is deployed and its content is invalid
      */
     public boolean updateDeployingStatus(Long id, boolean status) {
-        
-        try(com.rabbitmq.client.Connection outputConnectionUCA = connectionFactory.getRabbitConnectionFactory().newConnection();
-            Channel outputChannel = outputConnectionUCA.createChannel();) {
-
-            String deployQueue = "deploy";
-            String undeployQueue = "undeploy";
-            
-            outputChannel.queueDeclare(deployQueue, false, false, false, null);
-            outputChannel.queueDeclare(undeployQueue, false, false, false, null);
-
-            Optional<EventType> eventTypeOptional = eventTypeRepository.findById(id);
-            if (!eventTypeOptional.isEmpty()){
-                EventType retrievedEventType = eventTypeOptional.get();
-                retrievedEventType.setDeployed(status);
-                retrievedEventType.setReadyToDeploy(false);
-                eventTypeRepository.save(retrievedEventType);
-
-                String message;
-
-                if(status) {
-                     // Send deploy message
-                    message = retrievedEventType.getContent();
-                    outputChannel.basicPublish("",deployQueue, null, message.getBytes());
-                }
-                else {
-                    // Send undeploy message
-                    message = retrievedEventType.getName();
-                    outputChannel.basicPublish("",undeployQueue, null, message.getBytes());
-                }
-                
-                return true;
-            }
-            else {
-              return false;
-            }
-        } catch (IOException | TimeoutException e) {
-            return false;
-        }
+        return engine.updateDeployingStatus(id, status);
+    }
+
+    /**
+     * Finds the other event types whose normalized content is identical to the given one.
+     * @param id The ID of the event type
+     * @return List of the other EventType entities with the same content, empty if the event type does not exist
+     */
+    @ReplicaRead
+    public List<EventType> findDuplicates(Long id) {
+        return engine.findDuplicates(id);
     }
 
     /**
@@ -176,8 +105,9 @@ public class EventTypeService {
      * @param name The name to search for
      * @return List of EventType entities with the given name
      */
+    @ReplicaRead
     public List<EventType> findByName(String name) {
-        return eventTypeRepository.findByName(name);
+        return engine.findByName(name);
     }
 
     /**
@@ -186,26 +116,6 @@ public class EventTypeService {
      * @return True if the deletion was successful, false otherwise
      */
     public boolean deleteEventType(Long id) {
-        try {
-            Optional<EventType> eventTypeOptional = eventTypeRepository.findById(id);
-            if (!eventTypeOptional.isEmpty()){
-                EventType retrievedEventType = eventTypeOptional.get();
-                if (retrievedEventType.isDeployed()) {
-                    return false;
-                }
-                else if (retrievedEventType.isReadyToDeploy()) {
-                    return false;
-                }
-                else {
-                    eventTypeRepository.deleteById(id);
-                    return true;
-                }
-            }
-            else {
-                return false;
-            }      
-        } catch (Exception e) {
-            return false;
-        }
-    }    
-}
\ No newline at end of file
+        return engine.delete(id);
+    }
+}
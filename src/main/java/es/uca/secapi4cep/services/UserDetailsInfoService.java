@@ -1,12 +1,14 @@
 package es.uca.secapi4cep.services;
 
-import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import es.uca.secapi4cep.entities.User;
+import es.uca.secapi4cep.cache.CacheRegion;
+import es.uca.secapi4cep.cache.InvalidationBus;
+import es.uca.secapi4cep.cache.LocalCache;
 import es.uca.secapi4cep.entities.UserInfo;
 import es.uca.secapi4cep.repositories.UserRepository;
 
@@ -16,15 +18,21 @@ public class UserDetailsInfoService implements UserDetailsService {
 
 	private final UserRepository userRepository;
 
-    public UserDetailsInfoService(UserRepository userRepository) {
+	// User details by username, looked up on every authenticated request
+	private final LocalCache<String, UserDetails> userDetailsCache;
+
+    public UserDetailsInfoService(UserRepository userRepository, InvalidationBus invalidationBus,
+                                  @Value("${cep.cache.users.ttl-ms:60000}") long ttlMillis,
+                                  @Value("${cep.cache.users.max-size:10000}") int maxSize) {
         this.userRepository = userRepository;
+        this.userDetailsCache = new LocalCache<>(ttlMillis, maxSize);
+        invalidationBus.register(CacheRegion.USER, userDetailsCache::evict);
     }
 	
 	@Override
 	public UserDetails loadUserByUsername(String username) {
 
-		Optional<User> user = userRepository.findByUsername(username);
-		return user.map(UserInfo::new)
+		return userDetailsCache.get(username, name -> userRepository.findByUsername(name).map(UserInfo::new))
 				.orElseThrow(()-> new UsernameNotFoundException("User not found"+username));
 	}
 
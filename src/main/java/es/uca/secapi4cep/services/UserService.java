@@ -1,10 +1,17 @@
 package es.uca.secapi4cep.services;
 
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import es.uca.secapi4cep.cache.CacheRegion;
+import es.uca.secapi4cep.cache.InvalidationBus;
+import es.uca.secapi4cep.database.migration.LegacyUserRolesWriter;
+import es.uca.secapi4cep.datasource.ReplicaRead;
+import es.uca.secapi4cep.entities.Role;
 import es.uca.secapi4cep.entities.User;
 import es.uca.secapi4cep.exceptions.ResourceNotFoundException;
 import es.uca.secapi4cep.repositories.UserRepository;
@@ -15,10 +22,19 @@ public class UserService {
 	private final UserRepository userRepository;
 	private final PasswordEncoder passwordEncoder;
 
+	// Evicts the cached details of changed users on every instance
+	private final InvalidationBus invalidationBus;
+
+	// Keeps the legacy roles column in line until the contract migration drops it
+	private final LegacyUserRolesWriter legacyUserRolesWriter;
+
 	// Constructor to inject the dependencies
-	public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+	public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, InvalidationBus invalidationBus,
+			LegacyUserRolesWriter legacyUserRolesWriter) {
 		this.userRepository = userRepository;
 		this.passwordEncoder = passwordEncoder;
+		this.invalidationBus = invalidationBus;
+		this.legacyUserRolesWriter = legacyUserRolesWriter;
 	}
 
 	/**
@@ -26,18 +42,22 @@ public class UserService {
 	 * @param user The user entity to be created.
 	 * @return The created user entity.
 	 */
+	@Transactional
 	public User createUser(User user) {
 		if (user.getRoles() == null || user.getRoles().isEmpty()) {
-			user.setRoles(Collections.singletonList("USER"));
+			user.setRoles(new HashSet<>(Set.of(Role.USER)));
 		}
 		user.setPassword(passwordEncoder.encode(user.getPassword()));
-		return userRepository.save(user);
+		User savedUser = userRepository.save(user);
+		legacyUserRolesWriter.write(savedUser);
+		return savedUser;
 	}
 
 	/**
 	 * Retrieves all users from the repository.
 	 * @return An iterable of all user entities.
 	 */
+	@ReplicaRead
 	public Iterable<User> findAllUser() {
 		return userRepository.findAll();
 	}
@@ -48,6 +68,7 @@ public class UserService {
 	* @return The user entity with the specified ID.
 	* @throws ResourceNotFoundException if the user is not found.
 	*/
+	@ReplicaRead
 	public User findById(Long id) {
 		return userRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 	}
@@ -59,15 +80,25 @@ public class UserService {
 	 * @return The updated user entity.
 	 * @throws ResourceNotFoundException if the user is not found.
 	 */
+	@Transactional
 	public User updateUser(User user, Long id) {
 		User updatedUser = userRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
+		String previousUsername = updatedUser.getUsername();
 		updatedUser.setUsername(user.getUsername());
 		updatedUser.setPassword(passwordEncoder.encode(user.getPassword()));
 		updatedUser.setEmail(user.getEmail());
-		updatedUser.setRoles(user.getRoles());
-		return userRepository.save(updatedUser);
+		// The collection mapped to the role table is updated in place
+		updatedUser.getRoles().clear();
+		if (user.getRoles() != null) {
+			updatedUser.getRoles().addAll(user.getRoles());
+		}
+		User savedUser = userRepository.save(updatedUser);
+		legacyUserRolesWriter.write(savedUser);
+		invalidationBus.invalidate(CacheRegion.USER, previousUsername);
+		invalidationBus.invalidate(CacheRegion.USER, savedUser.getUsername());
+		return savedUser;
 	}
 
 	/**
@@ -78,6 +109,7 @@ public class UserService {
 	public void deleteUser(Long id) {
 		User user = userRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 		userRepository.delete(user);
+		invalidationBus.invalidate(CacheRegion.USER, user.getUsername());
 
 	}
 }
@@ -0,0 +1,19 @@
+package es.uca.secapi4cep.validation;
+
+import es.uca.secapi4cep.deployment.ArtifactKind;
+
+/**
+ * Stage of the pre-deployment validation pipeline. Every bean implementing
+ * this interface is run, in order, on the contents about to be deployed.
+ * Implementations must be stateless: their results are cached by content.
+ */
+public interface EplValidator {
+
+    /**
+     * Validates an EPL content.
+     * @param kind The kind of artifact the content belongs to
+     * @param content The EPL content
+     * @return The validation result
+     */
+    ValidationResult validate(ArtifactKind kind, String content);
+}
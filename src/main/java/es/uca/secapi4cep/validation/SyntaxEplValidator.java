@@ -0,0 +1,146 @@
+package es.uca.secapi4cep.validation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import es.uca.secapi4cep.deployment.ArtifactKind;
+import es.uca.secapi4cep.deployment.EplDependencyExtractor;
+
+/**
+ * Lexical and structural checks every EPL content must pass: balanced
+ * brackets, closed literals and comments, and statements that start with a
+ * known keyword. Event types must also declare a schema.
+ */
+@Component
+@Order(0)
+public class SyntaxEplValidator implements EplValidator {
+
+    // Keywords an EPL statement can start with, once its annotations are skipped
+    private static final Set<String> STATEMENT_KEYWORDS = Set.of(
+        "select", "insert", "create", "on", "update", "delete", "expression", "context");
+
+    @Override
+    public ValidationResult validate(ArtifactKind kind, String content) {
+        if (content == null || content.isBlank()) {
+            return ValidationResult.invalid("The content is empty.");
+        }
+        ValidationResult result = checkStructure(content);
+        if (!result.isValid()) {
+            return result;
+        }
+
+        List<List<String>> statements = statements(EplDependencyExtractor.tokenize(content));
+        if (statements.isEmpty()) {
+            return ValidationResult.invalid("The content has no statements.");
+        }
+        for (List<String> statement : statements) {
+            String keyword = statement.get(0).toLowerCase(Locale.ROOT);
+            if (!STATEMENT_KEYWORDS.contains(keyword)) {
+                result = result.and(ValidationResult.invalid("Unexpected '" + statement.get(0) + "' at the start of a statement."));
+            } else if ((keyword.equals("select") || keyword.equals("insert")) && !contains(statement, "from")) {
+                result = result.and(ValidationResult.invalid("A " + keyword + " statement has no from clause."));
+            }
+        }
+        if (kind == ArtifactKind.EVENT_TYPE && statements.stream().noneMatch(statement ->
+                statement.get(0).equalsIgnoreCase("create") && contains(statement, "schema"))) {
+            result = result.and(ValidationResult.invalid("An event type must declare a schema with 'create schema'."));
+        }
+        return result;
+    }
+
+    // Checks that brackets match and that literals and comments are closed
+    private static ValidationResult checkStructure(String content) {
+        Deque<Character> brackets = new ArrayDeque<>();
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            char c = content.charAt(i);
+            if (c == '/' && i + 1 < length && content.charAt(i + 1) == '/') {
+                int end = content.indexOf('\n', i);
+                i = end < 0 ? length : end;
+            } else if (c == '/' && i + 1 < length && content.charAt(i + 1) == '*') {
+                int end = content.indexOf("*/", i + 2);
+                if (end < 0) {
+                    return ValidationResult.invalid("Unclosed comment at position " + i + ".");
+                }
+                i = end + 2;
+            } else if (c == '\'' || c == '"' || c == '`') {
+                int start = i++;
+                while (i < length && content.charAt(i) != c) {
+                    i += content.charAt(i) == '\\' ? 2 : 1;
+                }
+                if (i >= length) {
+                    return ValidationResult.invalid("Unclosed literal at position " + start + ".");
+                }
+                i++;
+            } else {
+                if (c == '(' || c == '[' || c == '{') {
+                    brackets.push(c);
+                } else if (c == ')' || c == ']' || c == '}') {
+                    char expected = c == ')' ? '(' : c == ']' ? '[' : '{';
+                    if (brackets.isEmpty() || brackets.pop() != expected) {
+                        return ValidationResult.invalid("Unbalanced '" + c + "' at position " + i + ".");
+                    }
+                }
+                i++;
+            }
+        }
+        if (!brackets.isEmpty()) {
+            return ValidationResult.invalid("Unclosed '" + brackets.peek() + "'.");
+        }
+        return ValidationResult.valid();
+    }
+
+    // Splits the tokens into statements and drops the leading annotations of each one
+    private static List<List<String>> statements(List<String> tokens) {
+        List<List<String>> statements = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int i = 0;
+        while (i < tokens.size()) {
+            String token = tokens.get(i);
+            if (token.equals(";")) {
+                if (!current.isEmpty()) {
+                    statements.add(current);
+                }
+                current = new ArrayList<>();
+                i++;
+            } else if (current.isEmpty() && token.startsWith("@")) {
+                i = skipAnnotation(tokens, i);
+            } else {
+                current.add(token);
+                i++;
+            }
+        }
+        if (!current.isEmpty()) {
+            statements.add(current);
+        }
+        return statements;
+    }
+
+    // Returns the index following an annotation and its parameters
+    private static int skipAnnotation(List<String> tokens, int index) {
+        int i = index + 1;
+        if (i < tokens.size() && tokens.get(i).equals("(")) {
+            int depth = 0;
+            for (; i < tokens.size(); i++) {
+                if (tokens.get(i).equals("(")) {
+                    depth++;
+                } else if (tokens.get(i).equals(")") && --depth == 0) {
+                    return i + 1;
+                }
+            }
+        }
+        return i;
+    }
+
+    private static boolean contains(List<String> statement, String keyword) {
+        return statement.stream().anyMatch(token -> token.equalsIgnoreCase(keyword));
+    }
+}
@@ -0,0 +1,59 @@
+package es.uca.secapi4cep.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of validating an EPL content.
+ * @param errors The problems found, empty if the content is valid
+ */
+public record ValidationResult(List<String> errors) {
+
+    private static final ValidationResult VALID = new ValidationResult(List.of());
+
+    public ValidationResult {
+        errors = List.copyOf(errors);
+    }
+
+    /**
+     * Returns the result of a content without problems.
+     * @return A valid result
+     */
+    public static ValidationResult valid() {
+        return VALID;
+    }
+
+    /**
+     * Creates the result of a content with a single problem.
+     * @param error The problem found
+     * @return An invalid result
+     */
+    public static ValidationResult invalid(String error) {
+        return new ValidationResult(List.of(error));
+    }
+
+    /**
+     * Checks whether the content is valid.
+     * @return True if no problems were found
+     */
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    /**
+     * Combines this result with another one.
+     * @param other The other result
+     * @return A result with the problems of both
+     */
+    public ValidationResult and(ValidationResult other) {
+        if (other.isValid()) {
+            return this;
+        }
+        if (isValid()) {
+            return other;
+        }
+        List<String> combined = new ArrayList<>(errors);
+        combined.addAll(other.errors);
+        return new ValidationResult(combined);
+    }
+}
@@ -0,0 +1,20 @@
+-- Expand: content hash and optimistic lock version of the artifacts, and a content_data column for the contents
+-- stored as (possibly compressed) bytes. Adding nullable or defaulted columns and changing a default only touch
+-- the table metadata; changing the type of content in place would rebuild the table and block writes meanwhile.
+-- Migration 5.2 copies the contents into content_data, and the contract migration 7 drops the content column.
+-- Until then the application keeps writing content too, so that instances of the previous version keep working;
+-- its default lets the application insert rows without knowing their ID yet. Artifacts the previous version
+-- creates meanwhile are copied by the contract migration, but its edits to artifacts already copied are not:
+-- artifacts must be edited through the new version once the rollout has started.
+
+alter table TABLE_EVENT_TYPE
+    add column content_hash varchar(64),
+    add column version bigint not null default 0,
+    add column content_data longblob,
+    alter column content set default '';
+
+alter table TABLE_EVENT_PATTERN
+    add column content_hash varchar(64),
+    add column version bigint not null default 0,
+    add column content_data longblob,
+    alter column content set default '';
@@ -0,0 +1,19 @@
+-- Expand: lease of the deployment leader and outbox of the operations it publishes.
+
+create table if not exists TABLE_DEPLOYMENT_LEASE (
+    name varchar(64) not null,
+    owner varchar(128) not null,
+    expires_at bigint not null,
+    primary key (name)
+) engine=InnoDB;
+
+create table if not exists TABLE_DEPLOYMENT_OUTBOX (
+    id bigint not null auto_increment,
+    kind varchar(16) not null,
+    artifact_id bigint not null,
+    artifact_sequence bigint not null,
+    action varchar(16) not null,
+    name varchar(255) not null,
+    content longblob not null,
+    primary key (id)
+) engine=InnoDB;
@@ -0,0 +1,33 @@
+-- Schema of the API as generated by Hibernate before migrations were introduced.
+-- Databases that already have these tables are baselined at this version without running it.
+
+create table if not exists TABLE_EVENT_TYPE (
+    id bigint not null auto_increment,
+    is_deployed bit not null,
+    is_ready_to_deploy bit not null,
+    content varchar(2044) not null,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_event_type_name unique (name)
+) engine=InnoDB;
+
+create table if not exists TABLE_EVENT_PATTERN (
+    id bigint not null auto_increment,
+    is_deployed bit not null,
+    is_ready_to_deploy bit not null,
+    content varchar(2044) not null,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_event_pattern_name unique (name)
+) engine=InnoDB;
+
+create table if not exists TABLE_USER (
+    id bigint not null auto_increment,
+    email varchar(50) not null,
+    password varchar(64) not null,
+    username varchar(50) not null,
+    roles varbinary(255),
+    primary key (id),
+    constraint uk_user_username unique (username),
+    constraint uk_user_email unique (email)
+) engine=InnoDB;
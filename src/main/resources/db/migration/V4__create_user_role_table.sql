@@ -0,0 +1,10 @@
+-- Expand: roles move from the serialized TABLE_USER.roles column to one row per role.
+-- The old column stays until the contract migration, so instances of the previous version keep working;
+-- until then LegacyUserRolesWriter also writes every role change to it.
+
+create table if not exists TABLE_USER_ROLE (
+    user_id bigint not null,
+    role varchar(32) not null,
+    primary key (user_id, role),
+    constraint fk_user_role_user foreign key (user_id) references TABLE_USER (id) on delete cascade
+) engine=InnoDB;
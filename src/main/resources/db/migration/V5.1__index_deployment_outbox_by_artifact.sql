@@ -0,0 +1,4 @@
+-- Expand: the leader loads every pending operation of the artifacts in a batch, and writers look up
+-- the last sequence number of an artifact.
+
+alter table TABLE_DEPLOYMENT_OUTBOX add index idx_deployment_outbox_artifact (kind, artifact_id, artifact_sequence), algorithm=inplace, lock=none;
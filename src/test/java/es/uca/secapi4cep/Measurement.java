@@ -0,0 +1,47 @@
+package es.uca.secapi4cep;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Bytes allocated and time taken by one run of a piece of code on the current
+ * thread, averaged over many runs after warming it up. Good enough to compare
+ * two implementations side by side, not to report absolute figures.
+ * @param bytesPerRun The bytes allocated by every run
+ * @param nanosPerRun The time taken by every run, in nanoseconds
+ */
+public record Measurement(long bytesPerRun, long nanosPerRun) {
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Measures a piece of code.
+     * @param warmup The runs to discard while the JIT compiles the code
+     * @param runs The runs to measure
+     * @param code The code to measure
+     * @return The measurement
+     */
+    public static Measurement of(int warmup, int runs, ThrowingRunnable code) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            code.run();
+        }
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            code.run();
+        }
+        long nanos = System.nanoTime() - start;
+        return new Measurement((THREADS.getCurrentThreadAllocatedBytes() - bytes) / runs, nanos / runs);
+    }
+
+    @Override
+    public String toString() {
+        return bytesPerRun + " B, " + nanosPerRun + " ns";
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
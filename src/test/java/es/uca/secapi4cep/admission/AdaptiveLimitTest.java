@@ -0,0 +1,51 @@
+package es.uca.secapi4cep.admission;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveLimitTest {
+
+    @Test
+    void congestionExpiresOnceRequestsStop() throws InterruptedException {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 1, 100);
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertFalse(limit.isCongested());
+
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        assertTrue(limit.isCongested());
+
+        // No request completes to clear it, as when the congested class is idle
+        Thread.sleep(1_100);
+        assertFalse(limit.isCongested());
+    }
+
+    @Test
+    void congestionClearsWhenLatencyRecovers() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 1, 100);
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        assertTrue(limit.isCongested());
+
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertFalse(limit.isCongested());
+    }
+}
@@ -0,0 +1,108 @@
+package es.uca.secapi4cep.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.Test;
+
+class AuditRingBufferTest {
+
+    private static final int PRODUCERS = 8;
+
+    @Test
+    void deliversEveryElementOnceAndInOrderBelowCapacity() throws Exception {
+        int perProducer = 5_000;
+        AuditRingBuffer<Long> buffer = new AuditRingBuffer<>(PRODUCERS * perProducer);
+        List<Long> drained = new ArrayList<>();
+
+        List<Integer> accepted = offerConcurrently(buffer, perProducer, () -> buffer.drain(drained::add, 256));
+        buffer.drain(drained::add, Integer.MAX_VALUE);
+
+        assertEquals(PRODUCERS * perProducer, accepted.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(0, buffer.dropped());
+        assertEquals(PRODUCERS * perProducer, drained.size());
+        assertEquals(drained.size(), new HashSet<>(drained).size());
+        // Each producer claims its slots in order, so its elements are drained in the order it offered them
+        long[] last = new long[PRODUCERS];
+        for (long element : drained) {
+            int producer = (int) (element / perProducer);
+            assertTrue(element >= last[producer]);
+            last[producer] = element;
+        }
+    }
+
+    @Test
+    void countsEveryDroppedElementAboveCapacity() throws Exception {
+        int perProducer = 5_000;
+        AuditRingBuffer<Long> buffer = new AuditRingBuffer<>(1_024);
+        List<Long> drained = new ArrayList<>();
+
+        List<Integer> accepted = offerConcurrently(buffer, perProducer, () -> buffer.drain(drained::add, 16));
+        buffer.drain(drained::add, Integer.MAX_VALUE);
+
+        int offered = PRODUCERS * perProducer;
+        int acceptedTotal = accepted.stream().mapToInt(Integer::intValue).sum();
+        assertEquals(offered - acceptedTotal, buffer.dropped());
+        assertEquals(acceptedTotal, drained.size());
+        assertEquals(drained.size(), new HashSet<>(drained).size());
+    }
+
+    @Test
+    void keepsExactlyItsCapacityWhenNothingDrains() throws Exception {
+        AuditRingBuffer<Long> buffer = new AuditRingBuffer<>(1_024);
+        Set<Long> drained = new HashSet<>();
+
+        List<Integer> accepted = offerConcurrently(buffer, 1_000, () -> 0);
+
+        assertEquals(1_024, accepted.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(PRODUCERS * 1_000 - 1_024, buffer.dropped());
+        assertEquals(1_024, buffer.drain(drained::add, Integer.MAX_VALUE));
+        assertEquals(1_024, drained.size());
+    }
+
+    // Offers distinct elements from every producer at once while the calling thread keeps draining,
+    // and returns the number of elements each producer got accepted
+    private static List<Integer> offerConcurrently(AuditRingBuffer<Long> buffer, int perProducer, IntSupplier drain)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> producers = new ArrayList<>();
+            for (int producer = 0; producer < PRODUCERS; producer++) {
+                long first = (long) producer * perProducer;
+                producers.add(executor.submit(() -> {
+                    start.await();
+                    int accepted = 0;
+                    for (long element = first; element < first + perProducer; element++) {
+                        if (buffer.offer(element)) {
+                            accepted++;
+                        }
+                    }
+                    return accepted;
+                }));
+            }
+            start.countDown();
+            while (!producers.stream().allMatch(Future::isDone)) {
+                drain.getAsInt();
+            }
+            List<Integer> accepted = new ArrayList<>();
+            for (Future<Integer> producer : producers) {
+                accepted.add(producer.get(10, TimeUnit.SECONDS));
+            }
+            return accepted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
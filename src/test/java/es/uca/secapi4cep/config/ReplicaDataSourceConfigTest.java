@@ -0,0 +1,53 @@
+package es.uca.secapi4cep.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import es.uca.secapi4cep.datasource.DataSourceRouting;
+import es.uca.secapi4cep.datasource.ReplicaRoutingDataSource;
+
+class ReplicaDataSourceConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+        .withUserConfiguration(ReplicaDataSourceConfig.class)
+        .withPropertyValues(
+            "spring.datasource.url=jdbc:mysql://primary:3306/cep",
+            "spring.datasource.username=cep",
+            "spring.datasource.password=secret",
+            "spring.datasource.hikari.maximum-pool-size=30",
+            "spring.datasource.hikari.connection-timeout=1500",
+            "spring.datasource.hikari.data-source-properties.cachePrepStmts=true",
+            "cep.datasource.replica.url=jdbc:mysql://replica:3306/cep",
+            "cep.datasource.replica.pool-size=12");
+
+    @Test
+    void bindsTheHikariSettingsToBothPools() {
+        contextRunner.run(context -> {
+            HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+            assertEquals("primary", primary.getPoolName());
+            assertEquals(30, primary.getMaximumPoolSize());
+            assertEquals(1500, primary.getConnectionTimeout());
+
+            DataSource routing = ((LazyConnectionDataSourceProxy) context.getBean("dataSource")).getTargetDataSource();
+            HikariDataSource replica = (HikariDataSource) ((ReplicaRoutingDataSource) routing).getResolvedDataSources()
+                .get(DataSourceRouting.Route.REPLICA);
+            assertEquals("jdbc:mysql://replica:3306/cep", replica.getJdbcUrl());
+            assertEquals("cep", replica.getUsername());
+            assertEquals(12, replica.getMaximumPoolSize());
+            assertEquals(1500, replica.getConnectionTimeout());
+            assertEquals("true", replica.getDataSourceProperties().getProperty("cachePrepStmts"));
+            assertTrue(replica.isReadOnly());
+        });
+    }
+}
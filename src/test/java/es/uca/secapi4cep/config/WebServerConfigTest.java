@@ -0,0 +1,54 @@
+package es.uca.secapi4cep.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class WebServerConfigTest {
+
+    @Test
+    void takesTheClientAddressFromTrustedProxies() throws Exception {
+        // The test client connects from the loopback address, trusted by default
+        assertEquals("203.0.113.7", remoteAddress(null, "203.0.113.7"));
+        assertEquals("203.0.113.7", remoteAddress(null, "203.0.113.7, 10.0.0.2"));
+    }
+
+    @Test
+    void ignoresForwardedAddressesFromOtherClients() throws Exception {
+        assertEquals("127.0.0.1", remoteAddress("10\\.1\\.2\\.3", "203.0.113.7"));
+        assertEquals("127.0.0.1", remoteAddress("", "203.0.113.7"));
+    }
+
+    // Remote address seen by the application for a request forwarded for the given addresses
+    private static String remoteAddress(String trustedProxies, String forwardedFor) throws Exception {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        new WebServerConfig().remoteIpCustomizer(trustedProxies).customize(factory);
+        WebServer server = factory.getWebServer(context -> context.addServlet("echo", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.getWriter().write(request.getRemoteAddr());
+            }
+        }).addMapping("/"));
+        server.start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + "/"))
+                .header("X-Forwarded-For", forwardedFor)
+                .build();
+            return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package es.uca.secapi4cep.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import es.uca.secapi4cep.database.migration.AddMissingLookupIndexes;
+import es.uca.secapi4cep.database.migration.BackfillContentHashes;
+import es.uca.secapi4cep.database.migration.CopyArtifactContents;
+import es.uca.secapi4cep.database.migration.DropLegacyArtifactContentColumn;
+import es.uca.secapi4cep.database.migration.DropLegacyUserRolesColumn;
+import es.uca.secapi4cep.database.migration.MoveUserRolesToTable;
+import es.uca.secapi4cep.deployment.ContentHash;
+import es.uca.secapi4cep.entities.CompressedContentConverter;
+
+@Testcontainers(disabledWithoutDocker = true)
+class MigrationRunnerTest {
+
+    @Container
+    static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    // Schema Hibernate generated for the entities before migrations were introduced, with its auto-named constraints
+    static final List<String> PRE_MIGRATION_SCHEMA = List.of(
+        "create table TABLE_EVENT_PATTERN (id bigint not null auto_increment, is_deployed bit not null, "
+            + "is_ready_to_deploy bit not null, content varchar(2044) not null, name varchar(255) not null, "
+            + "primary key (id)) engine=InnoDB",
+        "create table TABLE_EVENT_TYPE (id bigint not null auto_increment, is_deployed bit not null, "
+            + "is_ready_to_deploy bit not null, content varchar(2044) not null, name varchar(255) not null, "
+            + "primary key (id)) engine=InnoDB",
+        "create table TABLE_USER (id bigint not null auto_increment, email varchar(50) not null, "
+            + "password varchar(64) not null, username varchar(50) not null, roles varbinary(255), "
+            + "primary key (id)) engine=InnoDB",
+        "alter table TABLE_EVENT_PATTERN add constraint UK_9d4qj6dkm8bplgd0w8s7v1g0a unique (name)",
+        "alter table TABLE_EVENT_TYPE add constraint UK_5yv1anp1tiuwfrq5ri4p51d8r unique (name)",
+        "alter table TABLE_USER add constraint UK_pt8p7gkjy5vl1hdoxqh0a0avm unique (email)",
+        "alter table TABLE_USER add constraint UK_jct1mpgtkiq9u6aw2qgqbrmip unique (username)");
+
+    private static final String EVENT_TYPE_CONTENT = "@public @buseventtype create schema Temperature(sensor string, value double)";
+
+    private static final String EVENT_PATTERN_CONTENT = "@name('HighTemperature') select * from Temperature where value > 40";
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void emptyDatabase() {
+        dataSource = new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("set foreign_key_checks = 0");
+        for (String table : jdbcTemplate.queryForList("select table_name from information_schema.tables "
+                + "where table_schema = database()", String.class)) {
+            jdbcTemplate.execute("drop table " + table);
+        }
+        jdbcTemplate.execute("set foreign_key_checks = 1");
+    }
+
+    @Test
+    void migratesDatabaseCreatedBeforeMigrations() throws Exception {
+        PRE_MIGRATION_SCHEMA.forEach(jdbcTemplate::execute);
+        jdbcTemplate.update("insert into TABLE_EVENT_TYPE (is_deployed, is_ready_to_deploy, content, name) values (1, 0, ?, ?)",
+            EVENT_TYPE_CONTENT, "Temperature");
+        jdbcTemplate.update("insert into TABLE_EVENT_PATTERN (is_deployed, is_ready_to_deploy, content, name) values (0, 1, ?, ?)",
+            EVENT_PATTERN_CONTENT, "HighTemperature");
+        jdbcTemplate.update("insert into TABLE_USER (email, password, username, roles) values (?, ?, ?, ?)",
+            "admin@uca.es", "$2a$10$hash", "admin", serialize(new ArrayList<>(List.of("ADMIN", "USER"))));
+
+        runner().afterPropertiesSet();
+
+        assertEquals("BASELINE", jdbcTemplate.queryForObject("select type from " + MigrationRunner.HISTORY_TABLE
+            + " where version = '1'", String.class));
+        assertEquals(List.of("1", "1.1", "1.2", "2", "3", "4", "5", "5.1", "5.2"), appliedVersions());
+
+        assertEquals("longblob", columnType("TABLE_EVENT_TYPE", "content_data"));
+        assertEquals("longblob", columnType("TABLE_EVENT_PATTERN", "content_data"));
+        assertEquals(EVENT_TYPE_CONTENT, content("TABLE_EVENT_TYPE"));
+        assertEquals(EVENT_PATTERN_CONTENT, content("TABLE_EVENT_PATTERN"));
+        assertEquals(0L, jdbcTemplate.queryForObject("select version from TABLE_EVENT_TYPE", Long.class));
+        assertEquals(ContentHash.of(EVENT_TYPE_CONTENT), jdbcTemplate.queryForObject(
+            "select content_hash from TABLE_EVENT_TYPE", String.class));
+        assertEquals(ContentHash.of(EVENT_PATTERN_CONTENT), jdbcTemplate.queryForObject(
+            "select content_hash from TABLE_EVENT_PATTERN", String.class));
+        assertTrue(hasIndex("TABLE_EVENT_TYPE", "idx_event_type_content_hash"));
+        assertTrue(hasIndex("TABLE_EVENT_PATTERN", "idx_event_pattern_state"));
+        assertTrue(tableExists("TABLE_DEPLOYMENT_LEASE"));
+        assertTrue(tableExists("TABLE_DEPLOYMENT_OUTBOX"));
+        assertEquals(List.of("ADMIN", "USER"), jdbcTemplate.queryForList(
+            "select role from TABLE_USER_ROLE order by role", String.class));
+    }
+
+    @Test
+    void createsSchemaOfEmptyDatabaseOnce() throws Exception {
+        runner().afterPropertiesSet();
+        runner().afterPropertiesSet();
+
+        assertEquals("SQL", jdbcTemplate.queryForObject("select type from " + MigrationRunner.HISTORY_TABLE
+            + " where version = '1'", String.class));
+        assertEquals(List.of("1", "1.1", "1.2", "2", "3", "4", "5", "5.1", "5.2"), appliedVersions());
+        assertEquals("longblob", columnType("TABLE_EVENT_TYPE", "content_data"));
+        assertTrue(hasIndex("TABLE_EVENT_TYPE", "idx_event_type_content_hash"));
+        assertTrue(tableExists("TABLE_USER_ROLE"));
+    }
+
+    @Test
+    void contractsOnceEnabled() throws Exception {
+        runner().afterPropertiesSet();
+        // Written by an instance of the previous version during the rollout, after the expand migrations
+        jdbcTemplate.update("insert into TABLE_EVENT_TYPE (is_deployed, is_ready_to_deploy, content, name) values (0, 0, ?, ?)",
+            EVENT_TYPE_CONTENT, "Temperature");
+
+        runner(true).afterPropertiesSet();
+
+        assertEquals(List.of("1", "1.1", "1.2", "2", "3", "4", "5", "5.1", "5.2", "6", "7"), appliedVersions());
+        assertNull(columnType("TABLE_EVENT_TYPE", "content"));
+        assertNull(columnType("TABLE_EVENT_PATTERN", "content"));
+        assertNull(columnType("TABLE_USER", "roles"));
+        assertEquals(EVENT_TYPE_CONTENT, content("TABLE_EVENT_TYPE"));
+    }
+
+    private MigrationRunner runner() {
+        return runner(false);
+    }
+
+    private MigrationRunner runner(boolean contract) {
+        List<JavaMigration> javaMigrations = List.of(new AddMissingLookupIndexes(), new BackfillContentHashes(2, 0),
+            new MoveUserRolesToTable(2, 0), new CopyArtifactContents(2, 0), new DropLegacyUserRolesColumn(2, 0),
+            new DropLegacyArtifactContentColumn(2, 0));
+        return new MigrationRunner(dataSource, javaMigrations, true, contract, 5, 1);
+    }
+
+    private List<String> appliedVersions() {
+        List<String> versions = jdbcTemplate.queryForList("select version from " + MigrationRunner.HISTORY_TABLE, String.class);
+        versions.sort(MigrationRunner::compareVersions);
+        return versions;
+    }
+
+    private String columnType(String table, String column) {
+        List<String> types = jdbcTemplate.queryForList("select lower(data_type) from information_schema.columns "
+            + "where table_schema = database() and table_name = ? and column_name = ?", String.class, table, column);
+        return types.isEmpty() ? null : types.get(0);
+    }
+
+    // Content of the single artifact of a table, as the application reads it
+    private String content(String table) {
+        return new CompressedContentConverter().convertToEntityAttribute(
+            jdbcTemplate.queryForObject("select content_data from " + table, byte[].class));
+    }
+
+    private boolean hasIndex(String table, String index) {
+        return jdbcTemplate.queryForObject("select count(*) from information_schema.statistics "
+            + "where table_schema = database() and table_name = ? and index_name = ?", Integer.class, table, index) > 0;
+    }
+
+    private boolean tableExists(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from information_schema.tables "
+            + "where table_schema = database() and table_name = ?", Integer.class, table) > 0;
+    }
+
+    // Hibernate stored List<String> columns as a serialized ArrayList
+    private static byte[] serialize(ArrayList<String> roles) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(roles);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,92 @@
+package es.uca.secapi4cep.database;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import es.uca.secapi4cep.database.migration.AddMissingLookupIndexes;
+import es.uca.secapi4cep.database.migration.BackfillContentHashes;
+import es.uca.secapi4cep.database.migration.CopyArtifactContents;
+import es.uca.secapi4cep.database.migration.DropLegacyUserRolesColumn;
+import es.uca.secapi4cep.database.migration.MoveUserRolesToTable;
+
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanVerifierMySQLTest {
+
+    @Container
+    static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void emptyDatabase() {
+        DataSource dataSource = new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("set foreign_key_checks = 0");
+        for (String table : jdbcTemplate.queryForList("select table_name from information_schema.tables "
+                + "where table_schema = database()", String.class)) {
+            jdbcTemplate.execute("drop table " + table);
+        }
+        jdbcTemplate.execute("set foreign_key_checks = 1");
+    }
+
+    @Test
+    void acceptsLookupsOnEmptyTables() throws Exception {
+        migrate();
+
+        assertDoesNotThrow(new QueryPlanVerifier(jdbcTemplate)::verify);
+    }
+
+    @Test
+    void acceptsLookupsWhereAScanWouldBeCheaper() throws Exception {
+        migrate();
+        // Every artifact deployed: on its own, MySQL would scan the table for is_deployed = true
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            rows.add(new Object[] { "Type" + i, new byte[] { 1 }, "hash" + i });
+        }
+        jdbcTemplate.batchUpdate("insert into TABLE_EVENT_TYPE (is_deployed, is_ready_to_deploy, name, content_data, content_hash) "
+            + "values (1, 0, ?, ?, ?)", rows);
+        jdbcTemplate.execute("analyze table TABLE_EVENT_TYPE");
+
+        assertDoesNotThrow(new QueryPlanVerifier(jdbcTemplate)::verify);
+    }
+
+    @Test
+    void acceptsLookupsOfASchemaBaselinedFromHibernate() throws Exception {
+        // Its unique keys keep the names Hibernate generated, since their columns are already indexed
+        MigrationRunnerTest.PRE_MIGRATION_SCHEMA.forEach(jdbcTemplate::execute);
+        migrate();
+
+        assertDoesNotThrow(new QueryPlanVerifier(jdbcTemplate)::verify);
+    }
+
+    @Test
+    void rejectsLookupWithoutItsIndex() throws Exception {
+        migrate();
+        jdbcTemplate.execute("drop index idx_event_pattern_content_hash on TABLE_EVENT_PATTERN");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, new QueryPlanVerifier(jdbcTemplate)::verify);
+        assertTrue(e.getMessage().contains("'select id from TABLE_EVENT_PATTERN where content_hash = 'x'' uses no index"));
+    }
+
+    private void migrate() throws Exception {
+        DataSource dataSource = jdbcTemplate.getDataSource();
+        List<JavaMigration> javaMigrations = List.of(new AddMissingLookupIndexes(), new BackfillContentHashes(2, 0),
+            new MoveUserRolesToTable(2, 0), new CopyArtifactContents(2, 0), new DropLegacyUserRolesColumn(2, 0));
+        new MigrationRunner(dataSource, javaMigrations, true, false, 5, 1).afterPropertiesSet();
+    }
+}
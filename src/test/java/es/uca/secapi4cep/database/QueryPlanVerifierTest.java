@@ -0,0 +1,142 @@
+package es.uca.secapi4cep.database;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class QueryPlanVerifierTest {
+
+    // Indexes of the migrated schema, as table, index name and column
+    private static final List<String[]> MIGRATED_INDEXES = List.of(
+        new String[] { "TABLE_EVENT_TYPE", "uk_event_type_name", "name" },
+        new String[] { "TABLE_EVENT_TYPE", "idx_event_type_state", "is_deployed" },
+        new String[] { "TABLE_EVENT_TYPE", "idx_event_type_state", "is_ready_to_deploy" },
+        new String[] { "TABLE_EVENT_TYPE", "idx_event_type_content_hash", "content_hash" },
+        new String[] { "TABLE_EVENT_PATTERN", "uk_event_pattern_name", "name" },
+        new String[] { "TABLE_EVENT_PATTERN", "idx_event_pattern_state", "is_deployed" },
+        new String[] { "TABLE_EVENT_PATTERN", "idx_event_pattern_state", "is_ready_to_deploy" },
+        new String[] { "TABLE_EVENT_PATTERN", "idx_event_pattern_content_hash", "content_hash" },
+        new String[] { "TABLE_USER", "uk_user_username", "username" });
+
+    private final Statement statement = mock(Statement.class);
+
+    private QueryPlanVerifier verifier;
+
+    @BeforeEach
+    void explainingConnection() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        // By default every lookup goes through the index expected for it
+        when(statement.executeQuery(anyString())).thenAnswer(invocation -> plan("ref", expectedIndex(invocation.getArgument(0))));
+        indexes(MIGRATED_INDEXES);
+        verifier = new QueryPlanVerifier(new JdbcTemplate(dataSource));
+    }
+
+    @Test
+    void acceptsLookupsThroughTheirIndexes() throws SQLException {
+        assertDoesNotThrow(verifier::verify);
+
+        InOrder order = inOrder(statement);
+        order.verify(statement).execute("set session max_seeks_for_key = 1");
+        order.verify(statement).execute("set session max_seeks_for_key = default");
+    }
+
+    @Test
+    void acceptsIndexesNamedByHibernate() throws SQLException {
+        // Schemas baselined from Hibernate keep its names for the unique keys
+        List<String[]> baselined = new ArrayList<>(MIGRATED_INDEXES);
+        baselined.replaceAll(index -> index[1].equals("uk_user_username")
+            ? new String[] { "TABLE_USER", "UK_jct1mpgtkiq9u6aw2qgqbrmip", "username" } : index);
+        indexes(baselined);
+        when(statement.executeQuery("explain select id from TABLE_USER where username in ('x', 'y')"))
+            .thenAnswer(invocation -> plan("range", "UK_jct1mpgtkiq9u6aw2qgqbrmip"));
+
+        assertDoesNotThrow(verifier::verify);
+    }
+
+    @Test
+    void rejectsTableScans() throws SQLException {
+        ResultSet scan = plan("ALL", null);
+        when(statement.executeQuery("explain select id from TABLE_EVENT_TYPE where is_deployed = true")).thenReturn(scan);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, verifier::verify);
+        assertTrue(e.getMessage().contains("'select id from TABLE_EVENT_TYPE where is_deployed = true' uses no index (access type ALL)"));
+    }
+
+    @Test
+    void rejectsLookupsThroughAnIndexOnOtherColumns() throws SQLException {
+        ResultSet otherIndex = plan("ref", "idx_event_pattern_state");
+        when(statement.executeQuery("explain select id from TABLE_EVENT_PATTERN where content_hash = 'x'")).thenReturn(otherIndex);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, verifier::verify);
+        assertTrue(e.getMessage().contains("uses idx_event_pattern_state [is_deployed, is_ready_to_deploy] (access type ref) "
+            + "instead of an index on [content_hash]"));
+    }
+
+    @Test
+    void rejectsFullIndexScans() throws SQLException {
+        ResultSet indexScan = plan("index", "uk_user_username");
+        when(statement.executeQuery("explain select id from TABLE_USER where username in ('x', 'y')")).thenReturn(indexScan);
+
+        assertThrows(IllegalStateException.class, verifier::verify);
+    }
+
+    private static ResultSet plan(String type, String key) throws SQLException {
+        ResultSet plan = mock(ResultSet.class);
+        when(plan.next()).thenReturn(true);
+        when(plan.getString("type")).thenReturn(type);
+        when(plan.getString("key")).thenReturn(key);
+        return plan;
+    }
+
+    // Answers the query on information_schema.statistics with the given index columns
+    private void indexes(List<String[]> columns) throws SQLException {
+        when(statement.executeQuery(startsWith("select table_name, index_name, column_name"))).thenAnswer(invocation -> {
+            Iterator<String[]> rows = columns.iterator();
+            String[][] current = new String[1][];
+            ResultSet result = mock(ResultSet.class);
+            when(result.next()).thenAnswer(next -> {
+                current[0] = rows.hasNext() ? rows.next() : null;
+                return current[0] != null;
+            });
+            when(result.getString("table_name")).thenAnswer(get -> current[0][0]);
+            when(result.getString("index_name")).thenAnswer(get -> current[0][1]);
+            when(result.getString("column_name")).thenAnswer(get -> current[0][2]);
+            return result;
+        });
+    }
+
+    // Index each lookup of the verifier uses, following the naming of the migrations
+    private static String expectedIndex(String explain) {
+        String kind = explain.contains("TABLE_EVENT_TYPE") ? "event_type" : "event_pattern";
+        if (explain.contains("TABLE_USER")) {
+            return "uk_user_username";
+        }
+        if (explain.contains("name in")) {
+            return "uk_" + kind + "_name";
+        }
+        return explain.contains("content_hash") ? "idx_" + kind + "_content_hash" : "idx_" + kind + "_state";
+    }
+}
@@ -0,0 +1,66 @@
+package es.uca.secapi4cep.database.migration;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import es.uca.secapi4cep.deployment.ArtifactKind;
+
+class LegacyArtifactContentWriterTest {
+
+    private static final String UPDATE = "update TABLE_EVENT_TYPE set content = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final LegacyArtifactContentWriter writer = new LegacyArtifactContentWriter(jdbcTemplate);
+
+    @Test
+    void writesTheLegacyColumnOfEachKindWhileItExists() {
+        legacyColumns("TABLE_EVENT_TYPE", 1);
+        legacyColumns("TABLE_EVENT_PATTERN", 0);
+
+        writer.write(ArtifactKind.EVENT_TYPE, 7L, "a");
+        writer.write(ArtifactKind.EVENT_TYPE, 7L, "b");
+        writer.write(ArtifactKind.EVENT_PATTERN, 7L, "c");
+
+        verify(jdbcTemplate).update(UPDATE, "a", 7L);
+        verify(jdbcTemplate).update(UPDATE, "b", 7L);
+        verify(jdbcTemplate, never()).update(eq("update TABLE_EVENT_PATTERN set content = ? where id = ?"), anyString(), eq(7L));
+    }
+
+    @Test
+    void leavesContentsTooLongForTheLegacyColumn() {
+        legacyColumns("TABLE_EVENT_TYPE", 1);
+
+        writer.write(ArtifactKind.EVENT_TYPE, 7L, "x".repeat(LegacyArtifactContentWriter.LEGACY_CONTENT_LENGTH + 1));
+
+        verify(jdbcTemplate, never()).update(eq(UPDATE), anyString(), eq(7L));
+    }
+
+    @Test
+    void stopsWhenAnotherInstanceDropsTheColumn() {
+        legacyColumns("TABLE_EVENT_TYPE", 1);
+        doThrow(new BadSqlGrammarException("update", UPDATE, new SQLException("Unknown column 'content'")))
+            .when(jdbcTemplate).update(eq(UPDATE), anyString(), eq(7L));
+
+        writer.write(ArtifactKind.EVENT_TYPE, 7L, "a");
+        writer.write(ArtifactKind.EVENT_TYPE, 7L, "b");
+
+        verify(jdbcTemplate, times(1)).update(eq(UPDATE), anyString(), eq(7L));
+    }
+
+    private void legacyColumns(String table, int count) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(table))).thenReturn(count);
+    }
+}
@@ -0,0 +1,83 @@
+package es.uca.secapi4cep.database.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import es.uca.secapi4cep.entities.Role;
+import es.uca.secapi4cep.entities.User;
+
+class LegacyUserRolesWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final LegacyUserRolesWriter writer = new LegacyUserRolesWriter(jdbcTemplate);
+
+    @Test
+    void writesRolesTheMigrationCanReadBack() {
+        byte[] encoded = LegacyUserRolesWriter.encode(Set.of(Role.USER, Role.ADMIN));
+
+        assertEquals(List.of(Role.ADMIN, Role.USER), MoveUserRolesToTable.decode(1L, encoded));
+        // The legacy column is varbinary(255)
+        assertTrue(encoded.length <= 255, encoded.length + " bytes");
+    }
+
+    @Test
+    void writesTheLegacyColumnWhileItExists() {
+        legacyColumns(1);
+
+        writer.write(user());
+        writer.write(user());
+
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Integer.class));
+        verify(jdbcTemplate, times(2)).update(eq("update TABLE_USER set roles = ? where id = ?"), any(byte[].class), eq(7L));
+    }
+
+    @Test
+    void skipsTheLegacyColumnOnceContracted() {
+        legacyColumns(0);
+
+        writer.write(user());
+
+        verify(jdbcTemplate, never()).update(anyString(), any(byte[].class), eq(7L));
+    }
+
+    @Test
+    void stopsWhenAnotherInstanceDropsTheColumn() {
+        legacyColumns(1);
+        doThrow(new BadSqlGrammarException("update", "update TABLE_USER", new SQLException("Unknown column 'roles'")))
+            .when(jdbcTemplate).update(anyString(), any(byte[].class), eq(7L));
+
+        writer.write(user());
+        writer.write(user());
+
+        verify(jdbcTemplate, times(1)).update(anyString(), any(byte[].class), eq(7L));
+    }
+
+    private void legacyColumns(int count) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(count);
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(7L);
+        user.setRoles(Set.of(Role.USER));
+        return user;
+    }
+}
@@ -0,0 +1,105 @@
+package es.uca.secapi4cep.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import es.uca.secapi4cep.exceptions.DeploymentPlanException;
+
+class DependencyGraphTest {
+
+    private static final ArtifactReference SENSOR = type(1L, "Sensor");
+    private static final ArtifactReference READING = type(2L, "Reading");
+    private static final ArtifactReference ALERT = type(3L, "Alert");
+    private static final ArtifactReference HIGH = pattern(4L, "High");
+    private static final ArtifactReference LOW = pattern(5L, "Low");
+
+    private final DependencyGraph graph = new DependencyGraph();
+
+    @Test
+    void deploysLinearChainsOneWaveAtATime() {
+        graph.addArtifact(ALERT, Set.of("Alert"), Set.of("Reading"));
+        graph.addArtifact(READING, Set.of("Reading"), Set.of("Sensor"));
+        graph.addArtifact(SENSOR, Set.of("Sensor"), Set.of());
+
+        assertEquals(List.of(List.of(SENSOR), List.of(READING), List.of(ALERT)), graph.waves());
+    }
+
+    @Test
+    void deploysBothBranchesOfADiamondInTheSameWave() {
+        graph.addArtifact(ALERT, Set.of("Alert"), Set.of("High", "Low"));
+        graph.addArtifact(LOW, Set.of("Low"), Set.of("Sensor"));
+        graph.addArtifact(HIGH, Set.of("High"), Set.of("Sensor"));
+        graph.addArtifact(SENSOR, Set.of("Sensor"), Set.of());
+
+        assertEquals(List.of(List.of(SENSOR), List.of(HIGH, LOW), List.of(ALERT)), graph.waves());
+    }
+
+    @Test
+    void ordersEachWaveByKindThenId() {
+        graph.addArtifact(LOW, Set.of("Low"), Set.of());
+        graph.addArtifact(READING, Set.of("Reading"), Set.of());
+        graph.addArtifact(HIGH, Set.of("High"), Set.of());
+        graph.addArtifact(SENSOR, Set.of("Sensor"), Set.of());
+
+        assertEquals(List.of(List.of(SENSOR, READING, HIGH, LOW)), graph.waves());
+    }
+
+    @Test
+    void ignoresArtifactsConsumingTheNamesTheyDeclare() {
+        graph.addArtifact(HIGH, Set.of("High"), Set.of("High", "Sensor"));
+        graph.addArtifact(SENSOR, Set.of("Sensor"), Set.of());
+
+        assertEquals(List.of(List.of(SENSOR), List.of(HIGH)), graph.waves());
+    }
+
+    @Test
+    void needsNoOrderForNamesAlreadyAvailable() {
+        graph.addAvailable(List.of("Sensor"));
+        graph.addArtifact(READING, Set.of("Reading"), Set.of("Sensor"));
+        graph.addArtifact(HIGH, Set.of("High"), Set.of("Sensor", "Reading"));
+
+        assertEquals(List.of(List.of(READING), List.of(HIGH)), graph.waves());
+    }
+
+    @Test
+    void waitsForArtifactsRedeployingNamesAlreadyAvailable() {
+        graph.addAvailable(List.of("Sensor"));
+        graph.addArtifact(HIGH, Set.of("High"), Set.of("Sensor"));
+        graph.addArtifact(SENSOR, Set.of("Sensor"), Set.of());
+
+        assertEquals(List.of(List.of(SENSOR), List.of(HIGH)), graph.waves());
+    }
+
+    @Test
+    void rejectsNamesNeitherDeployedNorReady() {
+        graph.addArtifact(HIGH, Set.of("High"), Set.of("Sensor"));
+
+        DeploymentPlanException exception = assertThrows(DeploymentPlanException.class, graph::waves);
+        assertEquals("Event pattern 'High' (id: 4) depends on 'Sensor', which is neither deployed nor ready to deploy.",
+            exception.getMessage());
+    }
+
+    @Test
+    void rejectsCyclesNamingOnlyTheArtifactsInThem() {
+        graph.addArtifact(SENSOR, Set.of("Sensor"), Set.of());
+        graph.addArtifact(READING, Set.of("Reading"), Set.of("Sensor", "Alert"));
+        graph.addArtifact(ALERT, Set.of("Alert"), Set.of("Reading"));
+
+        DeploymentPlanException exception = assertThrows(DeploymentPlanException.class, graph::waves);
+        assertEquals("Cyclic dependencies between Event type 'Alert' (id: 3), Event type 'Reading' (id: 2).",
+            exception.getMessage());
+    }
+
+    private static ArtifactReference type(Long id, String name) {
+        return new ArtifactReference(ArtifactKind.EVENT_TYPE, id, name);
+    }
+
+    private static ArtifactReference pattern(Long id, String name) {
+        return new ArtifactReference(ArtifactKind.EVENT_PATTERN, id, name);
+    }
+}
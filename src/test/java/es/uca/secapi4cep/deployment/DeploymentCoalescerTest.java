@@ -0,0 +1,86 @@
+package es.uca.secapi4cep.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class DeploymentCoalescerTest {
+
+    @Test
+    void retriesFailedOperationsAheadOfLaterOnes() {
+        List<DeploymentOperation> published = new ArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        // Windows and retries never fire on their own, only when flushed
+        DeploymentCoalescer coalescer = new DeploymentCoalescer(operations -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("Broker unavailable");
+            }
+            published.addAll(operations);
+        }, 60_000, 60_000);
+
+        DeploymentOperation undeploy = DeploymentOperation.undeploy(ArtifactKind.EVENT_TYPE, 1L, "A", "a");
+        DeploymentOperation deploy = DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 1L, "A", "b");
+        coalescer.submit(undeploy);
+        coalescer.flushAll();
+        coalescer.submit(deploy);
+        coalescer.flushAll();
+        coalescer.shutdown();
+
+        assertEquals(List.of(undeploy, deploy), published);
+    }
+
+    @Test
+    void retriesOnlyTheOperationsNotYetPublished() {
+        List<DeploymentOperation> published = new ArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        DeploymentCoalescer coalescer = new DeploymentCoalescer(operations -> {
+            if (attempts.incrementAndGet() == 2) {
+                throw new IOException("Broker unavailable");
+            }
+            published.addAll(operations);
+        }, 60_000, 60_000);
+
+        DeploymentOperation undeploy = DeploymentOperation.undeploy(ArtifactKind.EVENT_TYPE, 1L, "A", "a");
+        DeploymentOperation deploy = DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 1L, "A", "b");
+        coalescer.submit(undeploy, deploy);
+        coalescer.flushAll();
+        coalescer.flushAll();
+        coalescer.shutdown();
+
+        assertEquals(List.of(undeploy, deploy), published);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void retriesOnItsOwnUntilPublished() throws InterruptedException {
+        List<DeploymentOperation> published = new ArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        DeploymentCoalescer coalescer = new DeploymentCoalescer(operations -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IOException("Broker unavailable");
+            }
+            synchronized (published) {
+                published.addAll(operations);
+                published.notifyAll();
+            }
+        }, 0, 10);
+
+        DeploymentOperation deploy = DeploymentOperation.deploy(ArtifactKind.EVENT_PATTERN, 2L, "P", "p");
+        coalescer.submit(deploy);
+        synchronized (published) {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (published.isEmpty() && System.currentTimeMillis() < deadline) {
+                published.wait(100);
+            }
+        }
+        coalescer.shutdown();
+
+        assertEquals(List.of(deploy), published);
+        assertEquals(3, attempts.get());
+    }
+}
@@ -0,0 +1,75 @@
+package es.uca.secapi4cep.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import es.uca.secapi4cep.entities.OutboxOperation;
+import es.uca.secapi4cep.repositories.DeploymentLeaseRepository;
+import es.uca.secapi4cep.repositories.DeploymentOutboxRepository;
+
+class DeploymentCoordinatorTest {
+
+    @Test
+    void publishesOperationsOfAnArtifactInSequenceOrder() {
+        // The undeploy of type 1 got a lower ID than the deploy it follows
+        List<OutboxOperation> batch = List.of(
+            entry(1L, DeploymentOperation.undeploy(ArtifactKind.EVENT_TYPE, 1L, "A", "a"), 2),
+            entry(2L, DeploymentOperation.deploy(ArtifactKind.EVENT_PATTERN, 1L, "P", "p"), 1),
+            entry(3L, DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 1L, "A", "a"), 1),
+            entry(4L, DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 2L, "B", "b"), 1));
+
+        List<DeploymentOperation> ordered = DeploymentCoordinator.inArtifactOrder(batch);
+
+        assertEquals(List.of(
+            DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 1L, "A", "a"),
+            DeploymentOperation.deploy(ArtifactKind.EVENT_PATTERN, 1L, "P", "p"),
+            DeploymentOperation.undeploy(ArtifactKind.EVENT_TYPE, 1L, "A", "a"),
+            DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 2L, "B", "b")), ordered);
+    }
+
+    @Test
+    void keepsTheOrderOfIdsAcrossArtifacts() {
+        List<OutboxOperation> batch = List.of(
+            entry(1L, DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 2L, "B", "b"), 7),
+            entry(2L, DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 1L, "A", "a"), 1));
+
+        assertEquals(List.of(batch.get(0).toOperation(), batch.get(1).toOperation()),
+            DeploymentCoordinator.inArtifactOrder(batch));
+    }
+
+    @Test
+    void publishesTheOperationsOfAnArtifactInTheSameBatch() throws Exception {
+        // The batch holds the second operation of type 1; its first one got a later ID
+        OutboxOperation undeploy = entry(1L, DeploymentOperation.undeploy(ArtifactKind.EVENT_TYPE, 1L, "A", "a"), 2);
+        OutboxOperation other = entry(2L, DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 2L, "B", "b"), 1);
+        OutboxOperation deploy = entry(3L, DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 1L, "A", "a"), 1);
+        DeploymentOutboxRepository outboxRepository = mock(DeploymentOutboxRepository.class);
+        when(outboxRepository.findByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(undeploy, other));
+        when(outboxRepository.findByKindAndArtifactIdIn(ArtifactKind.EVENT_TYPE, Set.of(1L, 2L)))
+            .thenReturn(List.of(other, deploy, undeploy));
+        DeploymentPublisher publisher = mock(DeploymentPublisher.class);
+        DeploymentCoordinator coordinator = new DeploymentCoordinator(mock(DeploymentLeaseRepository.class), outboxRepository,
+            publisher, 3_000, 250, 2);
+
+        assertTrue(coordinator.drainBatch());
+
+        verify(publisher).publish(List.of(deploy.toOperation(), other.toOperation(), undeploy.toOperation()));
+        verify(outboxRepository).deleteAllById(List.of(1L, 2L, 3L));
+    }
+
+    private static OutboxOperation entry(long id, DeploymentOperation operation, long sequence) {
+        OutboxOperation entry = OutboxOperation.of(operation, sequence);
+        entry.setId(id);
+        return entry;
+    }
+}
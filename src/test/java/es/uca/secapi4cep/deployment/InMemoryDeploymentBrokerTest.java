@@ -0,0 +1,292 @@
+package es.uca.secapi4cep.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.uca.secapi4cep.cache.InvalidationBus;
+import es.uca.secapi4cep.cache.LocalCache;
+import es.uca.secapi4cep.database.migration.LegacyArtifactContentWriter;
+import es.uca.secapi4cep.entities.CepArtifact;
+import es.uca.secapi4cep.entities.EventPattern;
+import es.uca.secapi4cep.entities.EventType;
+import es.uca.secapi4cep.lifecycle.DeploymentDrain;
+import es.uca.secapi4cep.repositories.CepArtifactRepository;
+import es.uca.secapi4cep.repositories.EventPatternRepository;
+import es.uca.secapi4cep.repositories.EventTypeRepository;
+import es.uca.secapi4cep.services.ArtifactLifecycleEngine;
+import es.uca.secapi4cep.services.EplValidationService;
+
+/**
+ * Contract of the in-memory stand-in of the CEP engine queues: it must receive
+ * what RabbitMQ would, in the same order, however many publishers there are.
+ */
+class InMemoryDeploymentBrokerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryDeploymentBrokerTest.class);
+
+    private final InMemoryDeploymentBroker broker = new InMemoryDeploymentBroker(10_000);
+    private final DeploymentCoalescer coalescer = new DeploymentCoalescer(broker, 0, 1_000);
+
+    @AfterEach
+    void stopCoalescer() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void receivesTheMessagesOfEveryLifecycleTransition() {
+        EventType eventType = new EventType();
+        eventType.setId(1L);
+        eventType.setName("Temperature");
+        eventType.setContent("create schema Temperature (value double)");
+        ArtifactLifecycleEngine<EventType> engine = engine(eventType);
+
+        // Drafts cannot be deployed, and becoming ready sends nothing
+        assertFalse(engine.updateDeployingStatus(1L, true));
+        assertTrue(engine.updateStatus(1L, true));
+        coalescer.flushAll();
+        assertEquals(List.of(), broker.messages());
+
+        assertTrue(engine.updateDeployingStatus(1L, true));
+        coalescer.flushAll();
+        assertMessages(List.of("deploy:create schema Temperature (value double)"));
+
+        EventType changed = new EventType();
+        changed.setName("Temperature");
+        changed.setContent("create schema Temperature (value double, sensor string)");
+        assertTrue(engine.update(changed, 1L));
+        coalescer.flushAll();
+        assertMessages(List.of("deploy:create schema Temperature (value double)", "undeploy:Temperature",
+            "deploy:create schema Temperature (value double, sensor string)"));
+
+        assertTrue(engine.updateDeployingStatus(1L, false));
+        coalescer.flushAll();
+        assertEquals("undeploy:Temperature", describe(broker.messages().get(3)));
+        assertEquals(4, broker.messages().size());
+    }
+
+    @Test
+    void keepsTheOrderOfPublishingAndDiscardsTheOldestMessages() {
+        InMemoryDeploymentBroker small = new InMemoryDeploymentBroker(3);
+        small.publish(List.of(DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 1L, "A", "a"),
+            DeploymentOperation.deploy(ArtifactKind.EVENT_PATTERN, 2L, "P", "p")));
+        small.publish(List.of(DeploymentOperation.undeploy(ArtifactKind.EVENT_TYPE, 1L, "A", "a"),
+            DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 1L, "A", "b")));
+
+        List<RecordedMessage> messages = small.messages();
+        assertEquals(List.of(2L, 3L, 4L), messages.stream().map(RecordedMessage::sequence).toList());
+        assertEquals(List.of("deploy:p", "undeploy:A", "deploy:b"), messages.stream().map(this::describe).toList());
+        assertEquals(ArtifactKind.EVENT_PATTERN, messages.get(0).kind());
+        assertEquals(2L, messages.get(0).artifactId());
+
+        small.clear();
+        assertTrue(small.messages().isEmpty());
+        small.publish(List.of(DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 3L, "C", "c")));
+        assertEquals(5L, small.messages().get(0).sequence());
+    }
+
+    @Test
+    void keepsTheOrderOfEveryPublisherUnderConcurrentLoad() throws Exception {
+        int publishers = 8;
+        int batches = 2_000;
+        InMemoryDeploymentBroker loaded = new InMemoryDeploymentBroker(publishers * batches * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(publishers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> running = new ArrayList<>();
+        for (int publisher = 0; publisher < publishers; publisher++) {
+            long artifactId = publisher;
+            running.add(executor.submit(() -> {
+                start.await();
+                for (int batch = 0; batch < batches; batch++) {
+                    loaded.publish(List.of(
+                        DeploymentOperation.undeploy(ArtifactKind.EVENT_TYPE, artifactId, "T" + artifactId, "v" + batch),
+                        DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, artifactId, "T" + artifactId, "v" + (batch + 1))));
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> publisher : running) {
+            publisher.get(30, TimeUnit.SECONDS);
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+
+        List<RecordedMessage> messages = loaded.messages();
+        assertEquals(publishers * batches * 2, messages.size());
+        Map<Long, List<String>> perArtifact = new HashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            assertEquals(i + 1, messages.get(i).sequence());
+            perArtifact.computeIfAbsent(messages.get(i).artifactId(), k -> new ArrayList<>()).add(describe(messages.get(i)));
+        }
+        // Batches are never interleaved, and every publisher sees its own messages in order
+        for (int i = 0; i < messages.size(); i += 2) {
+            assertEquals(messages.get(i).artifactId(), messages.get(i + 1).artifactId());
+        }
+        perArtifact.forEach((artifactId, received) -> {
+            for (int batch = 0; batch < batches; batch++) {
+                assertEquals("deploy:v" + (batch + 1), received.get(batch * 2 + 1));
+            }
+        });
+        logger.info("{} publishers sent {} messages in {} ms ({} messages/s)", publishers, messages.size(),
+            TimeUnit.NANOSECONDS.toMillis(elapsed), messages.size() * TimeUnit.SECONDS.toNanos(1) / elapsed);
+    }
+
+    @Test
+    void receivesTheMessagesOfEveryArtifactInOrderUnderConcurrentTransitions() throws Exception {
+        int artifacts = 4;
+        int threadsPerArtifact = 3;
+        int operations = 300;
+        InMemoryDeploymentBroker loaded = new InMemoryDeploymentBroker(artifacts * 2 * threadsPerArtifact * operations * 2);
+        DeploymentCoalescer loadedCoalescer = new DeploymentCoalescer(loaded, 0, 1_000);
+        List<EventType> eventTypes = new ArrayList<>();
+        List<EventPattern> eventPatterns = new ArrayList<>();
+        for (long id = 1; id <= artifacts; id++) {
+            EventType eventType = new EventType();
+            eventType.setId(id);
+            eventTypes.add(ready(eventType, "Type" + id));
+            EventPattern eventPattern = new EventPattern();
+            eventPattern.setId(id);
+            eventPatterns.add(ready(eventPattern, "Pattern" + id));
+        }
+        ArtifactLifecycleEngine<EventType> eventTypeEngine = engine(ArtifactKind.EVENT_TYPE, mock(EventTypeRepository.class),
+            eventTypes, loadedCoalescer, loaded);
+        ArtifactLifecycleEngine<EventPattern> eventPatternEngine = engine(ArtifactKind.EVENT_PATTERN,
+            mock(EventPatternRepository.class), eventPatterns, loadedCoalescer, loaded);
+
+        ExecutorService executor = Executors.newFixedThreadPool(artifacts * 2 * threadsPerArtifact);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> running = new ArrayList<>();
+        for (long id = 1; id <= artifacts; id++) {
+            for (int thread = 0; thread < threadsPerArtifact; thread++) {
+                running.add(executor.submit(transitions(eventTypeEngine, EventType::new, id, "Type" + id, thread, operations, start)));
+                running.add(executor.submit(transitions(eventPatternEngine, EventPattern::new, id, "Pattern" + id, thread,
+                    operations, start)));
+            }
+        }
+        start.countDown();
+        try {
+            for (Future<?> transitions : running) {
+                transitions.get(30, TimeUnit.SECONDS);
+            }
+            loadedCoalescer.flushAll();
+        } finally {
+            executor.shutdown();
+            loadedCoalescer.shutdown();
+        }
+
+        // Replayed in order, the messages of every artifact leave the CEP engine with its final state
+        Map<String, List<RecordedMessage>> perArtifact = new HashMap<>();
+        for (RecordedMessage message : loaded.messages()) {
+            perArtifact.computeIfAbsent(message.kind() + ":" + message.artifactId(), k -> new ArrayList<>()).add(message);
+        }
+        List<CepArtifact> finalStates = new ArrayList<>(eventTypes);
+        finalStates.addAll(eventPatterns);
+        for (CepArtifact artifact : finalStates) {
+            String key = (artifact instanceof EventType ? ArtifactKind.EVENT_TYPE : ArtifactKind.EVENT_PATTERN) + ":" + artifact.getId();
+            String deployed = null;
+            for (RecordedMessage message : perArtifact.getOrDefault(key, List.of())) {
+                if (message.queue().equals(DeploymentOperation.DEPLOY_QUEUE)) {
+                    assertNull(deployed, key + " deployed twice without an undeploy");
+                    deployed = message.body();
+                } else {
+                    assertNotNull(deployed, key + " undeployed while not deployed");
+                    assertEquals(artifact.getName(), message.body());
+                    deployed = null;
+                }
+            }
+            assertEquals(artifact.isDeployed() ? artifact.getContent() : null, deployed, key);
+        }
+        assertTrue(loaded.messages().size() > artifacts * 2, "the transitions sent messages");
+    }
+
+    // Deploys, undeploys and edits an artifact at random, ignoring the transitions its current state refuses
+    private static <T extends CepArtifact> Callable<Void> transitions(ArtifactLifecycleEngine<T> engine, Supplier<T> newArtifact,
+            long id, String name, int thread, int operations, CountDownLatch start) {
+        return () -> {
+            start.await();
+            Random random = new Random(id * 31 + thread);
+            for (int i = 0; i < operations; i++) {
+                switch (random.nextInt(3)) {
+                    case 0 -> engine.updateDeployingStatus(id, true);
+                    case 1 -> engine.updateDeployingStatus(id, false);
+                    default -> {
+                        T changed = newArtifact.get();
+                        changed.setName(name);
+                        changed.setContent("create schema " + name + " (value double, v" + thread + "_" + i + " int)");
+                        engine.update(changed, id);
+                    }
+                }
+                if (i % 10 == 0) {
+                    // Drafts go back to ready, so that they can be deployed again
+                    engine.updateStatus(id, true);
+                }
+            }
+            return null;
+        };
+    }
+
+    private static <T extends CepArtifact> T ready(T artifact, String name) {
+        artifact.setName(name);
+        artifact.setContent("create schema " + name + " (value double)");
+        artifact.setReadyToDeploy(true);
+        return artifact;
+    }
+
+    // Engine over a single stored event type, publishing through the coalescer to the broker
+    private ArtifactLifecycleEngine<EventType> engine(EventType stored) {
+        return engine(ArtifactKind.EVENT_TYPE, mock(EventTypeRepository.class), List.of(stored), coalescer, broker);
+    }
+
+    // Engine over stored artifacts of a kind, publishing through a coalescer to a broker
+    private static <T extends CepArtifact> ArtifactLifecycleEngine<T> engine(ArtifactKind kind, CepArtifactRepository<T> repository,
+            List<T> stored, DeploymentCoalescer coalescer, InMemoryDeploymentBroker broker) {
+        for (T artifact : stored) {
+            when(repository.findById(eq(artifact.getId()))).thenReturn(Optional.of(artifact));
+        }
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.updateStatus(anyLong(), anyLong(), anyBoolean(), anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(1);
+        DeploymentDrain drain = new DeploymentDrain(coalescer, 1_000);
+        drain.start();
+        return new ArtifactLifecycleEngine<>(kind, repository, coalescer, broker,
+            new EplValidationService(List.of(), 16), new ArtifactLocks(16), drain,
+            new InvalidationBus(null, false, 50, 500), new LocalCache<>(0, 0),
+            mock(LegacyArtifactContentWriter.class));
+    }
+
+    private void assertMessages(List<String> expected) {
+        assertEquals(expected, broker.messages().stream().map(this::describe).toList());
+    }
+
+    private String describe(RecordedMessage message) {
+        return message.queue() + ":" + message.body();
+    }
+}
@@ -0,0 +1,73 @@
+package es.uca.secapi4cep.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import es.uca.secapi4cep.Measurement;
+import es.uca.secapi4cep.entities.EventType;
+
+class ResponseSerializationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseSerializationTest.class);
+
+    private final ObjectMapper reflective = new ObjectMapper();
+    private final ObjectMapper blackbird = JsonMapper.builder().addModule(new BlackbirdModule()).build();
+
+    private final List<EventType> eventTypes = eventTypes(100);
+
+    @Test
+    void recordKeepsTheShapeOfTheMapBody() throws Exception {
+        assertEquals(reflective.readTree(reflective.writeValueAsBytes(mapBody())),
+            reflective.readTree(reflective.writeValueAsBytes(recordBody())));
+        assertEquals(reflective.writeValueAsString(recordBody()), blackbird.writeValueAsString(recordBody()));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void measuresSerializationOfTheListResponse() throws Exception {
+        Measurement map = Measurement.of(2_000, 5_000, () -> reflective.writeValueAsBytes(mapBody()));
+        Measurement record = Measurement.of(2_000, 5_000, () -> reflective.writeValueAsBytes(recordBody()));
+        Measurement recordBlackbird = Measurement.of(2_000, 5_000, () -> blackbird.writeValueAsBytes(recordBody()));
+
+        logger.info("Serializing {} event types: HashMap body {}, record body {}, record body with Blackbird {}",
+            eventTypes.size(), map, record, recordBlackbird);
+    }
+
+    private Map<String, Object> mapBody() {
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("status", HttpStatus.OK.value());
+        responseBody.put("eventTypes", eventTypes);
+        return responseBody;
+    }
+
+    private EventTypeListResponse recordBody() {
+        return new EventTypeListResponse(HttpStatus.OK.value(), eventTypes);
+    }
+
+    private static List<EventType> eventTypes(int count) {
+        List<EventType> eventTypes = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            EventType eventType = new EventType();
+            eventType.setId(id);
+            eventType.setName("Type" + id);
+            eventType.setContent("@public @buseventtype create json schema Type" + id + " as (value double, ts long)");
+            eventType.setReadyToDeploy(id % 2 == 0);
+            eventTypes.add(eventType);
+        }
+        return eventTypes;
+    }
+}
@@ -0,0 +1,61 @@
+package es.uca.secapi4cep.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import es.uca.secapi4cep.Measurement;
+
+class AuthorityRegistryTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorityRegistryTest.class);
+
+    // Keeps the results reachable, so that the JIT cannot drop the allocations being measured
+    private Object sink;
+
+    @Test
+    void sharesOneListPerSetOfRoles() {
+        List<GrantedAuthority> authorities = AuthorityRegistry.authoritiesOf(Set.of(Role.ADMIN, Role.USER));
+
+        assertEquals(List.of(Role.USER.getAuthority(), Role.ADMIN.getAuthority()), authorities);
+        assertSame(authorities, AuthorityRegistry.authoritiesOf(List.of(Role.ADMIN, Role.USER, Role.ADMIN)));
+        assertSame(Role.USER.getAuthority(), AuthorityRegistry.authoritiesOf(Set.of(Role.USER)).get(0));
+        assertTrue(AuthorityRegistry.authoritiesOf(null).isEmpty());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void buildsUserDetailsWithoutAllocatingAuthorities() throws Exception {
+        User user = new User();
+        user.setUsername("admin");
+        user.setPassword("secret");
+        user.setRoles(EnumSet.of(Role.USER, Role.ADMIN));
+
+        Measurement perUser = Measurement.of(20_000, 100_000, () -> sink = authoritiesPerUser(user.getRoles()));
+        Measurement shared = Measurement.of(20_000, 100_000, () -> sink = new UserInfo(user));
+
+        logger.info("User with {} roles: authorities built per user {}, whole UserInfo with shared authorities {}",
+            user.getRoles().size(), perUser, shared);
+        assertTrue(shared.bytesPerRun() < perUser.bytesPerRun());
+    }
+
+    // How the authorities were built for every authenticated user before they were shared
+    private static List<GrantedAuthority> authoritiesPerUser(Collection<Role> roles) {
+        return roles.stream()
+            .map(role -> new SimpleGrantedAuthority(role.name()))
+            .collect(Collectors.toList());
+    }
+}
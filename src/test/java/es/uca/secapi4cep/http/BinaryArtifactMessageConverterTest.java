@@ -0,0 +1,114 @@
+package es.uca.secapi4cep.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.uca.secapi4cep.Measurement;
+import es.uca.secapi4cep.entities.EventType;
+
+class BinaryArtifactMessageConverterTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryArtifactMessageConverterTest.class);
+
+    private static final Type EVENT_TYPES = new ParameterizedTypeReference<List<EventType>>() { }.getType();
+    private static final Type NAMES = new ParameterizedTypeReference<List<String>>() { }.getType();
+
+    private final BinaryArtifactMessageConverter converter = new BinaryArtifactMessageConverter();
+
+    @Test
+    void onlyWritesListsOfArtifacts() {
+        assertTrue(converter.canWrite(EVENT_TYPES, List.class, BinaryArtifactMessageConverter.MEDIA_TYPE));
+        assertFalse(converter.canWrite(NAMES, List.class, BinaryArtifactMessageConverter.MEDIA_TYPE));
+        assertFalse(converter.canRead(EVENT_TYPES, null, BinaryArtifactMessageConverter.MEDIA_TYPE));
+    }
+
+    @Test
+    void writesTheDocumentedFormat() throws IOException {
+        EventType eventType = eventType(7, "Temperature", "create schema Temperature (value double)");
+        eventType.setDeployed(true);
+        eventType.setVersion(3);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(write(List.of(eventType))));
+
+        assertArrayEquals(new byte[] { 'C', 'E', 'P', 'A' }, in.readNBytes(4));
+        assertEquals(1, in.readByte());
+        assertEquals(1, in.readInt());
+        assertEquals(7L, in.readLong());
+        assertEquals(3L, in.readLong());
+        assertEquals(2, in.readByte());
+        assertEquals("Temperature", readString(in));
+        assertNull(readString(in));
+        assertEquals("create schema Temperature (value double)", readString(in));
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void writesSmallerPayloadsThanJson() throws Exception {
+        List<EventType> eventTypes = eventTypes(500);
+
+        assertTrue(write(eventTypes).length < new ObjectMapper().writeValueAsBytes(eventTypes).length);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void measuresPayloadAndEncodingAgainstJson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<EventType> eventTypes = eventTypes(500);
+
+        int binarySize = write(eventTypes).length;
+        int jsonSize = objectMapper.writeValueAsBytes(eventTypes).length;
+        Measurement binary = Measurement.of(200, 1_000, () -> write(eventTypes));
+        Measurement json = Measurement.of(200, 1_000, () -> objectMapper.writeValueAsBytes(eventTypes));
+
+        logger.info("Encoding {} event types: binary {} bytes in {}, JSON {} bytes in {}",
+            eventTypes.size(), binarySize, binary, jsonSize, json);
+    }
+
+    private byte[] write(List<EventType> eventTypes) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(eventTypes, EVENT_TYPES, BinaryArtifactMessageConverter.MEDIA_TYPE, message);
+        return message.getBodyAsBytes();
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static List<EventType> eventTypes(int count) {
+        List<EventType> eventTypes = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            eventTypes.add(eventType(id, "Type" + id, "@public @buseventtype create json schema Type" + id
+                + " as (sensor string, \"value\" double, ts long);\n@name('Alert" + id + "') select * from Type" + id));
+        }
+        return eventTypes;
+    }
+
+    private static EventType eventType(long id, String name, String content) {
+        EventType eventType = new EventType();
+        eventType.setId(id);
+        eventType.setName(name);
+        eventType.setContent(content);
+        return eventType;
+    }
+}
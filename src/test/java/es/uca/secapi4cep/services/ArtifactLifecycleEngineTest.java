@@ -0,0 +1,116 @@
+package es.uca.secapi4cep.services;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import es.uca.secapi4cep.cache.CacheRegion;
+import es.uca.secapi4cep.cache.InvalidationBus;
+import es.uca.secapi4cep.cache.LocalCache;
+import es.uca.secapi4cep.database.migration.LegacyArtifactContentWriter;
+import es.uca.secapi4cep.deployment.ArtifactKind;
+import es.uca.secapi4cep.deployment.ArtifactLocks;
+import es.uca.secapi4cep.deployment.DeploymentCoalescer;
+import es.uca.secapi4cep.deployment.DeploymentOperation;
+import es.uca.secapi4cep.deployment.DeploymentOutbox;
+import es.uca.secapi4cep.deployment.DeploymentSink;
+import es.uca.secapi4cep.entities.EventType;
+import es.uca.secapi4cep.lifecycle.DeploymentDrain;
+import es.uca.secapi4cep.repositories.EventTypeRepository;
+
+class ArtifactLifecycleEngineTest {
+
+    private static final String CONTENT = "create schema Temperature (value double)";
+
+    private final EventTypeRepository repository = mock(EventTypeRepository.class);
+    private final DeploymentCoalescer coalescer = mock(DeploymentCoalescer.class);
+    private final InvalidationBus invalidationBus = mock(InvalidationBus.class);
+
+    @Test
+    void redeploysRenamedArtifactsUnderTheirNewName() {
+        ArtifactLifecycleEngine<EventType> engine = engine(stored(true), mock(DeploymentSink.class));
+
+        assertTrue(engine.update(artifact("Temperatures", CONTENT), 1L));
+
+        verify(coalescer).submit(DeploymentOperation.undeploy(ArtifactKind.EVENT_TYPE, 1L, "Temperature", CONTENT),
+            DeploymentOperation.deploy(ArtifactKind.EVENT_TYPE, 1L, "Temperatures", CONTENT));
+    }
+
+    @Test
+    void keepsDeployedArtifactsWhoseNameAndContentAreUnchanged() {
+        ArtifactLifecycleEngine<EventType> engine = engine(stored(true), mock(DeploymentSink.class));
+
+        assertTrue(engine.update(artifact("Temperature", CONTENT), 1L));
+
+        verify(coalescer, never()).submit(any(DeploymentOperation[].class));
+        verify(repository).save(any(EventType.class));
+    }
+
+    @Test
+    void sendsNothingWhenUndeployingArtifactsThatWereNeverDeployed() {
+        EventType eventType = stored(false);
+        eventType.setReadyToDeploy(true);
+        ArtifactLifecycleEngine<EventType> engine = engine(eventType, mock(DeploymentSink.class));
+
+        assertTrue(engine.updateDeployingStatus(1L, false));
+
+        verify(repository).updateStatus(eq(1L), anyLong(), eq(true), eq(false), eq(false), eq(false));
+        verify(coalescer, never()).submit(any(DeploymentOperation[].class));
+    }
+
+    @Test
+    void evictsArtifactsOnlyOnceTheOutboxTransactionCommits() {
+        EventType eventType = stored(false);
+        eventType.setReadyToDeploy(true);
+        DeploymentOutbox outbox = mock(DeploymentOutbox.class);
+        // Stands for the transaction: the state change runs, and nothing may be evicted before it commits
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            verify(invalidationBus, never()).invalidate(any(CacheRegion.class), any());
+            return null;
+        }).when(outbox).publishWith(any(Runnable.class), anyList());
+        ArtifactLifecycleEngine<EventType> engine = engine(eventType, outbox);
+
+        assertTrue(engine.updateDeployingStatus(1L, true));
+        verify(outbox).publishWith(any(Runnable.class), anyList());
+        verify(invalidationBus).invalidate(CacheRegion.of(ArtifactKind.EVENT_TYPE), 1L);
+    }
+
+    private ArtifactLifecycleEngine<EventType> engine(EventType stored, DeploymentSink deploymentSink) {
+        when(repository.findById(eq(stored.getId()))).thenReturn(Optional.of(stored));
+        when(repository.save(any(EventType.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.updateStatus(anyLong(), anyLong(), anyBoolean(), anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(1);
+        DeploymentDrain drain = new DeploymentDrain(coalescer, 1_000);
+        drain.start();
+        return new ArtifactLifecycleEngine<>(ArtifactKind.EVENT_TYPE, repository, coalescer, deploymentSink,
+            new EplValidationService(List.of(), 16), new ArtifactLocks(16), drain, invalidationBus, new LocalCache<>(0, 0),
+            mock(LegacyArtifactContentWriter.class));
+    }
+
+    private static EventType stored(boolean deployed) {
+        EventType eventType = artifact("Temperature", CONTENT);
+        eventType.setId(1L);
+        eventType.setDeployed(deployed);
+        return eventType;
+    }
+
+    private static EventType artifact(String name, String content) {
+        EventType eventType = new EventType();
+        eventType.setName(name);
+        eventType.setContent(content);
+        return eventType;
+    }
+}